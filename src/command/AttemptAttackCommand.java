@@ -1,10 +1,11 @@
 package command;
 
+import world.GameEvent;
+import world.GameEventSink;
 import world.Player;
 import world.Item;
 import world.Space;
-
-import java.util.List;
+import world.World;
 
 /**
  * AttemptAttackCommand allows a player to make an attempt on the target character's life.
@@ -36,21 +37,24 @@ public class AttemptAttackCommand implements Command {
      */
     @Override
     public void execute() {
+        GameEventSink events = GameEventSink.of(attacker.getCurrentSpace());
+
         // Ensure the attacker and target are in the same space
         if (attacker.getCurrentSpace() != target.getCurrentSpace()) {
-            System.out.println("Attack attempt failed! " + target.getName() + " is not in the same space.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.ATTACK_OUT_OF_REACH, attacker.getName(), target.getName()));
+            }
             return;
         }
 
-        // Check if there are other players in the same space who can see the attack
+        // Check if other players in the same space, or in a neighboring space that can see it, witness the attack
         Space currentSpace = attacker.getCurrentSpace();
-        List<Player> playersInSpace = currentSpace.getPlayers();
-
-        for (Player player : playersInSpace) {
-            if (player != attacker && player != target) {
-                System.out.println("Attack attempt failed! " + target.getName() + " was seen by " + player.getName() + ".");
-                return;
+        Player witness = findWitness(currentSpace);
+        if (witness != null) {
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.ATTACK_WITNESSED, attacker.getName(), target.getName(), witness.getName(), 0));
             }
+            return;
         }
 
         // Only execute if attacker cannot see the target (sneak attack)
@@ -58,21 +62,69 @@ public class AttemptAttackCommand implements Command {
             int damage = (weapon != null) ? weapon.getDamage() : 1; // Default damage is 1 if no weapon
             target.reduceHealth(damage);
 
-            System.out.println(attacker.getName() + " attacked " + target.getName() + " for " + damage + " damage.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.ATTACK_HIT, attacker.getName(), target.getName(), null, damage));
+            }
 
             // If a weapon is used, remove it from the attacker's inventory as evidence
             if (weapon != null) {
                 attacker.getInventory().remove(weapon);
-                System.out.println(weapon.getName() + " was removed from play as evidence.");
+                if (events.isEnabled()) {
+                    events.publish(GameEvent.of(GameEvent.Type.EVIDENCE_REMOVED, attacker.getName(), weapon.getName()));
+                }
             }
 
             // Check if target is defeated
             if (target.getHealth() <= 0) {
-                System.out.println(target.getName() + " has been defeated!");
+                if (events.isEnabled()) {
+                    events.publish(GameEvent.of(GameEvent.Type.PLAYER_DEFEATED, attacker.getName(), target.getName()));
+                }
             }
         } else {
-            System.out.println("Attack attempt failed! " + target.getName() + " was seen.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.ATTACK_SEEN, attacker.getName(), target.getName()));
+            }
+        }
+    }
+
+    /**
+     * Gets the player attempting the attack.
+     *
+     * @return The player attempting the attack.
+     */
+    public Player getAttacker() {
+        return attacker;
+    }
+
+    /**
+     * Gets the player being attacked.
+     *
+     * @return The player being attacked.
+     */
+    public Player getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the weapon used for the attack.
+     *
+     * @return The weapon, or null for the default.
+     */
+    public Item getWeapon() {
+        return weapon;
+    }
+
+    private Player findWitness(Space currentSpace) {
+        World world = currentSpace.getWorld();
+        if (world != null) {
+            return world.findWitness(currentSpace, attacker, target);
+        }
+        for (Player player : currentSpace.getPlayers()) {
+            if (player != attacker && player != target) {
+                return player;
+            }
         }
+        return null;
     }
 
     /**
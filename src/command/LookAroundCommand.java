@@ -1,5 +1,6 @@
 package command;
 
+import world.GameOutput;
 import world.Player;
 import world.Space;
 import world.World;
@@ -42,14 +43,20 @@ public class LookAroundCommand implements Command {
             throw new IllegalStateException("Player must be in a space to look around.");
         }
 
+        // Nothing to do when the output is discarded
+        GameOutput output = world.getOutput();
+        if (!output.isEnabled()) {
+            return;
+        }
+
         // Output information about the current space
-        System.out.println("You are currently in: " + currentSpace.getName());
+        output.println("You are currently in: " + currentSpace.getName());
 
         // Items in the current space
         if (currentSpace.getItems().isEmpty()) {
-            System.out.println("There are no items in this space.");
+            output.println("There are no items in this space.");
         } else {
-            System.out.println("Items in this space: " +
+            output.println("Items in this space: " +
                     currentSpace.getItems().stream().map(item -> item.getName()).collect(Collectors.joining(", ")));
         }
 
@@ -60,28 +67,37 @@ public class LookAroundCommand implements Command {
                 .collect(Collectors.joining(", "));
 
         if (playersInSpace.isEmpty()) {
-            System.out.println("There are no other players in this space.");
+            output.println("There are no other players in this space.");
         } else {
-            System.out.println("Other players in this space: " + playersInSpace);
+            output.println("Other players in this space: " + playersInSpace);
         }
 
         // Output information about neighboring spaces
-        System.out.println("From here, you can see:");
+        output.println("From here, you can see:");
         for (Space neighbor : currentSpace.getNeighbors()) {
-            if (world.isVisible(neighbor)) {
+            if (world.isVisible(currentSpace, neighbor)) {
                 String neighborItems = neighbor.getItems().isEmpty() ? "no items" :
                         neighbor.getItems().stream().map(item -> item.getName()).collect(Collectors.joining(", "));
 
                 String neighborPlayers = neighbor.getPlayers().isEmpty() ? "no players" :
                         neighbor.getPlayers().stream().map(Player::getName).collect(Collectors.joining(", "));
 
-                System.out.println(" - " + neighbor.getName() + " with " + neighborItems + " and " + neighborPlayers);
+                output.println(" - " + neighbor.getName() + " with " + neighborItems + " and " + neighborPlayers);
             } else {
-                System.out.println(" - " + neighbor.getName() + " is not visible.");
+                output.println(" - " + neighbor.getName() + " is not visible.");
             }
         }
     }
 
+    /**
+     * Gets the player looking around.
+     *
+     * @return The player looking around.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
     /**
      * Gets a description of the command.
      *
@@ -1,5 +1,7 @@
 package command;
 
+import world.GameEvent;
+import world.GameEventSink;
 import world.Player;
 import world.Space;
 import world.World;
@@ -32,14 +34,37 @@ public class MoveCommand implements Command {
     @Override
     public void execute() {
         Space currentSpace = player.getCurrentSpace();
-        if (currentSpace != null && currentSpace.getNeighbors().contains(targetSpace)) {
+        GameEventSink events = GameEventSink.of(currentSpace != null ? currentSpace : targetSpace);
+        if (currentSpace != null && currentSpace.hasNeighbor(targetSpace)) {
             player.move(targetSpace);
-            System.out.println(player.getName() + " moved to " + targetSpace.getName());
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.PLAYER_MOVED, player.getName(), null, targetSpace.getName(), 0));
+            }
         } else {
-            System.out.println("Move not allowed: " + targetSpace.getName() + " is not a neighboring space.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.MOVE_REJECTED, player.getName(), null, targetSpace.getName(), 0));
+            }
         }
     }
 
+    /**
+     * Gets the player performing the move.
+     *
+     * @return The player performing the move.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the space the player moves to.
+     *
+     * @return The space the player moves to.
+     */
+    public Space getTargetSpace() {
+        return targetSpace;
+    }
+
     /**
      * Returns a description of the move command.
      *
@@ -57,6 +82,6 @@ public class MoveCommand implements Command {
      */
     @Override
     public boolean isValid() {
-        return player != null && targetSpace != null && player.getCurrentSpace() != null && player.getCurrentSpace().getNeighbors().contains(targetSpace);
+        return player != null && targetSpace != null && player.getCurrentSpace() != null && player.getCurrentSpace().hasNeighbor(targetSpace);
     }
 }
@@ -1,5 +1,7 @@
 package command;
 
+import world.GameEvent;
+import world.GameEventSink;
 import world.Player;
 import world.Item;
 import world.Space;
@@ -28,15 +30,39 @@ public class PickUpItemCommand implements Command {
     @Override
     public void execute() {
         Space currentSpace = player.getCurrentSpace();
+        GameEventSink events = GameEventSink.of(currentSpace);
         if (currentSpace.getItems().contains(item)) {
             player.pickUpItem(item);
-            currentSpace.removeItem(item);
-            System.out.println(player.getName() + " picked up " + item.getName());
+            if (events.isEnabled()) {
+                GameEvent.Type type = player.getInventory().contains(item)
+                        ? GameEvent.Type.ITEM_PICKED_UP : GameEvent.Type.INVENTORY_FULL;
+                events.publish(GameEvent.of(type, player.getName(), item.getName()));
+            }
         } else {
-            System.out.println("Item " + item.getName() + " is not available in the current space.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.ITEM_UNAVAILABLE, player.getName(), item.getName()));
+            }
         }
     }
 
+    /**
+     * Gets the player picking up the item.
+     *
+     * @return The player picking up the item.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the item to be picked up.
+     *
+     * @return The item to be picked up.
+     */
+    public Item getItem() {
+        return item;
+    }
+
     /**
      * Gets a description of the command.
      *
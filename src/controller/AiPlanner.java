@@ -0,0 +1,124 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import command.Command;
+import strategy.AIStrategy;
+import world.AIPlayer;
+import world.World;
+
+/**
+ * AiPlanner works out the commands of many AI players at once on a {@link ForkJoinPool}.
+ *
+ * <p>Planning only reads the world, so players can be planned in parallel as long as nothing
+ * changes the world meanwhile. Players that share a strategy instance are planned one after the
+ * other on the same thread, in seat order, so a strategy's own state, such as its random source,
+ * is used exactly as it would be in a serial game and the plans do not depend on the number of
+ * threads.
+ */
+final class AiPlanner {
+    private static final int TASKS_PER_THREAD = 8;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Initializes the AiPlanner.
+     *
+     * @param pool The pool planning runs on.
+     */
+    AiPlanner(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null.");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Plans the next command of every player.
+     *
+     * @param world   The world the players are in. It must not change until planning is done.
+     * @param players The players to plan for.
+     * @return The planned commands, in the order of the players. An entry is null if the player's
+     *         strategy cannot plan ahead.
+     */
+    Command[] plan(World world, List<AIPlayer> players) {
+        // Build the lazily created parts of the world now and freeze them, so planning threads
+        // read them without contending for their locks
+        world.getGraph();
+        world.getDistanceOracle().freeze();
+        world.getPathFinder().freeze();
+        world.getChaseField().freeze();
+
+        Map<AIStrategy, List<Integer>> byStrategy = new IdentityHashMap<>();
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            AIStrategy strategy = players.get(seat).getStrategy();
+            if (strategy == null) {
+                continue;
+            }
+            List<Integer> group = byStrategy.get(strategy);
+            if (group == null) {
+                group = new ArrayList<>();
+                byStrategy.put(strategy, group);
+                groups.add(group);
+            }
+            group.add(seat);
+        }
+
+        Command[] commands = new Command[players.size()];
+        if (groups.isEmpty()) {
+            return commands;
+        }
+        int grain = Math.max(1, groups.size() / (pool.getParallelism() * TASKS_PER_THREAD));
+        pool.invoke(new PlanRange(world, players, groups, commands, 0, groups.size(), grain));
+        return commands;
+    }
+
+    /**
+     * Plans the groups numbered {@code from} up to {@code to}, splitting the range while it is
+     * larger than the grain size.
+     */
+    private static final class PlanRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final World world;
+        private final List<AIPlayer> players;
+        private final List<List<Integer>> groups;
+        private final Command[] commands;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        private PlanRange(World world, List<AIPlayer> players, List<List<Integer>> groups, Command[] commands,
+                int from, int to, int grain) {
+            this.world = world;
+            this.players = players;
+            this.groups = groups;
+            this.commands = commands;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int g = from; g < to; g++) {
+                    for (int seat : groups.get(g)) {
+                        AIPlayer player = players.get(seat);
+                        commands[seat] = player.getStrategy().planAction(player, world);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PlanRange(world, players, groups, commands, from, middle, grain),
+                    new PlanRange(world, players, groups, commands, middle, to, grain));
+        }
+    }
+}
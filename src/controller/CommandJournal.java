@@ -0,0 +1,451 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import command.AttemptAttackCommand;
+import command.Command;
+import command.LookAroundCommand;
+import command.MoveCommand;
+import command.PickUpItemCommand;
+import world.GameEventSink;
+import world.Item;
+import world.Pet;
+import world.Player;
+import world.Space;
+import world.World;
+
+/**
+ * CommandJournal appends everything that changes a game to a compact binary file, so the game can
+ * be rebuilt later by replaying the file against a fresh copy of the same world.
+ *
+ * <p>Player commands, including those AI strategies execute, are recorded as the command itself
+ * and replayed by executing it again, which gives the same result because commands only depend on
+ * the state of the world. Other moves decided by random or AI strategies are recorded by where the
+ * character ended up, so replaying them needs neither the strategy nor its random source.
+ *
+ * <p>A journal starts with a header holding a magic number, the format version and the number of
+ * spaces and players of the world, followed by the records:
+ * <pre>
+ * MOVE     player, space
+ * PICK_UP  player, item
+ * ATTACK   attacker, target, item
+ * LOOK     player
+ * TARGET   space
+ * PET      pet, space
+ * PLACE    player, space
+ * </pre>
+ * Each record is a one-byte type followed by big-endian ints. Spaces, items and pets are numbered
+ * by their position in the world when the journal was started, players by their world id; the
+ * target is -2 and no item is -1. A record cut short at the end of the file, as left by a crash,
+ * is ignored.
+ */
+public class CommandJournal implements Closeable, Flushable {
+    /**
+     * The version of the journal format written by this class.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4A524E4C; // "JRNL"
+    private static final int HEADER_SIZE = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TARGET_ID = -2;
+    private static final int NONE = -1;
+
+    private static final byte MOVE = 1;
+    private static final byte PICK_UP = 2;
+    private static final byte ATTACK = 3;
+    private static final byte LOOK = 4;
+    private static final byte TARGET = 5;
+    private static final byte PET = 6;
+    private static final byte PLACE = 7;
+
+    private final World world;
+    private final DataOutputStream out;
+    private final Map<Space, Integer> spaceIds = new IdentityHashMap<>();
+    private final Map<Item, Integer> itemIds = new IdentityHashMap<>();
+    private final Map<Pet, Integer> petIds = new IdentityHashMap<>();
+    private long records;
+
+    /**
+     * Initializes a CommandJournal that writes a new journal to a stream.
+     *
+     * @param world The world whose game is recorded.
+     * @param out   The stream the journal is written to.
+     * @throws IOException If the header cannot be written.
+     */
+    public CommandJournal(World world, OutputStream out) throws IOException {
+        this(world, out, true);
+    }
+
+    private CommandJournal(World world, OutputStream out, boolean writeHeader) throws IOException {
+        if (world == null || out == null) {
+            throw new IllegalArgumentException("World and output stream cannot be null.");
+        }
+        this.world = world;
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        // Number everything as the world is now; replaying starts from the same state
+        List<Space> spaces = world.getSpaces();
+        for (int i = 0; i < spaces.size(); i++) {
+            spaceIds.put(spaces.get(i), i);
+        }
+        List<Item> items = itemTable(world);
+        for (int i = 0; i < items.size(); i++) {
+            itemIds.put(items.get(i), i);
+        }
+        List<Pet> pets = world.getPets();
+        for (int i = 0; i < pets.size(); i++) {
+            petIds.put(pets.get(i), i);
+        }
+        if (writeHeader) {
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(FORMAT_VERSION);
+            this.out.writeInt(world.getSpaces().size());
+            this.out.writeInt(world.getPlayerCount());
+        }
+    }
+
+    /**
+     * Creates a new journal file, replacing any file already there.
+     *
+     * @param world The world whose game is recorded.
+     * @param path  The journal file.
+     * @return The journal.
+     * @throws IOException If the file cannot be written.
+     */
+    public static CommandJournal create(World world, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new CommandJournal(world, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Recovers a game after a crash: replays an existing journal file into a fresh copy of the
+     * world it was recorded in, drops a record left half written at its end, and returns a
+     * journal that keeps appending to the same file. A missing or empty file starts a new journal.
+     *
+     * @param world The world to rebuild, in the state the journal was started from.
+     * @param path  The journal file.
+     * @return The journal, positioned after the last complete record.
+     * @throws IOException If the file cannot be read or written, or does not belong to the world.
+     */
+    public static CommandJournal recover(World world, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                return new CommandJournal(world, Channels.newOutputStream(channel));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+            CommandJournal journal = new CommandJournal(world, Channels.newOutputStream(channel), false);
+            journal.records = replay(buffer, world);
+            channel.truncate(buffer.position());
+            channel.position(buffer.position());
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a command can be recorded as itself. Other commands, such as the moves
+     * strategies plan internally, are recorded by where they left the player.
+     *
+     * @param command The command.
+     * @return True if {@link #record(Command)} accepts the command.
+     */
+    public static boolean canRecord(Command command) {
+        return command instanceof MoveCommand || command instanceof PickUpItemCommand
+                || command instanceof AttemptAttackCommand || command instanceof LookAroundCommand;
+    }
+
+    /**
+     * Records a command that was just executed.
+     *
+     * @param command The command.
+     * @throws IOException If the record cannot be written.
+     */
+    public void record(Command command) throws IOException {
+        if (command instanceof MoveCommand) {
+            MoveCommand move = (MoveCommand) command;
+            writeRecord(MOVE, playerId(move.getPlayer()), spaceId(move.getTargetSpace()));
+        } else if (command instanceof PickUpItemCommand) {
+            PickUpItemCommand pickUp = (PickUpItemCommand) command;
+            writeRecord(PICK_UP, playerId(pickUp.getPlayer()), itemId(pickUp.getItem()));
+        } else if (command instanceof AttemptAttackCommand) {
+            AttemptAttackCommand attack = (AttemptAttackCommand) command;
+            out.writeByte(ATTACK);
+            out.writeInt(playerId(attack.getAttacker()));
+            out.writeInt(playerId(attack.getTarget()));
+            out.writeInt(attack.getWeapon() != null ? itemId(attack.getWeapon()) : NONE);
+            records++;
+        } else if (command instanceof LookAroundCommand) {
+            out.writeByte(LOOK);
+            out.writeInt(playerId(((LookAroundCommand) command).getPlayer()));
+            records++;
+        } else {
+            throw new IllegalArgumentException("Cannot record command: " + command);
+        }
+    }
+
+    /**
+     * Records that the target character moved to a space.
+     *
+     * @param space The space the target is now in.
+     * @throws IOException If the record cannot be written.
+     */
+    public void recordTargetMove(Space space) throws IOException {
+        out.writeByte(TARGET);
+        out.writeInt(spaceId(space));
+        records++;
+    }
+
+    /**
+     * Records that a pet moved to a space.
+     *
+     * @param pet   The pet.
+     * @param space The space the pet is now in.
+     * @throws IOException If the record cannot be written.
+     */
+    public void recordPetMove(Pet pet, Space space) throws IOException {
+        Integer id = petIds.get(pet);
+        if (id == null) {
+            throw new IllegalArgumentException("Pet " + (pet != null ? pet.getName() : null) + " is not in the world.");
+        }
+        writeRecord(PET, id, spaceId(space));
+    }
+
+    /**
+     * Records that a player was moved to a space by something other than a command, such as an
+     * AI strategy.
+     *
+     * @param player The player.
+     * @param space  The space the player is now in.
+     * @throws IOException If the record cannot be written.
+     */
+    public void recordPlacement(Player player, Space space) throws IOException {
+        writeRecord(PLACE, playerId(player), spaceId(space));
+    }
+
+    /**
+     * Gets the number of records in the journal, including those replayed when it was recovered.
+     *
+     * @return The number of records.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Writes all buffered records to the underlying file or stream.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Writes all buffered records and closes the journal.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Replays a journal into a world. The world must be in the state the journal was started
+     * from, e.g. freshly loaded from the same configuration. Game messages are not printed while
+     * replaying.
+     *
+     * @param buffer The journal. On return its position is just after the last complete record.
+     * @param world  The world to replay into.
+     * @return The number of records replayed.
+     * @throws IOException If the journal is corrupt or does not belong to the world.
+     */
+    public static long replay(ByteBuffer buffer, World world) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a command journal.");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Journal format version " + version + ", expected " + FORMAT_VERSION + ".");
+        }
+        Space[] spaces = world.getSpaces().toArray(new Space[0]);
+        int spaceCount = buffer.getInt();
+        int playerCount = buffer.getInt();
+        if (spaceCount != spaces.length || playerCount != world.getPlayerCount()) {
+            throw new IOException("Journal was recorded for a world with " + spaceCount + " spaces and "
+                    + playerCount + " players.");
+        }
+        Item[] items = itemTable(world).toArray(new Item[0]);
+        Pet[] pets = world.getPets().toArray(new Pet[0]);
+
+        GameEventSink events = world.getEventSink();
+        world.setEventSink(GameEventSink.DISCARD);
+        long replayed = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                byte type = buffer.get();
+                int size = recordSize(type);
+                if (size < 0) {
+                    throw new IOException("Unknown journal record type " + type + " at offset " + start + ".");
+                }
+                if (buffer.remaining() < size) {
+                    buffer.position(start); // Cut short by a crash
+                    break;
+                }
+                switch (type) {
+                    case MOVE:
+                        new MoveCommand(player(world, buffer.getInt(), start), space(spaces, buffer.getInt(), start)).execute();
+                        break;
+                    case PICK_UP:
+                        new PickUpItemCommand(player(world, buffer.getInt(), start), item(items, buffer.getInt(), start)).execute();
+                        break;
+                    case ATTACK:
+                        Player attacker = player(world, buffer.getInt(), start);
+                        Player target = player(world, buffer.getInt(), start);
+                        int weapon = buffer.getInt();
+                        new AttemptAttackCommand(attacker, target, weapon == NONE ? null : item(items, weapon, start)).execute();
+                        break;
+                    case LOOK:
+                        player(world, buffer.getInt(), start); // Looking around changes nothing
+                        break;
+                    case TARGET:
+                        Space space = space(spaces, buffer.getInt(), start);
+                        if (world.getTarget() == null) {
+                            throw corrupt("a target move, but the world has no target", start);
+                        }
+                        world.getTarget().move(space);
+                        break;
+                    case PET:
+                        int pet = buffer.getInt();
+                        if (pet < 0 || pet >= pets.length) {
+                            throw corrupt("unknown pet " + pet, start);
+                        }
+                        pets[pet].moveTo(space(spaces, buffer.getInt(), start));
+                        break;
+                    default: // PLACE
+                        player(world, buffer.getInt(), start).move(space(spaces, buffer.getInt(), start));
+                        break;
+                }
+                replayed++;
+            }
+        } finally {
+            world.setEventSink(events);
+        }
+        return replayed;
+    }
+
+    private void writeRecord(byte type, int first, int second) throws IOException {
+        out.writeByte(type);
+        out.writeInt(first);
+        out.writeInt(second);
+        records++;
+    }
+
+    private int playerId(Player player) {
+        if (player != null && player == world.getTarget()) {
+            return TARGET_ID;
+        }
+        int id = world.getPlayerId(player);
+        if (id < 0) {
+            throw new IllegalArgumentException("Player " + (player != null ? player.getName() : null) + " is not in the world.");
+        }
+        return id;
+    }
+
+    private int spaceId(Space space) {
+        Integer id = spaceIds.get(space);
+        if (id == null) {
+            throw new IllegalArgumentException("Space " + (space != null ? space.getName() : null) + " is not in the world.");
+        }
+        return id;
+    }
+
+    private int itemId(Item item) {
+        Integer id = itemIds.get(item);
+        if (id == null) {
+            throw new IllegalArgumentException("Item " + (item != null ? item.getName() : null) + " is not in the world.");
+        }
+        return id;
+    }
+
+    /**
+     * Lists every item of a world, the ones lying in spaces first and then the ones players carry,
+     * in the order the journal numbers them.
+     */
+    private static List<Item> itemTable(World world) {
+        List<Item> items = new ArrayList<>(world.getItems());
+        for (Player player : world.getPlayers()) {
+            items.addAll(player.getInventory().getTopItems(Integer.MAX_VALUE));
+        }
+        return items;
+    }
+
+    private static int recordSize(byte type) {
+        switch (type) {
+            case LOOK:
+            case TARGET:
+                return 4;
+            case MOVE:
+            case PICK_UP:
+            case PET:
+            case PLACE:
+                return 8;
+            case ATTACK:
+                return 12;
+            default:
+                return -1;
+        }
+    }
+
+    private static Player player(World world, int id, int offset) throws IOException {
+        Player player = id == TARGET_ID ? world.getTarget() : world.getPlayerById(id);
+        if (player == null) {
+            throw corrupt("unknown player " + id, offset);
+        }
+        return player;
+    }
+
+    private static Space space(Space[] spaces, int id, int offset) throws IOException {
+        if (id < 0 || id >= spaces.length) {
+            throw corrupt("unknown space " + id, offset);
+        }
+        return spaces[id];
+    }
+
+    private static Item item(Item[] items, int id, int offset) throws IOException {
+        if (id < 0 || id >= items.length) {
+            throw corrupt("unknown item " + id, offset);
+        }
+        return items[id];
+    }
+
+    private static IOException corrupt(String problem, int offset) {
+        return new IOException("Corrupt journal record at offset " + offset + ": " + problem + ".");
+    }
+}
@@ -0,0 +1,93 @@
+package controller;
+
+import java.util.Locale;
+
+import command.AttemptAttackCommand;
+import command.Command;
+import command.LookAroundCommand;
+import command.MoveCommand;
+import command.PickUpItemCommand;
+import world.Item;
+import world.Player;
+import world.Space;
+import world.World;
+
+/**
+ * CommandParser turns a line of player input into a command.
+ */
+public class CommandParser {
+    private final World world;
+
+    /**
+     * Initializes the CommandParser for the given world.
+     *
+     * @param world The world the commands act on.
+     */
+    public CommandParser(World world) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null.");
+        }
+        this.world = world;
+    }
+
+    /**
+     * Parses a line of input given by a player.
+     *
+     * @param player The player giving the command.
+     * @param line   The input, e.g. "look around", "move [space]", "pick up [item]" or "attack [player]".
+     * @return The command, or null if the input does not name a valid command.
+     */
+    public Command parse(Player player, String line) {
+        if (player == null || line == null) {
+            return null;
+        }
+        String input = line.trim().toLowerCase(Locale.ROOT);
+
+        if (input.startsWith("look around")) {
+            return new LookAroundCommand(player, world);
+        } else if (input.startsWith("move ")) {
+            Space targetSpace = world.getSpace(input.substring(5).trim());
+            if (targetSpace != null) {
+                return new MoveCommand(player, targetSpace);
+            }
+        } else if (input.startsWith("pick up ")) {
+            // Find the item in the current space
+            Item itemToPickUp = findItem(player.getCurrentSpace(), input.substring(8).trim());
+            if (itemToPickUp != null) {
+                return new PickUpItemCommand(player, itemToPickUp);
+            }
+        } else if (input.startsWith("attack ")) {
+            Player targetPlayer = findOtherPlayer(player, input.substring(7).trim());
+            if (targetPlayer != null) {
+                return new AttemptAttackCommand(player, targetPlayer);
+            }
+        }
+
+        return null;
+    }
+
+    private static Item findItem(Space space, String name) {
+        if (space == null) {
+            return null;
+        }
+        for (Item item : space.getItems()) {
+            if (item.getName().equalsIgnoreCase(name)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static Player findOtherPlayer(Player player, String name) {
+        Space space = player.getCurrentSpace();
+        if (space == null) {
+            return null;
+        }
+        for (Player other : space.getPlayers()) {
+            if (other != player && other.getName().equalsIgnoreCase(name)) {
+                return other;
+            }
+        }
+        return null;
+    }
+}
@@ -1,19 +1,14 @@
 package controller;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Scanner;
 
-import command.AttemptAttackCommand;
 import command.Command;
-import command.LookAroundCommand;
-import command.MoveCommand;
-import command.PickUpItemCommand;
-import world.Item;
+import world.GameOutput;
 import world.Player;
-import world.Space;
 import world.World;
 
 /**
@@ -23,6 +18,8 @@ public class Controller {
     private List<Player> players;
     private World world;
     private Scanner scanner;
+    private GameOutput output;
+    private CommandJournal journal;
 
     /**
      * Initializes the Controller with the list of players and the game world.
@@ -34,6 +31,27 @@ public class Controller {
         this.players = players;
         this.world = world;
         this.scanner = new Scanner(System.in);
+        this.output = GameOutput.CONSOLE;
+    }
+
+    /**
+     * Initializes the Controller for a game played over the given input and output, e.g. a
+     * network connection. The world's messages are sent to the same output.
+     *
+     * @param players The list of players in the game.
+     * @param world   The game world.
+     * @param input   The stream player commands are read from, one per line.
+     * @param output  The output prompts and game messages are sent to.
+     */
+    public Controller(List<Player> players, World world, InputStream input, GameOutput output) {
+        if (world == null || input == null || output == null) {
+            throw new IllegalArgumentException("World, input and output cannot be null.");
+        }
+        this.players = players;
+        this.world = world;
+        this.scanner = new Scanner(input, StandardCharsets.UTF_8.name());
+        this.output = output;
+        world.setOutput(output);
     }
 
     /**
@@ -62,88 +80,73 @@ public class Controller {
     public void executeCommand(Command command) {
         if (command.isValid()) {
             command.execute();
+            if (journal != null) {
+                try {
+                    journal.record(command);
+                    journal.flush();
+                } catch (IOException e) {
+                    System.err.println("Error writing command journal: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Records every executed command in a journal, so the game can be recovered after a crash.
+     *
+     * @param journal The journal, or null to stop recording.
+     */
+    public void setJournal(CommandJournal journal) {
+        this.journal = journal;
+    }
+
     /**
      * Starts the game loop, prompting players for commands and executing them.
      */
     public void startGame() {
-        boolean gameRunning = true;
+        boolean gameRunning = !players.isEmpty();
 
         while (gameRunning) {
             for (Player player : players) {
-                System.out.println(player.getName() + ", it's your turn!");
+                output.println(player.getName() + ", it's your turn!");
 
                 Command command = null;
                 while (command == null) {
-                    command = getCommandFromInput(player);
+                    output.println("Enter your command (look around, move [space], pick up [item], attack [player]): ");
+                    if (!scanner.hasNextLine()) {
+                        // The input was closed, e.g. by a client that disconnected
+                        gameRunning = false;
+                        break;
+                    }
+                    command = getCommandFromInput(player, scanner.nextLine());
 
                     if (command != null && command.isValid()) {
                         executeCommand(command);
+                        world.publishSnapshot();
                     } else {
-                        System.out.println("Invalid command. Try again.");
+                        output.println("Invalid command. Try again.");
                         command = null; // Prompt again for valid command
                     }
                 }
 
-                if (isGameOver()) {
+                if (!gameRunning || isGameOver()) {
                     gameRunning = false;
                     break;
                 }
             }
         }
-        System.out.println("Game Over. Thanks for playing!");
+        output.println("Game Over. Thanks for playing!");
     }
 
     /**
-     * Gets a command from the player's input.
+     * Gets a command from a line of the player's input.
      *
      * @param player The player giving the command.
-     * @return The command to be executed.
+     * @param line   The line the player entered.
+     * @return The command to be executed, or null if the line is not a valid command.
      */
-    private Command getCommandFromInput(Player player) {
-        System.out.println("Enter your command (look around, move [space], pick up [item], attack [player]): ");
-        String input = scanner.nextLine().trim().toLowerCase();
-
-        if (input.startsWith("look around")) {
-            return new LookAroundCommand(player, world);
-        } else if (input.startsWith("move")) {
-            String[] parts = input.split(" ", 2);
-            if (parts.length == 2) {
-                Space targetSpace = world.getSpaces().stream()
-                        .filter(space -> space.getName().equalsIgnoreCase(parts[1]))
-                        .findFirst().orElse(null);
-                if (targetSpace != null) {
-                    return new MoveCommand(player, targetSpace);
-                }
-            }
-        } else if (input.startsWith("pick up")) {
-            String[] parts = input.split(" ", 3);
-            if (parts.length == 3) {
-                // Find the item in the current space
-                Space currentSpace = player.getCurrentSpace();
-                Item itemToPickUp = currentSpace.getItems().stream()
-                        .filter(item -> item.getName().equalsIgnoreCase(parts[2]))
-                        .findFirst()
-                        .orElse(null);
-                if (itemToPickUp != null) {
-                    return new PickUpItemCommand(player, itemToPickUp);
-                }
-            }
-        } else if (input.startsWith("attack")) {
-            String[] parts = input.split(" ", 2);
-            if (parts.length == 2) {
-                Player targetPlayer = player.getCurrentSpace().getPlayers().stream()
-                        .filter(p -> p.getName().equalsIgnoreCase(parts[1]) && !p.equals(player))
-                        .findFirst().orElse(null);
-                if (targetPlayer != null) {
-                    return new AttemptAttackCommand(player, targetPlayer);
-                }
-            }
-        }
-
-        return null;
+    private Command getCommandFromInput(Player player, String line) {
+        return new CommandParser(world).parse(player, line);
     }
 
     /**
@@ -163,20 +166,22 @@ public class Controller {
     }
 
     /**
-     * Loads the game world configuration from a file.
+     * Loads the game world configuration from a file and makes it the world of this controller.
      *
      * @param fileName The file path of the world configuration file.
+     * @return The loaded world, or null if the file could not be loaded.
      */
-    public void loadWorldFromFile(String fileName) {
-        try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                // Process each line to initialize spaces, players, items, etc.
-                // This is a placeholder. Actual parsing logic should be implemented here
-                System.out.println("Loaded line: " + line);
+    public World loadWorldFromFile(String fileName) {
+        try {
+            world = new WorldLoader().load(fileName);
+            return world;
+        } catch (WorldFormatException e) {
+            for (String error : e.getErrors()) {
+                System.err.println("Error in world configuration, " + error);
             }
         } catch (IOException e) {
             System.err.println("Error loading world configuration: " + e.getMessage());
         }
+        return null;
     }
 }
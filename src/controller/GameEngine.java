@@ -0,0 +1,316 @@
+package controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import command.Command;
+import world.AIPlayer;
+import world.GameEventSink;
+import world.GameOutput;
+import world.Pet;
+import world.Player;
+import world.Space;
+import world.TurnManager;
+import world.World;
+
+/**
+ * GameEngine runs a game without a console. Each turn goes to the next player in the turn order:
+ * AI players run their strategy and other players act on the command given by an
+ * {@link InputProvider}. Defeated players no longer get turns. After every full round the target
+ * and then every pet move.
+ *
+ * <p>Messages go to the output or event sink given to the engine, so runs that only care about
+ * the final state can use {@link GameOutput#NONE} and skip all message formatting. After every
+ * turn played with {@link #step()}, or every round played with {@link #playRound()} or
+ * {@link #run()}, the engine publishes a world snapshot that spectators can read from other
+ * threads.
+ */
+public class GameEngine {
+    private final World world;
+    private final List<Player> players;
+    private final InputProvider input;
+    private final TurnManager turnManager;
+    private boolean publishSnapshots = true;
+    private CommandJournal journal;
+    private AiPlanner planner;
+    private Map<Player, Command> plans;
+    private Space[] petsBefore = new Space[0]; // pet positions before the pets move, for the journal
+
+    /**
+     * Initializes the GameEngine.
+     *
+     * @param world    The world the game is played in.
+     * @param players  The players, in turn order.
+     * @param input    The source of commands for players without an AI strategy.
+     * @param output   The output game messages are sent to.
+     * @param maxTurns The number of turns after which the game ends.
+     */
+    public GameEngine(World world, List<Player> players, InputProvider input, GameOutput output, int maxTurns) {
+        if (world == null || players == null) {
+            throw new IllegalArgumentException("World and players cannot be null.");
+        }
+        this.world = world;
+        this.players = new ArrayList<>(players);
+        this.input = input != null ? input : InputProvider.PASS;
+        this.turnManager = new TurnManager(this.players, maxTurns);
+        world.setOutput(output);
+    }
+
+    /**
+     * Plays turns until the game is over.
+     *
+     * @return The number of turns played.
+     */
+    public int run() {
+        while (playRound() > 0) {
+            // Keep playing
+        }
+        return turnManager.getTurnsTaken();
+    }
+
+    /**
+     * Plays the rest of the current round, handing the turns out as one batch.
+     *
+     * @return The number of turns played, which is 0 if the game is already over.
+     */
+    public int playRound() {
+        if (isGameOver()) {
+            return 0;
+        }
+        if (planner != null && turnManager.isRoundStarting()) {
+            planRound();
+        }
+        List<Player> batch = turnManager.nextRound();
+        for (Player player : batch) {
+            playTurn(player);
+        }
+        if (turnManager.isRoundComplete()) {
+            moveTargetAndPets();
+        }
+        if (publishSnapshots) {
+            world.publishSnapshot();
+        }
+        return batch.size();
+    }
+
+    /**
+     * Plays a single turn.
+     *
+     * @return True if a turn was played, false if the game is already over.
+     */
+    public boolean step() {
+        if (isGameOver()) {
+            return false;
+        }
+        if (planner != null && turnManager.isRoundStarting()) {
+            planRound();
+        }
+        Player player = turnManager.nextPlayer();
+        if (player == null) {
+            return false;
+        }
+        playTurn(player);
+        if (turnManager.isRoundComplete()) {
+            moveTargetAndPets();
+        }
+        if (publishSnapshots) {
+            world.publishSnapshot();
+        }
+        return true;
+    }
+
+    /**
+     * Plays one player's turn, unless the player was defeated earlier in the round.
+     */
+    private void playTurn(Player player) {
+        if (player.getHealth() <= 0) {
+            return;
+        }
+        if (player instanceof AIPlayer) {
+            Space before = player.getCurrentSpace();
+            Command command = playAi((AIPlayer) player);
+            if (journal != null) {
+                if (CommandJournal.canRecord(command)) {
+                    journal(() -> journal.record(command));
+                } else if (player.getCurrentSpace() != before) {
+                    journal(() -> journal.recordPlacement(player, player.getCurrentSpace()));
+                }
+            }
+        } else {
+            Command command = input.nextCommand(player);
+            if (command != null && command.isValid()) {
+                command.execute();
+                if (journal != null) {
+                    journal(() -> journal.record(command));
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans the moves of every living AI player for the coming round, in parallel.
+     */
+    private void planRound() {
+        List<AIPlayer> ais = new ArrayList<>();
+        for (Player player : players) {
+            if (player instanceof AIPlayer && player.getHealth() > 0) {
+                ais.add((AIPlayer) player);
+            }
+        }
+        Command[] commands = planner.plan(world, ais);
+        plans = new IdentityHashMap<>();
+        for (int i = 0; i < commands.length; i++) {
+            if (commands[i] != null) {
+                plans.put(ais.get(i), commands[i]);
+            }
+        }
+    }
+
+    /**
+     * Plays an AI player's turn: the move planned for it at the start of the round if there is
+     * one and it is still valid, otherwise whatever its strategy decides now.
+     *
+     * @return The command that was executed, or null if there was none.
+     */
+    private Command playAi(AIPlayer player) {
+        Command planned = plans != null ? plans.remove(player) : null;
+        if (planned == null) {
+            return player.executeStrategy();
+        }
+        if (planned.isValid()) {
+            planned.execute();
+            return planned;
+        }
+        return null;
+    }
+
+    private void moveTargetAndPets() {
+        if (journal == null) {
+            world.moveTarget();
+            world.movePets();
+            return;
+        }
+        Player target = world.getTarget();
+        Space targetBefore = target != null ? target.getCurrentSpace() : null;
+        world.moveTarget();
+        if (target != null && target.getCurrentSpace() != targetBefore) {
+            journal(() -> journal.recordTargetMove(target.getCurrentSpace()));
+        }
+        List<Pet> pets = world.getPets();
+        if (petsBefore.length < pets.size()) {
+            petsBefore = new Space[pets.size()];
+        }
+        for (int i = 0; i < pets.size(); i++) {
+            petsBefore[i] = pets.get(i).getCurrentSpace();
+        }
+        world.movePets();
+        for (int i = 0; i < pets.size(); i++) {
+            Pet pet = pets.get(i);
+            if (pet.getCurrentSpace() != petsBefore[i]) {
+                journal(() -> journal.recordPetMove(pet, pet.getCurrentSpace()));
+            }
+        }
+        journal(journal::flush);
+    }
+
+    private void journal(JournalWrite write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the command journal.", e);
+        }
+    }
+
+    /**
+     * Plans the moves of all AI players in parallel at the start of every round, against the
+     * world as it is then, and carries them out one by one on each player's turn. A planned move
+     * that is no longer valid by the time its turn comes, e.g. because its destination was
+     * disconnected, is skipped. Players whose strategy cannot plan ahead decide on their own turn
+     * as usual.
+     *
+     * @param pool The pool to plan on, or null to let every AI player decide on its own turn.
+     */
+    public void setAiPool(ForkJoinPool pool) {
+        this.planner = pool != null ? new AiPlanner(pool) : null;
+        this.plans = null;
+    }
+
+    /**
+     * Records every command and every strategy-driven move of the game in a journal, which is
+     * flushed after every round.
+     *
+     * @param journal The journal, or null to stop recording.
+     */
+    public void setJournal(CommandJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Publishes the game's events to a sink instead of printing them to the engine's output.
+     *
+     * @param events The sink game events are published to.
+     */
+    public void setEventSink(GameEventSink events) {
+        world.setEventSink(events);
+    }
+
+    /**
+     * Sets the order players take their turns in, applied from the start of the next round.
+     *
+     * @param ordering The ordering, e.g. by initiative, or null for the order players were given in.
+     */
+    public void setTurnOrder(Comparator<? super Player> ordering) {
+        turnManager.setOrdering(ordering);
+    }
+
+    /**
+     * Sets whether a world snapshot is published after every turn. Runs without spectators can
+     * turn this off.
+     *
+     * @param publishSnapshots True to publish snapshots.
+     */
+    public void setPublishSnapshots(boolean publishSnapshots) {
+        this.publishSnapshots = publishSnapshots;
+    }
+
+    /**
+     * Checks if the game is over, either because the turn limit was reached or because no
+     * player has health left.
+     *
+     * @return True if the game is over.
+     */
+    public boolean isGameOver() {
+        return turnManager.isGameOver();
+    }
+
+    /**
+     * Gets the number of turns played so far.
+     *
+     * @return The number of turns.
+     */
+    public int getTurnsPlayed() {
+        return turnManager.getTurnsTaken();
+    }
+
+    /**
+     * Gets the world the game is played in.
+     *
+     * @return The world.
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * A write to the journal.
+     */
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+}
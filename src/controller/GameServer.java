@@ -0,0 +1,216 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import world.GameOutput;
+import world.World;
+
+/**
+ * GameServer hosts many games in one process. Every connection is a separate session that plays
+ * its own game, with its own {@link World} and {@link Controller}, using the same line-based
+ * commands as the console game.
+ *
+ * <p>Each session runs on its own thread. On Java 21 and later these are virtual threads, so idle
+ * sessions blocked on reading from their connection cost only a little memory; on older runtimes a
+ * cached pool of platform threads with small stacks is used instead.
+ */
+public class GameServer implements Closeable {
+    private static final int BACKLOG = 1024;
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 5;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+    private static final Logger LOGGER = Logger.getLogger(GameServer.class.getName());
+
+    private final int requestedPort;
+    private final Supplier<World> worlds;
+    private final Set<Socket> connections;
+    private final AtomicInteger activeSessions;
+    private ServerSocket serverSocket;
+    private ExecutorService sessions;
+    private Thread acceptor;
+
+    /**
+     * Initializes the GameServer.
+     *
+     * @param port   The local port to listen on, or 0 to pick a free one.
+     * @param worlds Creates a new world for every session.
+     */
+    public GameServer(int port, Supplier<World> worlds) {
+        if (worlds == null) {
+            throw new IllegalArgumentException("World supplier cannot be null.");
+        }
+        this.requestedPort = port;
+        this.worlds = worlds;
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.activeSessions = new AtomicInteger();
+    }
+
+    /**
+     * Starts listening for connections on the loopback address.
+     *
+     * @throws IOException If the port cannot be opened.
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started.");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), BACKLOG);
+        sessions = newSessionExecutor();
+        acceptor = new Thread(this::acceptConnections, "game-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port, or -1 if the server has not been started.
+     */
+    public synchronized int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : -1;
+    }
+
+    /**
+     * Gets the number of sessions currently connected.
+     *
+     * @return The number of sessions.
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Stops accepting connections and closes every open session.
+     *
+     * @throws IOException If the listening socket cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket == null) {
+            return;
+        }
+        serverSocket.close();
+        for (Socket connection : connections) {
+            closeQuietly(connection);
+        }
+        sessions.shutdown();
+    }
+
+    /**
+     * Accepts connections until the server is closed. When accepting fails, for example because
+     * the process has run out of file descriptors, the acceptor waits before trying again, doubling
+     * the wait up to a second while the failures go on.
+     */
+    private void acceptConnections() {
+        long backoff = 0;
+        while (!serverSocket.isClosed()) {
+            Socket connection;
+            try {
+                connection = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                backoff = Math.min(Math.max(backoff * 2, MIN_ACCEPT_BACKOFF_MILLIS), MAX_ACCEPT_BACKOFF_MILLIS);
+                LOGGER.warning("Error accepting connection, retrying in " + backoff + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            backoff = 0;
+            connections.add(connection);
+            activeSessions.incrementAndGet();
+            try {
+                sessions.execute(() -> runSession(connection));
+            } catch (RejectedExecutionException e) {
+                endSession(connection);
+            }
+        }
+    }
+
+    /**
+     * Plays one game over a connection until the game ends or the client disconnects.
+     *
+     * @param connection The client connection.
+     */
+    private void runSession(Socket connection) {
+        try {
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8), true);
+            GameOutput output = message -> writer.println(message);
+            World world;
+            try {
+                world = worlds.get();
+            } catch (RuntimeException e) {
+                output.println("Could not create a game: " + e.getMessage());
+                return;
+            }
+            output.println("Welcome! A new game has started.");
+            Controller controller = new Controller(new ArrayList<>(world.getPlayers()), world, connection.getInputStream(), output);
+            controller.startGame();
+        } catch (IOException e) {
+            // The client went away; nothing left to do for this session
+        } finally {
+            endSession(connection);
+        }
+    }
+
+    private void endSession(Socket connection) {
+        if (connections.remove(connection)) {
+            activeSessions.decrementAndGet();
+        }
+        closeQuietly(connection);
+    }
+
+    private static void closeQuietly(Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+
+    /**
+     * Creates the executor that runs sessions: one virtual thread per session when the runtime
+     * supports it, otherwise a cached pool of small-stack platform threads.
+     *
+     * @return The executor.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threads = task -> {
+                Thread thread = new Thread(null, task, "game-session-" + count.incrementAndGet(), PLATFORM_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(threads);
+        }
+    }
+}
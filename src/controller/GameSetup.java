@@ -0,0 +1,23 @@
+package controller;
+
+import java.util.List;
+
+import strategy.RandomSource;
+import world.Player;
+import world.World;
+
+/**
+ * GameSetup prepares a fresh copy of a template world for one game of a tournament.
+ */
+public interface GameSetup {
+    /**
+     * Prepares a world for a game, typically by giving its players, target and pet new strategies
+     * whose random sources are split from {@code random}. Drawing all randomness from this source
+     * keeps the game reproducible.
+     *
+     * @param world  A copy of the template world that belongs to this game only.
+     * @param random The random source of this game.
+     * @return The players taking part in the game, in turn order.
+     */
+    List<Player> prepare(World world, RandomSource random);
+}
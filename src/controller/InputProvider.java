@@ -0,0 +1,22 @@
+package controller;
+
+import command.Command;
+import world.Player;
+
+/**
+ * InputProvider supplies the commands of players who are not controlled by an AI strategy.
+ */
+public interface InputProvider {
+    /**
+     * An input provider under which every player passes.
+     */
+    InputProvider PASS = player -> null;
+
+    /**
+     * Gets the command a player takes this turn.
+     *
+     * @param player The player whose turn it is.
+     * @return The command, or null if the player passes.
+     */
+    Command nextCommand(Player player);
+}
@@ -0,0 +1,36 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import command.Command;
+import world.Player;
+
+/**
+ * ScriptedInputProvider feeds a fixed sequence of input lines to the players, one line per turn.
+ * Once the script runs out every player passes.
+ */
+public class ScriptedInputProvider implements InputProvider {
+    private final CommandParser parser;
+    private final Iterator<String> lines;
+
+    /**
+     * Initializes the ScriptedInputProvider with its lines.
+     *
+     * @param parser The parser used to turn lines into commands.
+     * @param lines  The input lines, in turn order.
+     */
+    public ScriptedInputProvider(CommandParser parser, List<String> lines) {
+        if (parser == null || lines == null) {
+            throw new IllegalArgumentException("Parser and lines cannot be null.");
+        }
+        this.parser = parser;
+        this.lines = new ArrayList<>(lines).iterator();
+    }
+
+    @Override
+    public Command nextCommand(Player player) {
+        return lines.hasNext() ? parser.parse(player, lines.next()) : null;
+    }
+}
@@ -0,0 +1,214 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * TournamentResult holds the combined statistics of a set of games.
+ * Players are identified by their seat, which is their position in the turn order. A game is won
+ * by the player left with the most health, provided that player is alive and no other player has
+ * as much; every other game is a draw.
+ */
+public class TournamentResult {
+    private int games;
+    private long draws;
+    private long totalTurns;
+    private int minTurns = Integer.MAX_VALUE;
+    private int maxTurns;
+    private long[] wins;
+    private long[] damageTaken;
+
+    /**
+     * Initializes an empty TournamentResult.
+     */
+    public TournamentResult() {
+        this.wins = new long[0];
+        this.damageTaken = new long[0];
+    }
+
+    /**
+     * Records the outcome of one game.
+     *
+     * @param turns        The number of turns the game lasted.
+     * @param startHealth  The health of each seat when the game started.
+     * @param endHealth    The health of each seat when the game ended.
+     */
+    public void addGame(int turns, int[] startHealth, int[] endHealth) {
+        int seats = startHealth.length;
+        ensureSeats(seats);
+        games++;
+        totalTurns += turns;
+        minTurns = Math.min(minTurns, turns);
+        maxTurns = Math.max(maxTurns, turns);
+
+        int winner = -1;
+        int best = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            damageTaken[seat] += Math.max(0, startHealth[seat] - endHealth[seat]);
+            if (endHealth[seat] > best) {
+                best = endHealth[seat];
+                winner = seat;
+            } else if (endHealth[seat] == best && best > 0) {
+                winner = -1;
+            }
+        }
+        if (winner >= 0) {
+            wins[winner]++;
+        } else {
+            draws++;
+        }
+    }
+
+    /**
+     * Adds the statistics of another result to this one.
+     *
+     * @param other The result to merge in.
+     * @return This result.
+     */
+    public TournamentResult merge(TournamentResult other) {
+        if (other.games == 0) {
+            return this;
+        }
+        ensureSeats(other.wins.length);
+        games += other.games;
+        draws += other.draws;
+        totalTurns += other.totalTurns;
+        minTurns = Math.min(minTurns, other.minTurns);
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+        for (int seat = 0; seat < other.wins.length; seat++) {
+            wins[seat] += other.wins[seat];
+            damageTaken[seat] += other.damageTaken[seat];
+        }
+        return this;
+    }
+
+    private void ensureSeats(int seats) {
+        if (seats > wins.length) {
+            wins = Arrays.copyOf(wins, seats);
+            damageTaken = Arrays.copyOf(damageTaken, seats);
+        }
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return The number of games.
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of seats seen in any game.
+     *
+     * @return The number of seats.
+     */
+    public int getSeats() {
+        return wins.length;
+    }
+
+    /**
+     * Gets the number of games won by a seat.
+     *
+     * @param seat The seat.
+     * @return The number of wins.
+     */
+    public long getWins(int seat) {
+        return seat < wins.length ? wins[seat] : 0;
+    }
+
+    /**
+     * Gets the share of games won by a seat.
+     *
+     * @param seat The seat.
+     * @return The win rate between 0 and 1.
+     */
+    public double getWinRate(int seat) {
+        return games == 0 ? 0 : (double) getWins(seat) / games;
+    }
+
+    /**
+     * Gets the number of games nobody won.
+     *
+     * @return The number of draws.
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Gets the total damage a seat took over all games.
+     *
+     * @param seat The seat.
+     * @return The damage taken.
+     */
+    public long getDamageTaken(int seat) {
+        return seat < damageTaken.length ? damageTaken[seat] : 0;
+    }
+
+    /**
+     * Gets the number of turns played over all games.
+     *
+     * @return The total number of turns.
+     */
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Gets the average length of a game.
+     *
+     * @return The average number of turns.
+     */
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    /**
+     * Gets the length of the shortest game.
+     *
+     * @return The number of turns, or 0 if no game was played.
+     */
+    public int getMinTurns() {
+        return games == 0 ? 0 : minTurns;
+    }
+
+    /**
+     * Gets the length of the longest game.
+     *
+     * @return The number of turns.
+     */
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TournamentResult)) {
+            return false;
+        }
+        TournamentResult other = (TournamentResult) o;
+        return games == other.games && draws == other.draws && totalTurns == other.totalTurns
+                && getMinTurns() == other.getMinTurns() && maxTurns == other.maxTurns
+                && Arrays.equals(wins, other.wins) && Arrays.equals(damageTaken, other.damageTaken);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(totalTurns) + Arrays.hashCode(wins);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(games).append(" games, ").append(draws).append(" draws, average ")
+                .append(String.format("%.1f", getAverageTurns())).append(" turns");
+        for (int seat = 0; seat < wins.length; seat++) {
+            sb.append("; seat ").append(seat).append(": ").append(wins[seat]).append(" wins, ")
+                    .append(damageTaken[seat]).append(" damage taken");
+        }
+        return sb.toString();
+    }
+}
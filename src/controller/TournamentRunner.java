@@ -0,0 +1,160 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import strategy.RandomSource;
+import world.GameOutput;
+import world.Player;
+import world.World;
+
+/**
+ * TournamentRunner plays many independent games of the same world in parallel.
+ *
+ * <p>Every game gets its own copy of the template world and a random source seeded only from the
+ * tournament's master seed and the game's number, so the games do not share any state and the
+ * combined result is the same no matter how many threads run them or in which order they finish.
+ * Games are split into ranges on a {@link ForkJoinPool}; each range is played on one thread and
+ * its statistics are merged with the other ranges when it is done.
+ */
+public class TournamentRunner {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int TASKS_PER_THREAD = 8;
+
+    private final World template;
+    private final GameSetup setup;
+    private final int maxTurns;
+
+    /**
+     * Initializes the TournamentRunner.
+     *
+     * @param template The world every game starts from. It is only read, never played.
+     * @param setup    Prepares each copy of the template. Copies share the template's strategies,
+     *                 so the setup must give every copy its own.
+     * @param maxTurns The number of turns after which a game ends.
+     */
+    public TournamentRunner(World template, GameSetup setup, int maxTurns) {
+        if (template == null) {
+            throw new IllegalArgumentException("Template world cannot be null.");
+        }
+        if (setup == null) {
+            throw new IllegalArgumentException("Game setup cannot be null.");
+        }
+        this.template = template;
+        this.setup = setup;
+        this.maxTurns = maxTurns;
+        // Build the template's graph now, so copying it from several threads only reads it
+        template.getGraph();
+    }
+
+    /**
+     * Plays a tournament using one thread per available processor.
+     *
+     * @param games      The number of games to play.
+     * @param masterSeed The seed all game seeds are derived from.
+     * @return The combined statistics of all games.
+     */
+    public TournamentResult run(int games, long masterSeed) {
+        return run(games, masterSeed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays a tournament on the given number of threads.
+     *
+     * @param games       The number of games to play.
+     * @param masterSeed  The seed all game seeds are derived from.
+     * @param parallelism The number of threads to use.
+     * @return The combined statistics of all games.
+     */
+    public TournamentResult run(int games, long masterSeed, int parallelism) {
+        if (games <= 0) {
+            return new TournamentResult();
+        }
+        int threads = Math.max(1, parallelism);
+        int grain = Math.max(1, games / (threads * TASKS_PER_THREAD));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new GameRange(0, games, grain, masterSeed));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single game of the tournament.
+     *
+     * @param seed The seed of the game.
+     * @param into The result the outcome is added to.
+     */
+    private void playGame(long seed, TournamentResult into) {
+        World world = template.copy();
+        List<Player> players = new ArrayList<>(setup.prepare(world, RandomSource.of(seed)));
+
+        int[] startHealth = new int[players.size()];
+        for (int seat = 0; seat < startHealth.length; seat++) {
+            startHealth[seat] = players.get(seat).getHealth();
+        }
+        GameEngine engine = new GameEngine(world, players, InputProvider.PASS, GameOutput.NONE, maxTurns);
+        engine.setPublishSnapshots(false);
+        int turns = engine.run();
+        int[] endHealth = new int[players.size()];
+        for (int seat = 0; seat < endHealth.length; seat++) {
+            endHealth[seat] = players.get(seat).getHealth();
+        }
+        into.addGame(turns, startHealth, endHealth);
+    }
+
+    /**
+     * Derives the seed of one game from the master seed.
+     *
+     * @param masterSeed The tournament's master seed.
+     * @param game       The number of the game.
+     * @return The game's seed.
+     */
+    public static long gameSeed(long masterSeed, int game) {
+        // SplitMix64 finalizer over the game's position in the master sequence
+        long z = masterSeed + (game + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays the games numbered {@code from} up to {@code to}, splitting the range while it is
+     * larger than the grain size.
+     */
+    private final class GameRange extends RecursiveTask<TournamentResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final long masterSeed;
+
+        private GameRange(int from, int to, int grain, long masterSeed) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.masterSeed = masterSeed;
+        }
+
+        @Override
+        protected TournamentResult compute() {
+            if (to - from <= grain) {
+                TournamentResult result = new TournamentResult();
+                for (int game = from; game < to; game++) {
+                    playGame(gameSeed(masterSeed, game), result);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            GameRange left = new GameRange(from, middle, grain, masterSeed);
+            GameRange right = new GameRange(middle, to, grain, masterSeed);
+            left.fork();
+            TournamentResult result = right.compute();
+            return left.join().merge(result);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WorldFormatException reports every problem found while reading a world configuration file.
+ */
+public class WorldFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> errors;
+
+    /**
+     * Initializes the exception with the problems found, each already prefixed with its line number.
+     *
+     * @param errors The problems found in the file.
+     */
+    public WorldFormatException(List<String> errors) {
+        super(errors.size() + " error(s) in world configuration, first: " + (errors.isEmpty() ? "none" : errors.get(0)));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    /**
+     * Gets the problems found in the file.
+     *
+     * @return The error messages, in file order.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,347 @@
+package controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import strategy.DepthFirstMoveStrategy;
+import world.HumanPlayer;
+import world.Item;
+import world.Pet;
+import world.Player;
+import world.Space;
+import world.SpaceGraph;
+import world.World;
+
+/**
+ * WorldImage stores a world in a compact binary file that can be loaded without parsing text.
+ *
+ * <p>An image starts with a fixed header holding a magic number, the format version, the length
+ * of the body and a CRC-32 checksum of the body. The body holds, in order:
+ * <pre>
+ * strings  count, then (byte length, UTF-8 bytes) for each string
+ * spaces   count, then the name of each space as a string index
+ * edges    count, then count + 1 row offsets and the target space id of each edge
+ * players  count, then (name, health, space id, inventory capacity) for each player
+ * items    count, then (name, damage, description, space id, holder index) for each item
+ * pets     count, then (name, space id) for each pet
+ * </pre>
+ * All numbers are big-endian ints; a space id or holder index of -1 means none. Images written by
+ * another format version, or whose checksum does not match, are rejected.
+ */
+public class WorldImage {
+    /**
+     * The version of the image format written by this class.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x574C4449; // "WLDI"
+    private static final int HEADER_SIZE = 20;
+    private static final Logger LOGGER = Logger.getLogger(WorldImage.class.getName());
+
+    private WorldImage() {
+    }
+
+    /**
+     * Compiles a world configuration file into an image.
+     *
+     * @param textFile  The world configuration file.
+     * @param imageFile The image file to write.
+     * @throws WorldFormatException If the configuration contains errors.
+     * @throws IOException          If either file cannot be accessed.
+     */
+    public static void compile(String textFile, String imageFile) throws IOException {
+        write(new WorldLoader().load(textFile), imageFile);
+    }
+
+    /**
+     * Loads a world from an image, compiling the configuration file first if the image is
+     * missing, older than the configuration file, or cannot be used.
+     *
+     * @param textFile  The world configuration file.
+     * @param imageFile The image file to read or refresh.
+     * @return The loaded world.
+     * @throws WorldFormatException If the configuration contains errors.
+     * @throws IOException          If either file cannot be accessed.
+     */
+    public static World loadOrCompile(String textFile, String imageFile) throws IOException {
+        File text = new File(textFile);
+        File image = new File(imageFile);
+        if (image.isFile() && image.lastModified() >= text.lastModified()) {
+            try {
+                return load(imageFile);
+            } catch (WorldFormatException e) {
+                LOGGER.warning("Recompiling world image " + imageFile + ": " + String.join("; ", e.getErrors()));
+            }
+        }
+        World world = new WorldLoader().load(textFile);
+        write(world, imageFile);
+        return world;
+    }
+
+    /**
+     * Writes a world to an image file. The file is replaced atomically where the file system
+     * allows it, so a reader never sees a half-written image.
+     *
+     * @param world     The world to store.
+     * @param imageFile The image file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(World world, String imageFile) throws IOException {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null.");
+        }
+        byte[] body = encode(world);
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(body.length).putLong(crc.getValue());
+        header.flip();
+
+        Path target = Paths.get(imageFile).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(new ByteBuffer[] {header, ByteBuffer.wrap(body)});
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads a world from an image file by mapping it into memory.
+     *
+     * @param imageFile The image file to read.
+     * @return The loaded world.
+     * @throws WorldFormatException If the image is corrupt or was written by another format version.
+     * @throws IOException          If the file cannot be read.
+     */
+    public static World load(String imageFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(imageFile), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw invalid("unexpected file size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return decode(buffer);
+        }
+    }
+
+    private static byte[] encode(World world) throws IOException {
+        SpaceGraph graph = world.getGraph();
+        List<Player> players = world.getPlayers();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+
+        // Gather every item, including the ones players carry, with its location
+        List<Item> items = new ArrayList<>(world.getItems());
+        List<Integer> holders = new ArrayList<>(Collections.nCopies(items.size(), -1));
+        for (int p = 0; p < players.size(); p++) {
+            for (Item item : players.get(p).getInventory().getTopItems(Integer.MAX_VALUE)) {
+                items.add(item);
+                holders.add(p);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 + graph.edgeCount() * 4);
+        DataOutputStream tables = new DataOutputStream(bytes);
+
+        int spaceCount = graph.size();
+        int[] spaceNames = new int[spaceCount];
+        for (int id = 0; id < spaceCount; id++) {
+            spaceNames[id] = intern(graph.getSpace(id).getName(), stringIndex, strings);
+        }
+        int[][] playerRows = new int[players.size()][];
+        for (int p = 0; p < players.size(); p++) {
+            Player player = players.get(p);
+            playerRows[p] = new int[] {intern(player.getName(), stringIndex, strings), player.getHealth(),
+                graph.idOf(player.getCurrentSpace()), player.getInventory().getCapacity()};
+        }
+        int[][] itemRows = new int[items.size()][];
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            String description = item.getDescription() != null ? item.getDescription() : "";
+            itemRows[i] = new int[] {intern(item.getName(), stringIndex, strings), item.getDamage(),
+                intern(description, stringIndex, strings), graph.idOf(world.getItemSpace(item)), holders.get(i)};
+        }
+        List<int[]> petRows = new ArrayList<>();
+        for (Pet pet : world.getPets()) {
+            petRows.add(new int[] {intern(pet.getName(), stringIndex, strings), graph.idOf(pet.getCurrentSpace())});
+        }
+
+        tables.writeInt(strings.size());
+        for (String s : strings) {
+            byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+            tables.writeInt(encoded.length);
+            tables.write(encoded);
+        }
+        tables.writeInt(spaceCount);
+        for (int name : spaceNames) {
+            tables.writeInt(name);
+        }
+        tables.writeInt(graph.edgeCount());
+        for (int id = 0; id <= spaceCount; id++) {
+            tables.writeInt(id < spaceCount ? graph.edgeStart(id) : graph.edgeCount());
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            tables.writeInt(graph.edgeTarget(e));
+        }
+        writeRows(tables, playerRows);
+        writeRows(tables, itemRows);
+        writeRows(tables, petRows.toArray(new int[petRows.size()][]));
+        tables.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeRows(DataOutputStream out, int[][] rows) throws IOException {
+        out.writeInt(rows.length);
+        for (int[] row : rows) {
+            for (int value : row) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private static int intern(String s, Map<String, Integer> index, List<String> strings) {
+        String value = s != null ? s : "";
+        Integer existing = index.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        index.put(value, strings.size());
+        strings.add(value);
+        return strings.size() - 1;
+    }
+
+    private static World decode(ByteBuffer buffer) throws WorldFormatException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt() != MAGIC) {
+            throw invalid("not a world image");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw invalid("image format version " + version + ", expected " + FORMAT_VERSION);
+        }
+        int length = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (length != buffer.remaining()) {
+            throw invalid("body length " + length + " does not match file size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != checksum) {
+            throw invalid("checksum mismatch");
+        }
+
+        try {
+            String[] strings = new String[count(buffer, 4)];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < strings.length; i++) {
+                int size = count(buffer, 1);
+                if (size > scratch.length) {
+                    scratch = new byte[Math.max(size, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, size);
+                strings[i] = new String(scratch, 0, size, StandardCharsets.UTF_8);
+            }
+
+            World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+            int spaceCount = count(buffer, 4);
+            List<Space> spaces = new ArrayList<>(spaceCount);
+            for (int id = 0; id < spaceCount; id++) {
+                spaces.add(new Space(strings[buffer.getInt()], world));
+            }
+            world.addSpaces(spaces);
+
+            int edgeCount = count(buffer, 4);
+            int offsetsStart = buffer.position();
+            int edgesStart = offsetsStart + (spaceCount + 1) * 4;
+            for (int id = 0; id < spaceCount; id++) {
+                Space space = spaces.get(id);
+                for (int e = buffer.getInt(offsetsStart + id * 4), end = buffer.getInt(offsetsStart + id * 4 + 4); e < end; e++) {
+                    space.addNeighbor(spaces.get(buffer.getInt(edgesStart + e * 4)));
+                }
+            }
+            buffer.position(edgesStart + edgeCount * 4);
+
+            int playerCount = count(buffer, 16);
+            List<Player> players = new ArrayList<>(playerCount);
+            for (int p = 0; p < playerCount; p++) {
+                String name = strings[buffer.getInt()];
+                int health = buffer.getInt();
+                Space space = spaceOrNull(spaces, buffer.getInt());
+                Player player = new HumanPlayer(name, health, space, buffer.getInt());
+                if (space != null) {
+                    space.addPlayer(player);
+                }
+                players.add(player);
+            }
+
+            int itemCount = count(buffer, 20);
+            for (int i = 0; i < itemCount; i++) {
+                Item item = new Item(strings[buffer.getInt()], buffer.getInt(), strings[buffer.getInt()]);
+                Space space = spaceOrNull(spaces, buffer.getInt());
+                int holder = buffer.getInt();
+                Player player = holder >= 0 ? players.get(holder) : null;
+                if (player != null && player.getCurrentSpace() != null) {
+                    player.getCurrentSpace().addItem(item);
+                    world.playerPickUpItem(player, item);
+                } else if (space != null) {
+                    space.addItem(item);
+                } else {
+                    world.addItem(item);
+                }
+            }
+
+            int petCount = count(buffer, 8);
+            for (int i = 0; i < petCount; i++) {
+                Pet pet = new Pet(strings[buffer.getInt()], spaceOrNull(spaces, buffer.getInt()), new DepthFirstMoveStrategy());
+                world.addPet(pet);
+            }
+
+            // Compact the loaded topology into the world's space graph
+            world.getGraph();
+            return world;
+        } catch (RuntimeException e) {
+            throw invalid("malformed image body (" + e + ")");
+        }
+    }
+
+    private static int count(ByteBuffer buffer, int bytesPerEntry) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * bytesPerEntry > buffer.remaining()) {
+            throw new IllegalStateException("count " + count + " exceeds image size");
+        }
+        return count;
+    }
+
+    private static Space spaceOrNull(List<Space> spaces, int id) {
+        return id >= 0 ? spaces.get(id) : null;
+    }
+
+    private static WorldFormatException invalid(String message) {
+        return new WorldFormatException(Collections.singletonList("world image: " + message));
+    }
+}
@@ -0,0 +1,307 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import strategy.DepthFirstMoveStrategy;
+import world.HumanPlayer;
+import world.Item;
+import world.Pet;
+import world.Space;
+import world.World;
+
+/**
+ * WorldLoader builds a World from a world configuration file.
+ *
+ * <p>The file is read in two passes. The first pass splits every line into tokens and collects the
+ * declarations; the second pass creates all spaces at once and resolves the space names used by
+ * players, pets, items and neighbors through the world's name index, so declarations may refer to
+ * spaces declared later in the file. Every problem is collected with its line number and reported
+ * together in a {@link WorldFormatException}.
+ *
+ * <p>Supported lines:
+ * <pre>
+ * space &lt;name&gt;
+ * player &lt;name&gt; &lt;health&gt; &lt;space&gt;
+ * pet &lt;name&gt; &lt;space&gt;
+ * item &lt;name&gt; &lt;damage&gt; &lt;space&gt; [description]
+ * neighbor &lt;space1&gt; &lt;space2&gt;
+ * </pre>
+ * Blank lines and lines starting with {@code #} are ignored.
+ */
+public class WorldLoader {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_TOKENS = 5;
+
+    private final List<String> errors = new ArrayList<>();
+    private final List<Integer> errorLines = new ArrayList<>();
+    private final List<String> spaceNames = new ArrayList<>();
+    private final List<String[]> players = new ArrayList<>();
+    private final List<String[]> pets = new ArrayList<>();
+    private final List<String[]> items = new ArrayList<>();
+    private final List<Integer> playerLines = new ArrayList<>();
+    private final List<Integer> petLines = new ArrayList<>();
+    private final List<Integer> itemLines = new ArrayList<>();
+    private String[] neighborFrom = new String[16];
+    private String[] neighborTo = new String[16];
+    private int[] neighborLines = new int[16];
+    private int neighborCount;
+
+    /**
+     * Loads a world from a file.
+     *
+     * @param fileName The path of the world configuration file.
+     * @return The loaded world.
+     * @throws WorldFormatException If the file contains errors.
+     * @throws IOException          If the file cannot be read.
+     */
+    public World load(String fileName) throws IOException {
+        try (Reader reader = new FileReader(fileName)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Loads a world from a reader.
+     *
+     * @param reader The source of the world configuration.
+     * @return The loaded world.
+     * @throws WorldFormatException If the configuration contains errors.
+     * @throws IOException          If the configuration cannot be read.
+     */
+    public World load(Reader reader) throws IOException {
+        reset();
+        collect(new BufferedReader(reader, READ_BUFFER_SIZE));
+        World world = build();
+        if (!errors.isEmpty()) {
+            throw new WorldFormatException(sortedErrors());
+        }
+        return world;
+    }
+
+    private void reset() {
+        errors.clear();
+        errorLines.clear();
+        spaceNames.clear();
+        players.clear();
+        pets.clear();
+        items.clear();
+        playerLines.clear();
+        petLines.clear();
+        itemLines.clear();
+        neighborCount = 0;
+    }
+
+    /**
+     * First pass: tokenizes every line and records the declarations it contains.
+     */
+    private void collect(BufferedReader reader) throws IOException {
+        Set<String> declaredSpaces = new HashSet<>();
+        int[] bounds = new int[MAX_TOKENS * 2];
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int count = tokenize(line, bounds);
+            if (count == 0 || line.charAt(bounds[0]) == '#') {
+                continue;
+            }
+            String keyword = token(line, bounds, 0).toLowerCase(Locale.ROOT);
+            switch (keyword) {
+                case "space":
+                    if (expect(count, 2, lineNumber, "space <name>")) {
+                        String name = token(line, bounds, 1);
+                        if (declaredSpaces.add(name.toLowerCase(Locale.ROOT))) {
+                            spaceNames.add(name);
+                        } else {
+                            error(lineNumber, "duplicate space '" + name + "'");
+                        }
+                    }
+                    break;
+                case "player":
+                    if (expect(count, 4, lineNumber, "player <name> <health> <space>")) {
+                        players.add(new String[] {token(line, bounds, 1), token(line, bounds, 2), token(line, bounds, 3)});
+                        playerLines.add(lineNumber);
+                    }
+                    break;
+                case "pet":
+                    if (expect(count, 3, lineNumber, "pet <name> <space>")) {
+                        pets.add(new String[] {token(line, bounds, 1), token(line, bounds, 2)});
+                        petLines.add(lineNumber);
+                    }
+                    break;
+                case "item":
+                    if (count < 4) {
+                        error(lineNumber, "expected 'item <name> <damage> <space> [description]'");
+                    } else {
+                        String description = count > 4 ? line.substring(bounds[8]).trim() : "";
+                        items.add(new String[] {token(line, bounds, 1), token(line, bounds, 2), token(line, bounds, 3), description});
+                        itemLines.add(lineNumber);
+                    }
+                    break;
+                case "neighbor":
+                    if (expect(count, 3, lineNumber, "neighbor <space1> <space2>")) {
+                        addNeighbor(token(line, bounds, 1), token(line, bounds, 2), lineNumber);
+                    }
+                    break;
+                default:
+                    error(lineNumber, "unknown configuration line '" + line.trim() + "'");
+            }
+        }
+    }
+
+    /**
+     * Second pass: creates the spaces and resolves every reference to them.
+     */
+    private World build() {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        List<Space> spaces = new ArrayList<>(spaceNames.size());
+        for (String name : spaceNames) {
+            spaces.add(new Space(name, world));
+        }
+        world.addSpaces(spaces);
+
+        for (int i = 0; i < neighborCount; i++) {
+            Space from = resolve(world, neighborFrom[i], neighborLines[i]);
+            Space to = resolve(world, neighborTo[i], neighborLines[i]);
+            if (from != null && to != null) {
+                from.addNeighbor(to);
+            }
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            String[] player = players.get(i);
+            int line = playerLines.get(i);
+            Integer health = parseNumber(player[1], line, "health");
+            Space space = resolve(world, player[2], line);
+            if (health != null && space != null) {
+                space.addPlayer(new HumanPlayer(player[0], health, space));
+            }
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            String[] item = items.get(i);
+            int line = itemLines.get(i);
+            Integer damage = parseNumber(item[1], line, "damage");
+            Space space = resolve(world, item[2], line);
+            if (damage != null && space != null) {
+                space.addItem(new Item(item[0], damage, item[3]));
+            }
+        }
+
+        for (int i = 0; i < pets.size(); i++) {
+            String[] pet = pets.get(i);
+            Space space = resolve(world, pet[1], petLines.get(i));
+            if (space != null) {
+                Pet loaded = new Pet(pet[0], space, new DepthFirstMoveStrategy());
+                world.addPet(loaded);
+            }
+        }
+
+        // Compact the loaded topology into the world's space graph
+        world.getGraph();
+        return world;
+    }
+
+    private Space resolve(World world, String name, int line) {
+        Space space = world.getSpace(name);
+        if (space == null) {
+            error(line, "unknown space '" + name + "'");
+        }
+        return space;
+    }
+
+    private Integer parseNumber(String text, int line, String field) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            error(line, "invalid " + field + " '" + text + "'");
+            return null;
+        }
+    }
+
+    private boolean expect(int count, int wanted, int line, String format) {
+        if (count != wanted) {
+            error(line, "expected '" + format + "'");
+            return false;
+        }
+        return true;
+    }
+
+    private void addNeighbor(String from, String to, int line) {
+        if (neighborCount == neighborFrom.length) {
+            int grown = neighborCount * 2;
+            neighborFrom = Arrays.copyOf(neighborFrom, grown);
+            neighborTo = Arrays.copyOf(neighborTo, grown);
+            neighborLines = Arrays.copyOf(neighborLines, grown);
+        }
+        neighborFrom[neighborCount] = from;
+        neighborTo[neighborCount] = to;
+        neighborLines[neighborCount] = line;
+        neighborCount++;
+    }
+
+    private void error(int line, String message) {
+        errors.add("line " + line + ": " + message);
+        errorLines.add(line);
+    }
+
+    private List<String> sortedErrors() {
+        Integer[] order = new Integer[errors.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(errorLines.get(a), errorLines.get(b)));
+        List<String> sorted = new ArrayList<>(order.length);
+        for (Integer index : order) {
+            sorted.add(errors.get(index));
+        }
+        return sorted;
+    }
+
+    /**
+     * Splits a line on spaces and tabs, storing the start and end of each token in {@code bounds}.
+     * Tokens past the capacity of {@code bounds} are counted but not recorded.
+     *
+     * @return The number of tokens in the line.
+     */
+    static int tokenize(String line, int[] bounds) {
+        int count = 0;
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isSeparator(line.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i;
+            while (i < length && !isSeparator(line.charAt(i))) {
+                i++;
+            }
+            if (count * 2 < bounds.length) {
+                bounds[count * 2] = start;
+                bounds[count * 2 + 1] = i;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static String token(String line, int[] bounds, int index) {
+        return line.substring(bounds[index * 2], bounds[index * 2 + 1]);
+    }
+}
@@ -1,13 +1,16 @@
 package renderer;
 
-import world.Space;
+import world.Item;
+import world.SpaceSnapshot;
 import world.World;
+import world.WorldSnapshot;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,12 +31,26 @@ public class MapRenderer {
     }
 
     /**
-     * Renders the world map and saves it as a PNG file.
+     * Renders the world map and saves it as a PNG file. Publishes a fresh snapshot of the world
+     * first, so this must be called by the thread running the game.
      *
      * @param outputPath The path where the rendered image will be saved.
+     * @return The map description.
      */
     public String renderMap(String outputPath) {
-        List<Space> spaces = world.getSpaces();
+        return renderMap(world.publishSnapshot(), outputPath);
+    }
+
+    /**
+     * Renders a snapshot of the world map and saves it as a PNG file. Snapshots are immutable, so
+     * this can run on any thread while the game goes on.
+     *
+     * @param snapshot   The snapshot to render, e.g. from {@link World#getSnapshot()}.
+     * @param outputPath The path where the rendered image will be saved.
+     * @return The map description.
+     */
+    public String renderMap(WorldSnapshot snapshot, String outputPath) {
+        List<SpaceSnapshot> spaces = snapshot.getSpaces();
         int imageWidth = (int) Math.sqrt(spaces.size()) * (SPACE_SIZE + PADDING);
         int imageHeight = (int) Math.sqrt(spaces.size()) * (SPACE_SIZE + PADDING);
 
@@ -47,19 +64,13 @@ public class MapRenderer {
         // Draw spaces
         int x = PADDING;
         int y = PADDING;
-        StringBuilder mapDescription = new StringBuilder("World Map:\n");
-        for (Space space : spaces) {
+        for (SpaceSnapshot space : spaces) {
             graphics.setColor(Color.BLUE);
             graphics.fillRect(x, y, SPACE_SIZE, SPACE_SIZE);
             graphics.setColor(Color.BLACK);
             graphics.drawRect(x, y, SPACE_SIZE, SPACE_SIZE);
             graphics.drawString(space.getName(), x + 10, y + 20);
 
-            // Append space details to the map description
-            mapDescription.append(space.getName()).append(": Players - ")
-                    .append(space.getPlayers()).append(", Items - ")
-                    .append(space.getItems()).append("\n");
-
             x += SPACE_SIZE + PADDING;
             if (x >= imageWidth) {
                 x = PADDING;
@@ -76,23 +87,37 @@ public class MapRenderer {
         }
 
         // Return the map description as a string for verification in tests
-        return mapDescription.toString();
+        return describe(snapshot);
     }
 
     /**
-     * Renders the world map and returns it as a string representation.
+     * Renders the world map and returns it as a string representation. Publishes a fresh snapshot
+     * of the world first, so this must be called by the thread running the game.
      *
      * @return The string representation of the world map.
      */
     public String renderMap() {
-        List<Space> spaces = world.getSpaces();
+        return describe(world.publishSnapshot());
+    }
+
+    /**
+     * Describes a snapshot of the world map. Safe to call from any thread.
+     *
+     * @param snapshot The snapshot to describe.
+     * @return The string representation of the world map.
+     */
+    public static String describe(WorldSnapshot snapshot) {
         StringBuilder mapDescription = new StringBuilder("World Map:\n");
 
         // Construct map description with spaces, players, and items
-        for (Space space : spaces) {
+        for (SpaceSnapshot space : snapshot.getSpaces()) {
+            List<String> itemNames = new ArrayList<>(space.getItems().size());
+            for (Item item : space.getItems()) {
+                itemNames.add(item.getName());
+            }
             mapDescription.append(space.getName()).append(": Players - ")
-                    .append(space.getPlayers()).append(", Items - ")
-                    .append(space.getItems()).append("\n");
+                    .append(space.getPlayerNames()).append(", Items - ")
+                    .append(itemNames).append("\n");
         }
 
         return mapDescription.toString();
@@ -1,5 +1,6 @@
 package strategy;
 
+import command.Command;
 import world.AIPlayer;
 import world.World;
 
@@ -14,4 +15,19 @@ public interface AIStrategy {
      * @param world The game world in which the action takes place.
      */
     void decideAction(AIPlayer player, World world);
+
+    /**
+     * Works out the action the AI player would take, without changing the world, so the actions
+     * of many players can be planned in parallel and carried out afterwards. Planning may run on
+     * several threads at once for players with different strategy instances; a strategy instance
+     * is never asked to plan for two players at the same time.
+     *
+     * @param player The AI player taking the action.
+     * @param world The game world in which the action takes place.
+     * @return The planned command, or null if this strategy cannot plan ahead and must use
+     *         {@link #decideAction(AIPlayer, World)} instead.
+     */
+    default Command planAction(AIPlayer player, World world) {
+        return null;
+    }
 }
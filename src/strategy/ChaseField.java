@@ -0,0 +1,355 @@
+package strategy;
+
+import world.AIPlayer;
+import world.DistanceOracle;
+import world.Player;
+import world.Space;
+import world.SpaceGraph;
+import world.World;
+
+import java.util.Arrays;
+
+/**
+ * ChaseField is a flow field shared by every chaser in a world. One breadth-first search seeded
+ * from all spaces holding a live player that is not itself a chaser records, for every space, the
+ * distance to the nearest such player, that player's id and the next space to move to on the way.
+ * A chaser then picks its move with a single lookup.
+ *
+ * <p>The field is brought up to date lazily whenever it is queried after players moved. Only the
+ * spaces whose nearest player left or was defeated are searched again, together with the spaces a
+ * newly occupied space is now closer to; the rest of the field is kept. When several players are
+ * equally close, the field keeps whichever one it found first.
+ *
+ * <p>Queries normally take the field's lock. After {@link #freeze()}, queries read a copy of the
+ * field without locking for as long as no player moves or is defeated, so many AI players can
+ * plan their moves in parallel.
+ */
+public class ChaseField {
+    private final World world;
+    private SpaceGraph graph;
+    private long occupancy = -1;
+
+    private int[] distance; // moves to the nearest player, or DistanceOracle.UNREACHABLE
+    private int[] nextHop; // space to move to, or -1 in a seed space or an unreachable one
+    private int[] source; // seed space the nearest player is in, or -1
+    private int[] seedPlayer; // id of the player a seed space is chased for, or -1
+
+    private int[] seeds = new int[0];
+    private int seedCount;
+    private int[] wanted; // seed player of each space for the current positions, filled per update
+    private int[] invalid;
+    private long[] frontier;
+    private long[] queue;
+    private volatile Frozen frozen;
+
+    /**
+     * Initializes a ChaseField for a world. The field is built on the first query.
+     *
+     * @param world The world the chasers move in.
+     */
+    public ChaseField(World world) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null.");
+        }
+        this.world = world;
+    }
+
+    /**
+     * Checks if a player is chased through this field. Every live player is, except for AI players
+     * that chase others themselves and a chasing target character.
+     *
+     * @param player The player to check.
+     * @return True if chasers move towards the player.
+     */
+    public boolean isChased(Player player) {
+        if (player == null || player.getHealth() <= 0) {
+            return false;
+        }
+        if (player instanceof AIPlayer) {
+            return !(((AIPlayer) player).getStrategy() instanceof ChasePlayerStrategy);
+        }
+        return player != world.getTarget() || !(world.getStrategy() instanceof ChasePlayerStrategy);
+    }
+
+    /**
+     * Gets the next space to move to from a space to get closer to the nearest chased player.
+     *
+     * @param from The space to move from.
+     * @return The neighbor to move to, or null if no chased player can be reached or one is already
+     *         in the space.
+     */
+    public Space getNextHop(Space from) {
+        Frozen view = frozenView();
+        if (view != null) {
+            int id = view.graph.idOf(from);
+            return id >= 0 && view.nextHop[id] >= 0 ? view.graph.getSpace(view.nextHop[id]) : null;
+        }
+        synchronized (this) {
+            int id = lookup(from);
+            return id >= 0 && nextHop[id] >= 0 ? graph.getSpace(nextHop[id]) : null;
+        }
+    }
+
+    /**
+     * Gets the chased player nearest to a space.
+     *
+     * @param from The space to measure from.
+     * @return The player, or null if no chased player can be reached.
+     */
+    public Player getNearestPlayer(Space from) {
+        int id = getNearestPlayerId(from);
+        return id >= 0 ? world.getPlayerById(id) : null;
+    }
+
+    /**
+     * Gets the world's id of the chased player nearest to a space.
+     *
+     * @param from The space to measure from.
+     * @return The player id, or -1 if no chased player can be reached.
+     */
+    public int getNearestPlayerId(Space from) {
+        Frozen view = frozenView();
+        if (view != null) {
+            int id = view.graph.idOf(from);
+            return id >= 0 ? view.nearest[id] : -1;
+        }
+        synchronized (this) {
+            int id = lookup(from);
+            return id >= 0 && source[id] >= 0 ? seedPlayer[source[id]] : -1;
+        }
+    }
+
+    /**
+     * Gets the number of moves from a space to the nearest chased player.
+     *
+     * @param from The space to measure from.
+     * @return The number of moves, or {@link DistanceOracle#UNREACHABLE}.
+     */
+    public int getDistance(Space from) {
+        Frozen view = frozenView();
+        if (view != null) {
+            int id = view.graph.idOf(from);
+            return id >= 0 ? view.distance[id] : DistanceOracle.UNREACHABLE;
+        }
+        synchronized (this) {
+            int id = lookup(from);
+            return id >= 0 ? distance[id] : DistanceOracle.UNREACHABLE;
+        }
+    }
+
+    /**
+     * Brings the field up to date with the current positions of the players.
+     */
+    public synchronized void update() {
+        SpaceGraph latest = world.getGraph();
+        if (latest != graph) {
+            reset(latest);
+        } else if (occupancy == world.getOccupancyVersion()) {
+            return;
+        }
+        occupancy = world.getOccupancyVersion();
+        refresh();
+    }
+
+    /**
+     * Brings the field up to date and publishes a read-only copy of it, which queries use without
+     * locking until a player moves or a chased player is defeated.
+     */
+    public synchronized void freeze() {
+        update();
+        int[] nearest = new int[source.length];
+        for (int i = 0; i < nearest.length; i++) {
+            nearest[i] = source[i] >= 0 ? seedPlayer[source[i]] : -1;
+        }
+        frozen = new Frozen(graph, occupancy, distance.clone(), nextHop.clone(), nearest);
+    }
+
+    /**
+     * Gets the frozen copy of the field if it still matches the world.
+     */
+    private Frozen frozenView() {
+        Frozen view = frozen;
+        return view != null && view.occupancy == world.getOccupancyVersion() && view.graph == world.getGraph() ? view : null;
+    }
+
+    private int lookup(Space from) {
+        update();
+        return from != null ? graph.idOf(from) : -1;
+    }
+
+    private void reset(SpaceGraph latest) {
+        graph = latest;
+        int size = latest.size();
+        distance = new int[size];
+        nextHop = new int[size];
+        source = new int[size];
+        seedPlayer = new int[size];
+        wanted = new int[size];
+        invalid = new int[size];
+        queue = new long[size];
+        frontier = new long[Math.max(16, size)];
+        Arrays.fill(distance, DistanceOracle.UNREACHABLE);
+        Arrays.fill(nextHop, -1);
+        Arrays.fill(source, -1);
+        Arrays.fill(seedPlayer, -1);
+        Arrays.fill(wanted, -1);
+        seeds = new int[16];
+        seedCount = 0;
+    }
+
+    /**
+     * Reseeds the spaces whose chased player changed and searches again around them.
+     */
+    private void refresh() {
+        // Work out which player each space should be seeded with now, the lowest id winning
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        for (Player player : world.getPlayers()) {
+            if (!isChased(player)) {
+                continue;
+            }
+            int space = graph.idOf(player.getCurrentSpace());
+            int id = world.getPlayerId(player);
+            if (space < 0 || id < 0) {
+                continue;
+            }
+            if (wanted[space] < 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = space;
+                wanted[space] = id;
+            } else if (id < wanted[space]) {
+                wanted[space] = id;
+            }
+        }
+
+        // Drop the regions of seeds that are gone or are now chased for another player
+        int invalidCount = 0;
+        int kept = 0;
+        for (int i = 0; i < seedCount; i++) {
+            int space = seeds[i];
+            if (wanted[space] == seedPlayer[space]) {
+                seeds[kept++] = space;
+            } else {
+                invalidCount = invalidate(space, invalidCount);
+                seedPlayer[space] = -1;
+            }
+        }
+        seedCount = kept;
+
+        // Seed the newly occupied spaces
+        int frontierCount = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int space = touched[i];
+            if (seedPlayer[space] != wanted[space]) {
+                seedPlayer[space] = wanted[space];
+                distance[space] = 0;
+                nextHop[space] = -1;
+                source[space] = space;
+                if (seedCount == seeds.length) {
+                    seeds = Arrays.copyOf(seeds, seedCount * 2);
+                }
+                seeds[seedCount++] = space;
+                frontierCount = push(frontierCount, 0, space);
+            }
+            wanted[space] = -1;
+        }
+
+        // Dropped spaces are reached again from the spaces around them that kept their distance
+        for (int i = 0; i < invalidCount; i++) {
+            int space = invalid[i];
+            for (int e = graph.edgeStart(space), end = graph.edgeEnd(space); e < end; e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (distance[neighbor] != DistanceOracle.UNREACHABLE) {
+                    frontierCount = push(frontierCount, distance[neighbor], neighbor);
+                }
+            }
+        }
+        if (frontierCount > 0) {
+            Arrays.sort(frontier, 0, frontierCount);
+            relax(frontierCount);
+        }
+    }
+
+    /**
+     * Clears the distances of every space whose nearest player is in the given seed space.
+     */
+    private int invalidate(int seed, int invalidCount) {
+        SpaceGraph reverse = graph.reverse();
+        int head = invalidCount;
+        source[seed] = -1;
+        distance[seed] = DistanceOracle.UNREACHABLE;
+        invalid[invalidCount++] = seed;
+        while (head < invalidCount) {
+            int space = invalid[head++];
+            for (int e = reverse.edgeStart(space), end = reverse.edgeEnd(space); e < end; e++) {
+                int previous = reverse.edgeTarget(e);
+                if (source[previous] == seed) {
+                    source[previous] = -1;
+                    distance[previous] = DistanceOracle.UNREACHABLE;
+                    nextHop[previous] = -1;
+                    invalid[invalidCount++] = previous;
+                }
+            }
+        }
+        return invalidCount;
+    }
+
+    /**
+     * Searches outwards from the sorted frontier over the reverse graph, merging the frontier with
+     * the search queue so that spaces are always taken in order of distance.
+     */
+    private void relax(int frontierCount) {
+        SpaceGraph reverse = graph.reverse();
+        int next = 0;
+        int head = 0;
+        int tail = 0;
+        while (next < frontierCount || head < tail) {
+            long entry = head < tail && (next == frontierCount || queue[head] <= frontier[next])
+                    ? queue[head++] : frontier[next++];
+            int space = (int) entry;
+            int moves = (int) (entry >>> 32);
+            if (distance[space] != moves) {
+                continue; // Reached on a shorter route since
+            }
+            int further = moves + 1;
+            for (int e = reverse.edgeStart(space), end = reverse.edgeEnd(space); e < end; e++) {
+                int previous = reverse.edgeTarget(e);
+                if (further < distance[previous]) {
+                    distance[previous] = further;
+                    nextHop[previous] = space;
+                    source[previous] = source[space];
+                    queue[tail++] = ((long) further << 32) | previous;
+                }
+            }
+        }
+    }
+
+    private int push(int frontierCount, int moves, int space) {
+        if (frontierCount == frontier.length) {
+            frontier = Arrays.copyOf(frontier, frontierCount * 2);
+        }
+        frontier[frontierCount] = ((long) moves << 32) | space;
+        return frontierCount + 1;
+    }
+
+    /**
+     * A read-only copy of the field for one graph and one set of player positions.
+     */
+    private static final class Frozen {
+        private final SpaceGraph graph;
+        private final long occupancy;
+        private final int[] distance;
+        private final int[] nextHop;
+        private final int[] nearest; // id of the nearest chased player, or -1
+
+        private Frozen(SpaceGraph graph, long occupancy, int[] distance, int[] nextHop, int[] nearest) {
+            this.graph = graph;
+            this.occupancy = occupancy;
+            this.distance = distance;
+            this.nextHop = nextHop;
+            this.nearest = nearest;
+        }
+    }
+}
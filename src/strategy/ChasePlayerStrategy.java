@@ -1,6 +1,9 @@
 package strategy;
 
+import command.Command;
 import world.AIPlayer;
+import world.DistanceOracle;
+import world.GameEvent;
 import world.Player;
 import world.Space;
 import world.World;
@@ -10,16 +13,25 @@ import java.util.Random;
 
 /**
  * ChasePlayerStrategy implements a strategy where the target character moves towards the nearest player.
+ * Chasers prefer players that do not chase anyone themselves and find them through the world's shared
+ * {@link ChaseField}; only when no such player can be reached do they head for the nearest other player.
  */
 public class ChasePlayerStrategy implements TargetStrategy, AIStrategy {
-    private Random random;
+    private RandomSource random;
 
     public ChasePlayerStrategy(Random random) {
+        this.random = RandomSource.of(random);
+    }
+
+    public ChasePlayerStrategy(RandomSource random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null.");
+        }
         this.random = random;
     }
 
     public ChasePlayerStrategy() {
-        this.random = new Random();
+        this.random = RandomSource.create();
     }
 
     @Override
@@ -32,40 +44,83 @@ public class ChasePlayerStrategy implements TargetStrategy, AIStrategy {
         move(player, world);
     }
 
+    @Override
+    public Command planAction(AIPlayer player, World world) {
+        return plan(player, world);
+    }
+
     public void move(Player chaser, World world) {
+        plan(chaser, world).execute();
+    }
+
+    /**
+     * Works out the chaser's next move without changing the world.
+     *
+     * @param chaser The character doing the chasing.
+     * @param world  The world it moves in.
+     * @return The planned move.
+     */
+    private PlannedMove plan(Player chaser, World world) {
         Space currentSpace = chaser.getCurrentSpace();
+        boolean report = world.getEventSink().isEnabled();
+
+        // Chasers share one flow field towards the players that do not chase anyone themselves
+        ChaseField field = world.getChaseField();
+        if (!field.isChased(chaser)) {
+            Player quarry = field.getNearestPlayer(currentSpace);
+            if (quarry != null) {
+                Space nextSpace = field.getNextHop(currentSpace);
+                if (nextSpace == null) {
+                    return new PlannedMove(chaser, null,
+                            report ? GameEvent.of(GameEvent.Type.CHASER_ARRIVED, chaser.getName(), quarry.getName()) : null);
+                }
+                return new PlannedMove(chaser, nextSpace,
+                        report ? GameEvent.of(GameEvent.Type.CHASER_MOVED, chaser.getName(), quarry.getName(), nextSpace.getName(), 0) : null);
+            }
+        }
+
         List<Space> neighbors = currentSpace.getNeighbors();
-        Player closestPlayer = findClosestPlayer(chaser, world);
+        DistanceOracle oracle = world.getDistanceOracle();
+        Player closestPlayer = findClosestPlayer(chaser, oracle, world);
 
         if (closestPlayer == null) {
-            System.out.println("No players to chase.");
-            return;
+            return new PlannedMove(chaser, null,
+                    report ? GameEvent.of(GameEvent.Type.NO_PLAYERS_TO_CHASE, chaser.getName()) : null);
         }
 
         Space targetSpace = closestPlayer.getCurrentSpace();
-        Space nextSpace = findBestNeighbor(neighbors, targetSpace);
+        if (targetSpace == currentSpace) {
+            return new PlannedMove(chaser, null,
+                    report ? GameEvent.of(GameEvent.Type.CHASER_ARRIVED, chaser.getName(), closestPlayer.getName()) : null);
+        }
+
+        Space nextSpace = world.getPathFinder().nextStep(currentSpace, targetSpace);
+        if (nextSpace == null && neighbors.contains(targetSpace)) {
+            nextSpace = targetSpace;
+        }
 
         if (nextSpace == null && !neighbors.isEmpty()) {
             nextSpace = neighbors.get(random.nextInt(neighbors.size()));
         }
 
         if (nextSpace != null) {
-            chaser.move(nextSpace);
-            System.out.println(chaser.getName() + " moved towards " + closestPlayer.getName() + " and entered " + nextSpace.getName() + ".");
-        } else {
-            System.out.println(chaser.getName() + " has no valid moves towards the player.");
+            return new PlannedMove(chaser, nextSpace,
+                    report ? GameEvent.of(GameEvent.Type.CHASER_MOVED, chaser.getName(), closestPlayer.getName(), nextSpace.getName(), 0) : null);
         }
+        return new PlannedMove(chaser, null,
+                report ? GameEvent.of(GameEvent.Type.CHASER_STUCK, chaser.getName()) : null);
     }
 
-    private Player findClosestPlayer(Player chaser, World world) {
-        List<Player> players = world.getPlayers();
+    private Player findClosestPlayer(Player chaser, DistanceOracle oracle, World world) {
+        Space chaserSpace = chaser.getCurrentSpace();
+        int[] distances = oracle.distancesFrom(chaserSpace);
         Player closestPlayer = null;
-        double closestDistance = Double.MAX_VALUE;
+        int closestDistance = DistanceOracle.UNREACHABLE;
 
-        for (Player player : players) {
-            if (!player.equals(chaser)) {
-                double distance = calculateDistance(chaser.getCurrentSpace(), player.getCurrentSpace());
-                if (distance < closestDistance) {
+        for (Player player : world.getPlayers()) {
+            if (!player.equals(chaser) && player.getCurrentSpace() != null) {
+                int distance = calculateDistance(chaserSpace, player.getCurrentSpace(), distances, world);
+                if (closestPlayer == null || distance < closestDistance) {
                     closestDistance = distance;
                     closestPlayer = player;
                 }
@@ -74,24 +129,11 @@ public class ChasePlayerStrategy implements TargetStrategy, AIStrategy {
         return closestPlayer;
     }
 
-    private Space findBestNeighbor(List<Space> neighbors, Space targetSpace) {
-        Space bestNeighbor = null;
-        double closestDistance = Double.MAX_VALUE;
-
-        for (Space neighbor : neighbors) {
-            double distance = calculateDistance(neighbor, targetSpace);
-            if (distance < closestDistance) {
-                closestDistance = distance;
-                bestNeighbor = neighbor;
-            }
-        }
-        return bestNeighbor;
-    }
-
-    private double calculateDistance(Space space1, Space space2) {
-        if (space1.equals(space2)) {
+    private int calculateDistance(Space from, Space to, int[] distancesFrom, World world) {
+        if (from == to) {
             return 0;
         }
-        return 1;  
+        int id = world.getGraph().idOf(to);
+        return distancesFrom != null && id >= 0 ? distancesFrom[id] : DistanceOracle.UNREACHABLE;
     }
 }
@@ -1,27 +1,36 @@
 package strategy;
 
+import world.GameEvent;
+import world.GameEventSink;
 import world.Pet;
 import world.Player;
 import world.Space;
+import world.SpaceGraph;
 import world.World;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Stack;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * DepthFirstMoveStrategy implements a depth-first traversal strategy for moving the pet in the game.
+ *
+ * <p>One strategy can drive any number of pets and characters, each with its own place on a walk.
+ * The walk from each starting space is compiled into a {@link PatrolRoute} once per topology
+ * version and shared, so a move is an index increment and the position any number of turns ahead
+ * can be looked up. Once a walk has visited every space it can reach and backtracked to where it
+ * began, it starts over. A walk also starts over from wherever its character is if the character
+ * was moved by something else or the world's topology changed.
  */
 public class DepthFirstMoveStrategy implements MoveStrategy, TargetStrategy {
-    private Set<Space> visited;
-    private Stack<Space> stack;
+    private final Map<Object, Patrol> patrols = new WeakHashMap<>();
+    private final Map<Integer, PatrolRoute> routes = new HashMap<>(); // by start, for routeGraph
+    private SpaceGraph routeGraph;
 
     /**
      * Initializes the DepthFirstMoveStrategy with necessary data structures.
      */
     public DepthFirstMoveStrategy() {
-        this.visited = new HashSet<>();
-        this.stack = new Stack<>();
     }
 
     /**
@@ -33,63 +42,164 @@ public class DepthFirstMoveStrategy implements MoveStrategy, TargetStrategy {
     @Override
     public void movePet(Pet pet, World world) {
         Space currentSpace = pet.getCurrentSpace();
-
-        // If the stack is empty, initialize it with the current space
-        if (stack.isEmpty()) {
-            stack.push(currentSpace);
+        GameEventSink events = GameEventSink.of(world);
+        Space nextSpace;
+        boolean backtracked;
+        synchronized (this) {
+            Patrol patrol = advance(pet, world, currentSpace);
+            nextSpace = patrol != null ? patrol.route.spaceAt(patrol.step) : null;
+            backtracked = patrol != null && patrol.route.isBacktrack(patrol.step);
         }
 
-        // Mark the current space as visited
-        visited.add(currentSpace);
-
-        // Get the next unvisited neighbor
-        Space nextSpace = getNextUnvisitedNeighbor(currentSpace);
-        if (nextSpace != null) {
-            // Move to the next unvisited neighbor
-            pet.moveTo(nextSpace);
-            stack.push(nextSpace);
-            System.out.println(pet.toString() + " moved to " + nextSpace.getName() + " using depth-first traversal.");
-        } else {
-            // Backtrack if no unvisited neighbors are available
-            stack.pop();
-            if (!stack.isEmpty()) {
-                Space backtrackSpace = stack.peek();
-                pet.moveTo(backtrackSpace);
-                System.out.println(pet.toString() + " backtracked to " + backtrackSpace.getName() + ".");
+        if (nextSpace == null) {
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.PET_NO_NEIGHBORS, pet.getName(), null,
+                        currentSpace != null ? currentSpace.getName() : null, 0));
             }
+            return;
+        }
+        pet.moveTo(nextSpace);
+        if (events.isEnabled()) {
+            GameEvent.Type type = backtracked ? GameEvent.Type.PET_BACKTRACKED : GameEvent.Type.PET_MOVED_DEPTH_FIRST;
+            events.publish(GameEvent.of(type, pet.getName(), null, nextSpace.getName(), 0));
         }
     }
 
     /**
-     * Gets the next unvisited neighbor of the given space.
+     * Moves the target character one step along its depth-first walk.
      *
-     * @param space The current space.
-     * @return The next unvisited neighbor, or null if all neighbors are visited.
+     * @param target The target character to be moved.
+     * @param world  The game world context.
      */
-    private Space getNextUnvisitedNeighbor(Space space) {
-        for (Space neighbor : space.getNeighbors()) {
-            if (!visited.contains(neighbor)) {
-                return neighbor;
-            }
-        }
-        return null;
-    }
-
     @Override
     public void moveTarget(Player target, World world) {
-      // TODO Auto-generated method stub
-      
+        move(target, world);
     }
 
+    /**
+     * Moves a character one step along its depth-first walk.
+     *
+     * @param player The character to be moved.
+     * @param world  The game world context.
+     */
     @Override
     public void move(Player player, World world) {
-      // TODO Auto-generated method stub
-      
+        Space currentSpace = player.getCurrentSpace();
+        GameEventSink events = GameEventSink.of(world);
+        Space nextSpace;
+        synchronized (this) {
+            Patrol patrol = advance(player, world, currentSpace);
+            nextSpace = patrol != null ? patrol.route.spaceAt(patrol.step) : null;
+        }
+
+        if (nextSpace == null) {
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.NO_NEIGHBORS, player.getName(), null,
+                        currentSpace != null ? currentSpace.getName() : null, 0));
+            }
+            return;
+        }
+        player.move(nextSpace);
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.PLAYER_MOVED, player.getName(), null, nextSpace.getName(), 0));
+        }
     }
 
     @Override
     public void move(Pet pet, World world) {
-      // TODO Auto-generated method stub
-      
+        movePet(pet, world);
+    }
+
+    /**
+     * Looks ahead along the walk of a pet without moving it.
+     *
+     * @param pet   The pet.
+     * @param world The world the pet walks in.
+     * @param turns The number of moves to look ahead.
+     * @return The space the pet will be in after that many moves, or null if it is not in the world.
+     */
+    public Space positionAfter(Pet pet, World world, long turns) {
+        return positionAfter(pet, pet.getCurrentSpace(), world, turns);
+    }
+
+    /**
+     * Looks ahead along the walk of a character without moving it.
+     *
+     * @param player The character.
+     * @param world  The world the character walks in.
+     * @param turns  The number of moves to look ahead.
+     * @return The space the character will be in after that many moves, or null if it is not in
+     *         the world.
+     */
+    public Space positionAfter(Player player, World world, long turns) {
+        return positionAfter(player, player.getCurrentSpace(), world, turns);
+    }
+
+    private synchronized Space positionAfter(Object walker, Space current, World world, long turns) {
+        if (turns < 0) {
+            throw new IllegalArgumentException("Turns cannot be negative.");
+        }
+        Patrol patrol = locate(walker, world, current);
+        return patrol != null ? patrol.route.spaceAt(patrol.step + turns) : null;
+    }
+
+    /**
+     * Moves a walker one step along its route.
+     *
+     * @return The walker's patrol, now at the step to move to, or null if it cannot move.
+     */
+    private Patrol advance(Object walker, World world, Space current) {
+        Patrol patrol = locate(walker, world, current);
+        if (patrol == null || patrol.route.length() == 1) {
+            return null;
+        }
+        patrol.step = (patrol.step + 1) % patrol.route.length();
+        return patrol;
+    }
+
+    /**
+     * Finds a walker's place on its route, starting a new route from its space if the walker is
+     * not where its route says it should be.
+     */
+    private Patrol locate(Object walker, World world, Space current) {
+        if (world == null || current == null) {
+            return null;
+        }
+        SpaceGraph graph = world.getGraph();
+        int here = graph.idOf(current);
+        if (here < 0) {
+            return null;
+        }
+        Patrol patrol = patrols.get(walker);
+        if (patrol == null) {
+            patrol = new Patrol();
+            patrols.put(walker, patrol);
+        }
+        if (patrol.route == null || patrol.route.getGraph() != graph || patrol.route.spaceIdAt(patrol.step) != here) {
+            patrol.route = routeFrom(graph, here);
+            patrol.step = 0;
+        }
+        return patrol;
+    }
+
+    private PatrolRoute routeFrom(SpaceGraph graph, int start) {
+        if (graph != routeGraph) {
+            routes.clear();
+            routeGraph = graph;
+        }
+        PatrolRoute route = routes.get(start);
+        if (route == null) {
+            route = PatrolRoute.compile(graph, start);
+            routes.put(start, route);
+        }
+        return route;
+    }
+
+    /**
+     * A walker's place on its route.
+     */
+    private static final class Patrol {
+        private PatrolRoute route;
+        private int step;
     }
 }
@@ -0,0 +1,34 @@
+package strategy;
+
+import java.util.Random;
+
+/**
+ * RandomSource that draws from a {@link Random}, for callers that already have one.
+ */
+final class JdkRandomSource implements RandomSource {
+    private final Random random;
+
+    JdkRandomSource(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.nextLong());
+    }
+}
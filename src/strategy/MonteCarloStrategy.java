@@ -0,0 +1,304 @@
+package strategy;
+
+import command.AttemptAttackCommand;
+import command.Command;
+import command.MoveCommand;
+import command.PickUpItemCommand;
+import world.AIPlayer;
+import world.Item;
+import world.SpaceGraph;
+import world.World;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MonteCarloStrategy lets an AI player go after the target by Monte Carlo tree search. Each
+ * decision grows a tree over the player's own actions (moving to a neighboring space, picking up
+ * the best item, attacking the target) and scores each branch by playing out the next rounds in a
+ * {@link RolloutModel}, with the target and the pets moving the way their strategies do. The
+ * action tried most often wins.
+ *
+ * <p>A decision takes at most the configured wall-clock budget, and optionally at most a number of
+ * search iterations. Every iteration plays out one batch of games in parallel on a fork/join pool;
+ * the seeds of a batch are drawn up front, so with an iteration limit the choice does not depend
+ * on the number of threads. The branch that was chosen is kept and grown further on the player's
+ * next turn if the player is where the branch expected it to be.
+ */
+public class MonteCarloStrategy implements AIStrategy {
+    private static final long DEFAULT_BUDGET_MILLIS = 20;
+    private static final int DEFAULT_HORIZON = 12;
+    private static final int PLAY_OUTS_PER_ITERATION = 32;
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final RandomSource random;
+    private final long budgetNanos;
+    private final int maxIterations;
+    private final ForkJoinPool pool;
+    private final int horizon;
+    private final Map<AIPlayer, Node> kept = new WeakHashMap<>();
+
+    /**
+     * Initializes a MonteCarloStrategy with an unseeded random source, the default time budget
+     * and the common fork/join pool.
+     */
+    public MonteCarloStrategy() {
+        this(RandomSource.create(), DEFAULT_BUDGET_MILLIS, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Initializes a MonteCarloStrategy that searches on the common fork/join pool.
+     *
+     * @param random       The random source to use, typically split from the game's source.
+     * @param budgetMillis The wall-clock time allowed per decision, in milliseconds.
+     */
+    public MonteCarloStrategy(RandomSource random, long budgetMillis) {
+        this(random, budgetMillis, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Initializes a MonteCarloStrategy.
+     *
+     * @param random        The random source to use, typically split from the game's source.
+     * @param budgetMillis  The wall-clock time allowed per decision, in milliseconds, or 0 for no
+     *                      limit if {@code maxIterations} is set.
+     * @param maxIterations The number of search iterations per decision, or 0 for no limit if
+     *                      {@code budgetMillis} is set.
+     * @param pool          The pool to play out games on.
+     */
+    public MonteCarloStrategy(RandomSource random, long budgetMillis, int maxIterations, ForkJoinPool pool) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null.");
+        }
+        if (budgetMillis < 0 || maxIterations < 0 || (budgetMillis == 0 && maxIterations == 0)) {
+            throw new IllegalArgumentException("A time budget or an iteration limit is required.");
+        }
+        this.random = random;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.maxIterations = maxIterations;
+        this.pool = pool;
+        this.horizon = DEFAULT_HORIZON;
+    }
+
+    @Override
+    public void decideAction(AIPlayer player, World world) {
+        Command command = planAction(player, world);
+        if (command != null) {
+            command.execute();
+        }
+    }
+
+    @Override
+    public Command planAction(AIPlayer player, World world) {
+        long deadline = System.nanoTime() + budgetNanos;
+        RolloutModel model = RolloutModel.capture(player, world, horizon);
+        if (model == null) {
+            return null;
+        }
+        Node root = reusableRoot(player, model);
+        search(root, model, deadline);
+
+        Node best = null;
+        for (Node child : root.children) {
+            if (child != null && (best == null || child.visits > best.visits)) {
+                best = child;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        synchronized (kept) {
+            kept.put(player, best);
+        }
+        return toCommand(best.action, player, world, model.getGraph());
+    }
+
+    /**
+     * Grows the tree until the time budget or the iteration limit runs out, but at least once.
+     */
+    private void search(Node root, RolloutModel model, long deadline) {
+        int batch = PLAY_OUTS_PER_ITERATION;
+        int[] path = new int[horizon];
+        Node[] nodes = new Node[horizon + 1];
+        long[] seeds = new long[batch];
+        double[] rewards = new double[batch];
+        int iterations = 0;
+        do {
+            // Selection and expansion, on this thread only
+            int length = 0;
+            Node node = root;
+            nodes[0] = root;
+            while (length < horizon) {
+                if (node.children == null) {
+                    node.expand(model.actionsAfter(path, length));
+                }
+                Node next = node.untried < node.actions.length ? node.expandNext() : node.select();
+                if (next == null) {
+                    break;
+                }
+                path[length++] = next.action;
+                nodes[length] = next;
+                boolean fresh = next.visits == 0;
+                node = next;
+                if (fresh) {
+                    break;
+                }
+            }
+
+            // Play-outs, in parallel
+            for (int i = 0; i < batch; i++) {
+                seeds[i] = random.nextLong();
+            }
+            pool.invoke(new PlayOuts(model, path, length, seeds, rewards, 0, batch,
+                    Math.max(1, batch / (pool.getParallelism() * 2))));
+            double total = 0;
+            for (int i = 0; i < batch; i++) {
+                total += rewards[i];
+            }
+
+            // Back-propagation
+            for (int i = 0; i <= length; i++) {
+                nodes[i].visits += batch;
+                nodes[i].value += total;
+            }
+            iterations++;
+        } while ((maxIterations == 0 || iterations < maxIterations)
+                && (budgetNanos == 0 || System.nanoTime() < deadline));
+    }
+
+    /**
+     * Gets the branch kept from the player's last decision if it still fits the world, or a new root.
+     */
+    private Node reusableRoot(AIPlayer player, RolloutModel model) {
+        Node previous;
+        synchronized (kept) {
+            previous = kept.remove(player);
+        }
+        if (previous != null && previous.graph == model.getGraph() && previous.space == model.getStart()
+                && previous.children != null
+                && Arrays.equals(previous.actions, model.actionsAfter(new int[0], 0))) {
+            previous.action = Node.ROOT;
+            return previous;
+        }
+        return new Node(Node.ROOT, model.getGraph(), model.getStart());
+    }
+
+    private static Command toCommand(int action, AIPlayer player, World world, SpaceGraph graph) {
+        if (action >= 0) {
+            return new MoveCommand(player, graph.getSpace(action));
+        }
+        if (action == RolloutModel.PICK_UP) {
+            Item best = null;
+            for (Item item : player.getCurrentSpace().getItems()) {
+                if (best == null || item.getDamage() > best.getDamage()) {
+                    best = item;
+                }
+            }
+            if (best != null) {
+                return new PickUpItemCommand(player, best);
+            }
+        }
+        return new AttemptAttackCommand(player, world.getTarget(), player.getInventory().getBestItem());
+    }
+
+    /**
+     * A node of the search tree: the player's action, how often branches through it were played out
+     * and the total reward they brought.
+     */
+    private static final class Node {
+        static final int ROOT = Integer.MIN_VALUE;
+
+        int action;
+        final SpaceGraph graph;
+        final int space; // the player's space after the action
+        int[] actions; // actions open after this node, in the order they are tried
+        Node[] children;
+        int untried;
+        long visits;
+        double value;
+
+        Node(int action, SpaceGraph graph, int space) {
+            this.action = action;
+            this.graph = graph;
+            this.space = space;
+        }
+
+        void expand(int[] open) {
+            actions = open;
+            children = new Node[open.length];
+        }
+
+        Node expandNext() {
+            int action = actions[untried];
+            Node child = new Node(action, graph, action >= 0 ? action : space);
+            children[untried++] = child;
+            return child;
+        }
+
+        /**
+         * Picks the child with the best upper confidence bound.
+         */
+        Node select() {
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(Math.max(1, visits));
+            for (Node child : children) {
+                double score = child.value / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Plays out the games numbered {@code from} up to {@code to}, splitting the range while it is
+     * larger than the grain size.
+     */
+    private static final class PlayOuts extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RolloutModel model;
+        private final int[] path;
+        private final int length;
+        private final long[] seeds;
+        private final double[] rewards;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        private PlayOuts(RolloutModel model, int[] path, int length, long[] seeds, double[] rewards,
+                int from, int to, int grain) {
+            this.model = model;
+            this.path = path;
+            this.length = length;
+            this.seeds = seeds;
+            this.rewards = rewards;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    rewards[i] = model.playOut(path, length, RandomSource.of(seeds[i]));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PlayOuts(model, path, length, seeds, rewards, from, middle, grain),
+                    new PlayOuts(model, path, length, seeds, rewards, middle, to, grain));
+        }
+    }
+}
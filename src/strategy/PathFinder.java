@@ -0,0 +1,540 @@
+package strategy;
+
+import world.Space;
+import world.SpaceGraph;
+import world.World;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PathFinder finds shortest routes between spaces for the strategies that move characters around.
+ * Routes are found with a bidirectional breadth-first search, or with A* when a {@link Heuristic}
+ * is set, and are returned as arrays of space ids. Found routes are kept in a bounded
+ * least-recently-used cache keyed by their two ends and the topology version of the graph, so the
+ * same question asked again on a later turn, or by another AI, is answered without a search.
+ * Queries may come from several threads at once, e.g. while AI players plan their moves. They
+ * normally take the finder's lock; after {@link #freeze()}, they search and cache without locking
+ * until the topology changes.
+ */
+public class PathFinder {
+    private static final int DEFAULT_CACHED_PATHS = 4096;
+    private static final int[] NO_PATH = new int[0];
+    private static final int[] FULL = new int[0]; // not in a frozen cache, and no room to add it
+
+    private final World world;
+    private final int maxPaths;
+    private final Map<PathKey, int[]> paths;
+    private final ThreadLocal<Search> searches = new ThreadLocal<>();
+    private Heuristic heuristic;
+    private SpaceGraph graph;
+    private volatile Frozen frozen;
+
+    /**
+     * A lower bound on the number of moves between two spaces, e.g. the distance between their
+     * coordinates on the board. Estimates must never be larger than the real number of moves, or the
+     * routes found may not be the shortest.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        /**
+         * Estimates the number of moves from one space to another.
+         *
+         * @param from The space to start from.
+         * @param to   The space to reach.
+         * @return The estimate, at least 0 and at most the real number of moves.
+         */
+        int estimate(Space from, Space to);
+    }
+
+    /**
+     * Initializes a PathFinder with the default cache size.
+     *
+     * @param world The world whose spaces are searched.
+     */
+    public PathFinder(World world) {
+        this(world, DEFAULT_CACHED_PATHS);
+    }
+
+    /**
+     * Initializes a PathFinder that keeps at most the given number of routes.
+     *
+     * @param world    The world whose spaces are searched.
+     * @param maxPaths The number of cached routes.
+     */
+    public PathFinder(World world, int maxPaths) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null.");
+        }
+        if (maxPaths < 1) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.world = world;
+        this.maxPaths = maxPaths;
+        this.paths = new LinkedHashMap<PathKey, int[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PathKey, int[]> eldest) {
+                return size() > maxPaths;
+            }
+        };
+    }
+
+    /**
+     * Sets the heuristic used to search with A*, which drops the routes cached so far.
+     *
+     * @param heuristic The heuristic, or null to use a bidirectional breadth-first search.
+     */
+    public synchronized void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+        paths.clear();
+        frozen = null;
+    }
+
+    /**
+     * Finds a shortest route between two spaces. The returned array is shared with the cache and
+     * must not be modified.
+     *
+     * @param from The space to start from.
+     * @param to   The space to reach.
+     * @return The ids of the spaces along the route, starting with {@code from} and ending with
+     *         {@code to}, or null if there is no route or either space is not part of the graph.
+     */
+    public int[] findPath(Space from, Space to) {
+        if (from == null || to == null) {
+            return null;
+        }
+        Frozen view = frozenView();
+        if (view != null) {
+            int[] path = view.find(from, to);
+            if (path != FULL) {
+                return path;
+            }
+        }
+        synchronized (this) {
+            return findPathLocked(from, to);
+        }
+    }
+
+    /**
+     * Gets the first move along a shortest route between two spaces.
+     *
+     * @param from The space to start from.
+     * @param to   The space to reach.
+     * @return The neighbor of {@code from} to move to, or null if {@code from} is {@code to} or
+     *         there is no route.
+     */
+    public Space nextStep(Space from, Space to) {
+        if (from == null || to == null) {
+            return null;
+        }
+        Frozen view = frozenView();
+        if (view != null) {
+            int[] path = view.find(from, to);
+            if (path != FULL) {
+                return step(view.graph, path);
+            }
+        }
+        synchronized (this) {
+            int[] path = findPathLocked(from, to);
+            return step(graph, path);
+        }
+    }
+
+    /**
+     * Gets the number of moves along a shortest route between two spaces.
+     *
+     * @param from The space to start from.
+     * @param to   The space to reach.
+     * @return The number of moves, or -1 if there is no route.
+     */
+    public int distance(Space from, Space to) {
+        int[] path = findPath(from, to);
+        return path != null ? path.length - 1 : -1;
+    }
+
+    /**
+     * Gets the number of routes currently cached, including cached answers that there is no route.
+     *
+     * @return The number of cached routes.
+     */
+    public synchronized int getCachedPathCount() {
+        Frozen view = frozenView();
+        return view != null ? view.paths.size() : paths.size();
+    }
+
+    /**
+     * Publishes a copy of the routes cached so far that queries then read, search and add to
+     * without locking, until the topology or the heuristic changes. Routes found since the last
+     * freeze are kept.
+     */
+    public synchronized void freeze() {
+        SpaceGraph current = currentGraph();
+        Frozen old = frozen;
+        if (old != null && old.graph == current && old.heuristic == heuristic) {
+            for (Map.Entry<PathKey, int[]> entry : old.paths.entrySet()) {
+                paths.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        frozen = new Frozen(current, heuristic, new ConcurrentHashMap<>(paths));
+    }
+
+    private Frozen frozenView() {
+        Frozen view = frozen;
+        return view != null && view.graph == world.getGraph() ? view : null;
+    }
+
+    private int[] findPathLocked(Space from, Space to) {
+        SpaceGraph current = currentGraph();
+        int fromId = current.idOf(from);
+        int toId = current.idOf(to);
+        if (fromId < 0 || toId < 0) {
+            return null;
+        }
+        PathKey key = new PathKey(fromId, toId, current.getVersion());
+        int[] path = paths.get(key);
+        if (path == null) {
+            path = searchFor(current).find(current, fromId, toId, heuristic);
+            paths.put(key, path != null ? path : NO_PATH);
+        }
+        return path == NO_PATH ? null : path;
+    }
+
+    private static Space step(SpaceGraph g, int[] path) {
+        return path != null && path.length > 1 ? g.getSpace(path[1]) : null;
+    }
+
+    private SpaceGraph currentGraph() {
+        SpaceGraph latest = world.getGraph();
+        if (latest != graph) {
+            // Entries for the old version can never be hit again
+            paths.clear();
+            graph = latest;
+            frozen = null;
+        }
+        return latest;
+    }
+
+    /**
+     * Gets the calling thread's search state, sized for the graph.
+     */
+    private Search searchFor(SpaceGraph g) {
+        Search search = searches.get();
+        if (search == null || search.size != g.size()) {
+            search = new Search(g.size());
+            searches.set(search);
+        }
+        return search;
+    }
+
+    /**
+     * The arrays one thread searches with, reused between searches and reset by bumping the
+     * generation.
+     */
+    private static final class Search {
+        private final int size;
+        private Heuristic heuristic;
+        private int generation;
+        private final int[] forwardSeen;
+        private final int[] backwardSeen;
+        private final int[] forwardParent;
+        private final int[] backwardParent;
+        private final int[] forwardQueue;
+        private final int[] backwardQueue;
+        private final int[] cost;
+        private long[] heap;
+
+        private Search(int size) {
+            this.size = size;
+            forwardSeen = new int[size];
+            backwardSeen = new int[size];
+            forwardParent = new int[size];
+            backwardParent = new int[size];
+            forwardQueue = new int[size];
+            backwardQueue = new int[size];
+            cost = new int[size];
+            heap = new long[Math.max(16, size)];
+        }
+
+        private int[] find(SpaceGraph g, int from, int to, Heuristic heuristic) {
+            this.heuristic = heuristic;
+            return heuristic != null ? searchAStar(g, from, to) : searchBidirectional(g, from, to);
+        }
+
+        private int nextGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(forwardSeen, 0);
+                Arrays.fill(backwardSeen, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+
+        /**
+         * Grows one search from the source and one from the target over the reverse graph, a whole
+         * level at a time and always on the side with the smaller frontier, until they meet.
+         */
+        private int[] searchBidirectional(SpaceGraph g, int from, int to) {
+            if (from == to) {
+                return new int[]{from};
+            }
+            SpaceGraph reverse = g.reverse();
+            int gen = nextGeneration();
+            forwardSeen[from] = gen;
+            forwardParent[from] = -1;
+            backwardSeen[to] = gen;
+            backwardParent[to] = -1;
+            int forwardHead = 0;
+            int forwardTail = 0;
+            int backwardHead = 0;
+            int backwardTail = 0;
+            forwardQueue[forwardTail++] = from;
+            backwardQueue[backwardTail++] = to;
+            int forwardDepth = 0;
+            int backwardDepth = 0;
+            int[] depth = cost; // depth of each space from the side that reached it
+
+            depth[from] = 0;
+            depth[to] = 0;
+            while (forwardHead < forwardTail && backwardHead < backwardTail) {
+                int meeting = -1;
+                int best = Integer.MAX_VALUE;
+                if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                    int levelEnd = forwardTail;
+                    forwardDepth++;
+                    for (; forwardHead < levelEnd; forwardHead++) {
+                        int space = forwardQueue[forwardHead];
+                        for (int e = g.edgeStart(space), end = g.edgeEnd(space); e < end; e++) {
+                            int neighbor = g.edgeTarget(e);
+                            if (forwardSeen[neighbor] == gen) {
+                                continue;
+                            }
+                            forwardSeen[neighbor] = gen;
+                            forwardParent[neighbor] = space;
+                            if (backwardSeen[neighbor] == gen) {
+                                int length = forwardDepth + depth[neighbor];
+                                if (length < best) {
+                                    best = length;
+                                    meeting = neighbor;
+                                }
+                            } else {
+                                depth[neighbor] = forwardDepth;
+                            }
+                            forwardQueue[forwardTail++] = neighbor;
+                        }
+                    }
+                } else {
+                    int levelEnd = backwardTail;
+                    backwardDepth++;
+                    for (; backwardHead < levelEnd; backwardHead++) {
+                        int space = backwardQueue[backwardHead];
+                        for (int e = reverse.edgeStart(space), end = reverse.edgeEnd(space); e < end; e++) {
+                            int neighbor = reverse.edgeTarget(e);
+                            if (backwardSeen[neighbor] == gen) {
+                                continue;
+                            }
+                            backwardSeen[neighbor] = gen;
+                            backwardParent[neighbor] = space;
+                            if (forwardSeen[neighbor] == gen) {
+                                int length = backwardDepth + depth[neighbor];
+                                if (length < best) {
+                                    best = length;
+                                    meeting = neighbor;
+                                }
+                            } else {
+                                depth[neighbor] = backwardDepth;
+                            }
+                            backwardQueue[backwardTail++] = neighbor;
+                        }
+                    }
+                }
+                if (meeting >= 0) {
+                    return joinPath(meeting);
+                }
+            }
+            return null;
+        }
+
+        private int[] joinPath(int meeting) {
+            int forwardLength = 0;
+            for (int space = meeting; space >= 0; space = forwardParent[space]) {
+                forwardLength++;
+            }
+            int backwardLength = 0;
+            for (int space = backwardParent[meeting]; space >= 0; space = backwardParent[space]) {
+                backwardLength++;
+            }
+            int[] path = new int[forwardLength + backwardLength];
+            int index = forwardLength - 1;
+            for (int space = meeting; space >= 0; space = forwardParent[space]) {
+                path[index--] = space;
+            }
+            index = forwardLength;
+            for (int space = backwardParent[meeting]; space >= 0; space = backwardParent[space]) {
+                path[index++] = space;
+            }
+            return path;
+        }
+
+        /**
+         * Runs A* from the source, ordering the open spaces by moves so far plus the heuristic's
+         * estimate of the moves left. Heap entries pack the priority and the space id into a long.
+         */
+        private int[] searchAStar(SpaceGraph g, int from, int to) {
+            if (from == to) {
+                return new int[]{from};
+            }
+            Space goal = g.getSpace(to);
+            int gen = nextGeneration();
+            forwardSeen[from] = gen;
+            forwardParent[from] = -1;
+            cost[from] = 0;
+            int size = 0;
+            size = push(size, estimate(g, from, goal), from);
+            while (size > 0) {
+                long top = heap[0];
+                size = pop(size);
+                int space = (int) top;
+                int priority = (int) (top >>> 32);
+                if (priority > cost[space] + estimate(g, space, goal)) {
+                    continue; // A cheaper way to this space was found after the entry was pushed
+                }
+                if (space == to) {
+                    int length = cost[to];
+                    int[] path = new int[length + 1];
+                    for (int s = to, i = length; s >= 0; s = forwardParent[s], i--) {
+                        path[i] = s;
+                    }
+                    return path;
+                }
+                int next = cost[space] + 1;
+                for (int e = g.edgeStart(space), end = g.edgeEnd(space); e < end; e++) {
+                    int neighbor = g.edgeTarget(e);
+                    if (forwardSeen[neighbor] != gen || next < cost[neighbor]) {
+                        forwardSeen[neighbor] = gen;
+                        forwardParent[neighbor] = space;
+                        cost[neighbor] = next;
+                        size = push(size, next + estimate(g, neighbor, goal), neighbor);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private int estimate(SpaceGraph g, int space, Space goal) {
+            return Math.max(0, heuristic.estimate(g.getSpace(space), goal));
+        }
+
+        private int push(int size, int priority, int space) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            long entry = ((long) priority << 32) | space;
+            int i = size;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= entry) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = entry;
+            return size + 1;
+        }
+
+        private int pop(int size) {
+            long last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return size;
+        }
+    }
+
+    /**
+     * A cache of routes for one graph that queries use without locking.
+     */
+    private final class Frozen {
+        private final SpaceGraph graph;
+        private final Heuristic heuristic;
+        private final Map<PathKey, int[]> paths;
+
+        private Frozen(SpaceGraph graph, Heuristic heuristic, Map<PathKey, int[]> paths) {
+            this.graph = graph;
+            this.heuristic = heuristic;
+            this.paths = paths;
+        }
+
+        /**
+         * Finds a route like {@link PathFinder#findPath(Space, Space)}, or returns FULL if the
+         * route is not cached here and the cache is full.
+         */
+        private int[] find(Space from, Space to) {
+            int fromId = graph.idOf(from);
+            int toId = graph.idOf(to);
+            if (fromId < 0 || toId < 0) {
+                return null;
+            }
+            PathKey key = new PathKey(fromId, toId, graph.getVersion());
+            int[] path = paths.get(key);
+            if (path == null) {
+                if (paths.size() >= maxPaths) {
+                    return FULL;
+                }
+                path = searchFor(graph).find(graph, fromId, toId, heuristic);
+                int[] found = paths.putIfAbsent(key, path != null ? path : NO_PATH);
+                path = found != null ? found : path;
+            }
+            return path == NO_PATH ? null : path;
+        }
+    }
+
+    /**
+     * Cache key for the route between two spaces in one version of the topology.
+     */
+    private static final class PathKey {
+        private final int from;
+        private final int to;
+        private final long version;
+
+        PathKey(int from, int to, long version) {
+            this.from = from;
+            this.to = to;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PathKey)) {
+                return false;
+            }
+            PathKey other = (PathKey) o;
+            return from == other.from && to == other.to && version == other.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * from + to) * 31 + Long.hashCode(version);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package strategy;
+
+import world.Space;
+import world.SpaceGraph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * PatrolRoute is a depth-first walk of a space graph compiled into a cycle of space ids. The walk
+ * starts at one space, always moves on to the first neighbor it has not visited yet, goes back along
+ * its path when there is none, and starts over once it is back at the start. Because the walk only
+ * depends on the graph, it can be compiled once per topology version, after which every move is an
+ * index increment and the position any number of moves ahead is a single lookup.
+ */
+public final class PatrolRoute {
+    private final SpaceGraph graph;
+    private final int[] route;
+    private final BitSet backtracks;
+
+    private PatrolRoute(SpaceGraph graph, int[] route, BitSet backtracks) {
+        this.graph = graph;
+        this.route = route;
+        this.backtracks = backtracks;
+    }
+
+    /**
+     * Compiles the depth-first walk that starts at a space.
+     *
+     * @param graph The graph to walk.
+     * @param start The id of the space to start at.
+     * @return The compiled route.
+     */
+    public static PatrolRoute compile(SpaceGraph graph, int start) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        if (start < 0 || start >= graph.size()) {
+            throw new IllegalArgumentException("Start space is not part of the graph.");
+        }
+        BitSet visited = new BitSet(graph.size());
+        BitSet backtracks = new BitSet();
+        int[] stack = new int[16];
+        int depth = 0;
+        int[] route = new int[16];
+        int length = 0;
+
+        visited.set(start);
+        stack[depth++] = start;
+        route[length++] = start;
+        while (true) {
+            int next = -1;
+            int top = stack[depth - 1];
+            for (int e = graph.edgeStart(top), end = graph.edgeEnd(top); e < end; e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (!visited.get(neighbor)) {
+                    next = neighbor;
+                    break;
+                }
+            }
+            if (next >= 0) {
+                visited.set(next);
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = next;
+            } else {
+                depth--;
+                if (depth == 0) {
+                    break;
+                }
+                next = stack[depth - 1];
+                backtracks.set(length);
+            }
+            if (length == route.length) {
+                route = Arrays.copyOf(route, length * 2);
+            }
+            route[length++] = next;
+        }
+
+        // The walk ends back at the start, where it begins again
+        if (length > 1) {
+            length--;
+            backtracks.clear(length);
+            backtracks.set(0);
+        }
+        return new PatrolRoute(graph, Arrays.copyOf(route, length), backtracks);
+    }
+
+    /**
+     * Gets the graph the route was compiled for.
+     *
+     * @return The graph.
+     */
+    public SpaceGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the number of moves it takes to walk the route once and be back at the start.
+     *
+     * @return The length of the cycle, which is 1 if the start has nowhere to go.
+     */
+    public int length() {
+        return route.length;
+    }
+
+    /**
+     * Gets the id of the space reached after a number of moves from the start.
+     *
+     * @param step The number of moves, which may be larger than the route.
+     * @return The space id.
+     */
+    public int spaceIdAt(long step) {
+        return route[index(step)];
+    }
+
+    /**
+     * Gets the space reached after a number of moves from the start.
+     *
+     * @param step The number of moves, which may be larger than the route.
+     * @return The space.
+     */
+    public Space spaceAt(long step) {
+        return graph.getSpace(spaceIdAt(step));
+    }
+
+    /**
+     * Checks if the move that reaches a step goes back along the walk rather than deeper into it.
+     *
+     * @param step The number of moves from the start.
+     * @return True if the move is a backtrack.
+     */
+    public boolean isBacktrack(long step) {
+        return backtracks.get(index(step));
+    }
+
+    private int index(long step) {
+        if (step < 0) {
+            throw new IllegalArgumentException("Step cannot be negative.");
+        }
+        return (int) (step % route.length);
+    }
+}
@@ -0,0 +1,65 @@
+package strategy;
+
+import command.Command;
+import world.GameEvent;
+import world.GameEventSink;
+import world.Player;
+import world.Space;
+
+/**
+ * PlannedMove is a move worked out by a strategy ahead of time, together with the event that
+ * reports it. Nothing happens to the world until the move is executed.
+ */
+class PlannedMove implements Command {
+    private final Player player;
+    private final Space destination;
+    private final GameEvent event;
+
+    /**
+     * Initializes the PlannedMove.
+     *
+     * @param player      The player to move.
+     * @param destination The space to move to, or null to stay put.
+     * @param event       The event published when the move is executed, or null for none.
+     */
+    PlannedMove(Player player, Space destination, GameEvent event) {
+        this.player = player;
+        this.destination = destination;
+        this.event = event;
+    }
+
+    /**
+     * Moves the player, if the plan has a destination, and publishes the event.
+     */
+    @Override
+    public void execute() {
+        if (destination != null) {
+            player.move(destination);
+        }
+        if (event != null) {
+            GameEventSink events = GameEventSink.of(player.getCurrentSpace());
+            if (events.isEnabled()) {
+                events.publish(event);
+            }
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return destination != null ? "Move to " + destination.getName() : "Stay in place";
+    }
+
+    /**
+     * Checks that the move is still possible, i.e. the destination is still next to the player.
+     *
+     * @return True if the move can be executed.
+     */
+    @Override
+    public boolean isValid() {
+        if (destination == null) {
+            return true;
+        }
+        Space current = player.getCurrentSpace();
+        return current != null && current.hasNeighbor(destination);
+    }
+}
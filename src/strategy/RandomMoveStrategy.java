@@ -1,6 +1,8 @@
 package strategy;
 
 import world.AIPlayer;
+import world.GameEvent;
+import world.GameEventSink;
 import world.Pet;
 import world.Player;
 import world.Space;
@@ -13,13 +15,34 @@ import java.util.Random;
  * RandomMoveStrategy implements a strategy where the target character moves to a random neighboring space.
  */
 public class RandomMoveStrategy implements TargetStrategy, AIStrategy, MoveStrategy {
-    private Random random;
+    private RandomSource random;
 
     /**
-     * Initializes the RandomMoveStrategy with a random number generator.
+     * Initializes the RandomMoveStrategy with an unseeded random source.
      */
     public RandomMoveStrategy() {
-        this.random = new Random();
+        this.random = RandomSource.create();
+    }
+
+    /**
+     * Initializes the RandomMoveStrategy with a given random number generator.
+     *
+     * @param random The random number generator to use.
+     */
+    public RandomMoveStrategy(Random random) {
+        this.random = RandomSource.of(random);
+    }
+
+    /**
+     * Initializes the RandomMoveStrategy with a given random source.
+     *
+     * @param random The random source to use, typically split from the game's source.
+     */
+    public RandomMoveStrategy(RandomSource random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null.");
+        }
+        this.random = random;
     }
 
     /**
@@ -32,15 +55,20 @@ public class RandomMoveStrategy implements TargetStrategy, AIStrategy, MoveStrat
     public void moveTarget(Player target, World world) {
         Space currentSpace = target.getCurrentSpace();
         List<Space> neighbors = currentSpace.getNeighbors();
+        GameEventSink events = GameEventSink.of(world);
 
         if (neighbors.isEmpty()) {
-            System.out.println(target.getName() + " has no neighboring spaces to move to.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.NO_NEIGHBORS, target.getName(), null, currentSpace.getName(), 0));
+            }
             return;
         }
 
         Space nextSpace = neighbors.get(random.nextInt(neighbors.size()));
         target.move(nextSpace);
-        System.out.println(target.getName() + " moved to " + nextSpace.getName() + " randomly.");
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.MOVED_RANDOMLY, target.getName(), null, nextSpace.getName(), 0));
+        }
     }
 
     @Override
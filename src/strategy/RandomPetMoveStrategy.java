@@ -1,5 +1,7 @@
 package strategy;
 
+import world.GameEvent;
+import world.GameEventSink;
 import world.Pet;
 import world.Player;
 import world.Space;
@@ -12,13 +14,34 @@ import java.util.Random;
  * RandomPetMoveStrategy implements a strategy where the pet moves to a random neighboring space.
  */
 public class RandomPetMoveStrategy implements MoveStrategy {
-    private Random random;
+    private RandomSource random;
 
     /**
-     * Initializes the RandomPetMoveStrategy with a random number generator.
+     * Initializes the RandomPetMoveStrategy with an unseeded random source.
      */
     public RandomPetMoveStrategy() {
-        this.random = new Random();
+        this.random = RandomSource.create();
+    }
+
+    /**
+     * Initializes the RandomPetMoveStrategy with a given random number generator.
+     *
+     * @param random The random number generator to use.
+     */
+    public RandomPetMoveStrategy(Random random) {
+        this.random = RandomSource.of(random);
+    }
+
+    /**
+     * Initializes the RandomPetMoveStrategy with a given random source.
+     *
+     * @param random The random source to use, typically split from the game's source.
+     */
+    public RandomPetMoveStrategy(RandomSource random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null.");
+        }
+        this.random = random;
     }
 
     /**
@@ -31,15 +54,20 @@ public class RandomPetMoveStrategy implements MoveStrategy {
     public void movePet(Pet pet, World world) {
         Space currentSpace = pet.getCurrentSpace();
         List<Space> neighbors = currentSpace.getNeighbors();
+        GameEventSink events = GameEventSink.of(world);
 
         if (neighbors.isEmpty()) {
-            System.out.println(pet.toString() + " has no neighboring spaces to move to.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.PET_NO_NEIGHBORS, pet.getName(), null, currentSpace.getName(), 0));
+            }
             return;
         }
 
         Space nextSpace = neighbors.get(random.nextInt(neighbors.size()));
         pet.moveTo(nextSpace);
-        System.out.println(pet.toString() + " moved to " + nextSpace.getName() + " randomly.");
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.PET_MOVED_RANDOMLY, pet.getName(), null, nextSpace.getName(), 0));
+        }
     }
 
     @Override
@@ -0,0 +1,74 @@
+package strategy;
+
+import java.util.Random;
+
+/**
+ * RandomSource supplies the random numbers used by strategies.
+ *
+ * <p>Sources form a tree: {@link #split()} hands out a new, independent source, so every strategy
+ * of a game can own its generator. Strategies then never share a generator between threads, and a
+ * game seeded with the same value always makes the same choices.
+ */
+public interface RandomSource {
+    /**
+     * Gets a random int between 0 (inclusive) and the bound (exclusive).
+     *
+     * @param bound The upper bound, which must be positive.
+     * @return The random value.
+     */
+    int nextInt(int bound);
+
+    /**
+     * Gets a random long.
+     *
+     * @return The random value.
+     */
+    long nextLong();
+
+    /**
+     * Gets a random boolean.
+     *
+     * @return The random value.
+     */
+    boolean nextBoolean();
+
+    /**
+     * Creates a new source whose values are independent of this one. Splitting advances this
+     * source, so the same sequence of splits always gives the same children.
+     *
+     * @return The new source.
+     */
+    RandomSource split();
+
+    /**
+     * Creates a source seeded with the given value.
+     *
+     * @param seed The seed.
+     * @return The new source.
+     */
+    static RandomSource of(long seed) {
+        return new SplittableRandomSource(seed);
+    }
+
+    /**
+     * Creates a source that draws from an existing {@link Random}.
+     *
+     * @param random The generator to draw from.
+     * @return The new source.
+     */
+    static RandomSource of(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random cannot be null.");
+        }
+        return new JdkRandomSource(random);
+    }
+
+    /**
+     * Creates an unseeded source.
+     *
+     * @return The new source.
+     */
+    static RandomSource create() {
+        return new SplittableRandomSource();
+    }
+}
@@ -0,0 +1,451 @@
+package strategy;
+
+import world.AIPlayer;
+import world.DistanceOracle;
+import world.Item;
+import world.Pet;
+import world.Player;
+import world.SpaceGraph;
+import world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * RolloutModel is a compact, read-only copy of the parts of a world that matter to one AI player's
+ * next few turns, used to play out games quickly without touching the world. It holds the player's
+ * space and weapons, the items lying in each space, where everyone else stands, and how the target
+ * character and the pets move.
+ *
+ * <p>The target's and the pets' strategies are modelled rather than called, since the real
+ * strategies share random sources and walk state with the running game: depth-first walkers follow
+ * their compiled {@link PatrolRoute} exactly, chasers step towards the nearest player, and anything
+ * else takes random steps. Other players are assumed to stay where they are. A model may be played
+ * out from many threads at once.
+ *
+ * <p>Moves towards a space are ranked with the world's shared {@link DistanceOracle}. Each row the
+ * model asks for is kept for the model's lifetime, so a decision searches each row at most once.
+ */
+final class RolloutModel {
+    /** Action that picks up the best item in the player's space. */
+    static final int PICK_UP = -1;
+    /** Action that attacks the target with the player's best weapon. */
+    static final int ATTACK = -2;
+
+    private static final double DISCOUNT = 0.95;
+    private static final int STAY = 0;
+    private static final int RANDOM = 1;
+    private static final int ROUTE = 2;
+    private static final int CHASE = 3;
+
+    private final SpaceGraph graph;
+    private final DistanceOracle oracle;
+    private final AtomicReferenceArray<int[]> towards; // distances to space i from every space, filled on first use
+    private final int size;
+    private final int horizon;
+
+    private final int start;
+    private final int[] weapons; // damage of each carried item, best first
+    private final int capacity;
+    private final int[] floorStart; // items lying in space i are floorDamage[floorStart[i]..floorStart[i + 1]]
+    private final int[] floorDamage; // best first within each space
+    private final boolean[] occupied; // another player is in the space
+    private final boolean[] watched; // another player is in a space leading into it
+    private final int[] others; // spaces of the other players
+
+    private final int targetStart;
+    private final int targetHealth;
+    private final int targetMode;
+    private final int[] targetRoute; // position after each round, for ROUTE
+
+    private final int[] petStart;
+    private final int[] petMode;
+    private final int[][] petRoutes;
+
+    private RolloutModel(SpaceGraph graph, DistanceOracle oracle, int horizon, int start, int[] weapons, int capacity,
+            int[] floorStart, int[] floorDamage, boolean[] occupied, boolean[] watched, int[] others,
+            int targetStart, int targetHealth, int targetMode, int[] targetRoute,
+            int[] petStart, int[] petMode, int[][] petRoutes) {
+        this.graph = graph;
+        this.oracle = oracle;
+        this.size = graph.size();
+        this.towards = new AtomicReferenceArray<>(size);
+        this.horizon = horizon;
+        this.start = start;
+        this.weapons = weapons;
+        this.capacity = capacity;
+        this.floorStart = floorStart;
+        this.floorDamage = floorDamage;
+        this.occupied = occupied;
+        this.watched = watched;
+        this.others = others;
+        this.targetStart = targetStart;
+        this.targetHealth = targetHealth;
+        this.targetMode = targetMode;
+        this.targetRoute = targetRoute;
+        this.petStart = petStart;
+        this.petMode = petMode;
+        this.petRoutes = petRoutes;
+    }
+
+    /**
+     * Captures the model for a player's next turns.
+     *
+     * @param player    The AI player to plan for.
+     * @param world     The world the player is in.
+     * @param horizon   The number of rounds to play out.
+     * @return The model, or null if the player or a living target is not in the world's graph.
+     */
+    static RolloutModel capture(AIPlayer player, World world, int horizon) {
+        SpaceGraph graph = world.getGraph();
+        int start = graph.idOf(player.getCurrentSpace());
+        Player target = world.getTarget();
+        if (start < 0 || target == null || target == player || target.getHealth() <= 0) {
+            return null;
+        }
+        int targetStart = graph.idOf(target.getCurrentSpace());
+        if (targetStart < 0) {
+            return null;
+        }
+        int size = graph.size();
+
+        List<Item> carried = player.getInventory().getItems();
+        int[] weapons = new int[carried.size()];
+        for (int i = 0; i < weapons.length; i++) {
+            weapons[i] = carried.get(i).getDamage();
+        }
+        sortDescending(weapons, 0, weapons.length);
+
+        int[] floorStart = new int[size + 1];
+        List<Integer> damages = new ArrayList<>();
+        for (int id = 0; id < size; id++) {
+            floorStart[id] = damages.size();
+            for (Item item : graph.getSpace(id).getItems()) {
+                damages.add(item.getDamage());
+            }
+        }
+        floorStart[size] = damages.size();
+        int[] floorDamage = new int[damages.size()];
+        for (int i = 0; i < floorDamage.length; i++) {
+            floorDamage[i] = damages.get(i);
+        }
+        for (int id = 0; id < size; id++) {
+            sortDescending(floorDamage, floorStart[id], floorStart[id + 1]);
+        }
+
+        boolean[] occupied = new boolean[size];
+        boolean[] watched = new boolean[size];
+        int[] others = new int[world.getPlayerCount()];
+        int otherCount = 0;
+        for (Player other : world.getPlayers()) {
+            int id = other == player || other == target ? -1 : graph.idOf(other.getCurrentSpace());
+            if (id < 0) {
+                continue;
+            }
+            occupied[id] = true;
+            others[otherCount++] = id;
+            for (int e = graph.edgeStart(id), end = graph.edgeEnd(id); e < end; e++) {
+                watched[graph.edgeTarget(e)] = true;
+            }
+        }
+
+        TargetStrategy targetStrategy = world.getStrategy();
+        int targetMode = RANDOM;
+        int[] targetRoute = null;
+        if (targetStrategy instanceof DepthFirstMoveStrategy) {
+            targetMode = ROUTE;
+            targetRoute = new int[horizon];
+            for (int round = 0; round < horizon; round++) {
+                targetRoute[round] = graph.idOf(((DepthFirstMoveStrategy) targetStrategy).positionAfter(target, world, round + 1));
+            }
+        } else if (targetStrategy instanceof ChasePlayerStrategy) {
+            targetMode = CHASE;
+        } else if (targetStrategy == null) {
+            targetMode = STAY;
+        }
+
+        List<Pet> pets = world.getPets();
+        int[] petStart = new int[pets.size()];
+        int[] petMode = new int[pets.size()];
+        int[][] petRoutes = new int[pets.size()][];
+        for (int i = 0; i < pets.size(); i++) {
+            Pet pet = pets.get(i);
+            petStart[i] = graph.idOf(pet.getCurrentSpace());
+            MoveStrategy petStrategy = pet.getStrategy();
+            if (petStart[i] < 0 || petStrategy == null) {
+                petMode[i] = STAY;
+            } else if (petStrategy instanceof DepthFirstMoveStrategy) {
+                petMode[i] = ROUTE;
+                petRoutes[i] = new int[horizon];
+                for (int round = 0; round < horizon; round++) {
+                    petRoutes[i][round] = graph.idOf(((DepthFirstMoveStrategy) petStrategy).positionAfter(pet, world, round + 1));
+                }
+            } else {
+                petMode[i] = RANDOM;
+            }
+        }
+
+        return new RolloutModel(graph, world.getDistanceOracle(), horizon, start, weapons, player.getInventory().getCapacity(),
+                floorStart, floorDamage, occupied, watched, Arrays.copyOf(others, otherCount),
+                targetStart, target.getHealth(), targetMode, targetRoute, petStart, petMode, petRoutes);
+    }
+
+    /**
+     * Gets the graph the model was captured from.
+     *
+     * @return The graph.
+     */
+    SpaceGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the space the player starts in.
+     *
+     * @return The space id.
+     */
+    int getStart() {
+        return start;
+    }
+
+    /**
+     * Lists the actions open to the player after a sequence of its own actions. Moves and pick-ups
+     * only depend on the player's own actions, so the list is the same in every play-out.
+     *
+     * @param path   The actions taken so far.
+     * @param length The number of actions in {@code path}.
+     * @return The actions: space ids to move to, {@link #PICK_UP} and {@link #ATTACK}.
+     */
+    int[] actionsAfter(int[] path, int length) {
+        int space = start;
+        for (int i = 0; i < length; i++) {
+            if (path[i] >= 0) {
+                space = path[i];
+            }
+        }
+        int picked = 0;
+        for (int i = 0, at = start; i < length; i++) {
+            if (path[i] >= 0) {
+                at = path[i];
+            } else if (path[i] == PICK_UP && at == space) {
+                picked++;
+            }
+        }
+        int degree = graph.degree(space);
+        boolean canPick = floorStart[space + 1] - floorStart[space] > picked;
+        int[] actions = new int[degree + (canPick ? 2 : 1)];
+        int count = 0;
+        actions[count++] = ATTACK;
+        if (canPick) {
+            actions[count++] = PICK_UP;
+        }
+        for (int e = graph.edgeStart(space), end = graph.edgeEnd(space); e < end; e++) {
+            actions[count++] = graph.edgeTarget(e);
+        }
+        return actions;
+    }
+
+    /**
+     * Plays out the player's next rounds: first the given actions, then actions from a quick
+     * policy, with the target and the pets moving after each of the player's turns.
+     *
+     * @param path   The actions to start with.
+     * @param length The number of actions in {@code path}.
+     * @param random The random source of this play-out.
+     * @return The damage done to the target, discounted by how long it took, as a fraction of the
+     *         target's health: 0 for none and close to 1 for a quick kill.
+     */
+    double playOut(int[] path, int length, RandomSource random) {
+        int me = start;
+        // At most one item is picked up per round, however large the inventory
+        int[] carried = Arrays.copyOf(weapons, Math.max(weapons.length, Math.min(capacity, weapons.length + horizon)));
+        int carriedCount = weapons.length;
+        int[] takenSpace = new int[horizon]; // items picked up so far, as (space, count) pairs
+        int[] takenCount = new int[horizon];
+        int takenPairs = 0;
+        int target = targetStart;
+        int health = targetHealth;
+        int[] pets = petStart.clone();
+        double reward = 0;
+        double weight = 1;
+
+        for (int round = 0; round < horizon && health > 0; round++, weight *= DISCOUNT) {
+            int taken = 0;
+            int pair = -1;
+            for (int i = 0; i < takenPairs; i++) {
+                if (takenSpace[i] == me) {
+                    pair = i;
+                    taken = takenCount[i];
+                }
+            }
+            int lying = floorStart[me + 1] - floorStart[me] - taken;
+
+            int action = round < length ? path[round] : policy(me, target, pets, lying, carriedCount, random);
+            if (action >= 0) {
+                me = action;
+            } else if (action == PICK_UP) {
+                if (lying > 0 && carriedCount < capacity) {
+                    insertDescending(carried, carriedCount++, floorDamage[floorStart[me] + taken]);
+                    if (pair < 0) {
+                        pair = takenPairs++;
+                        takenSpace[pair] = me;
+                    }
+                    takenCount[pair]++;
+                }
+            } else if (target == me && !witnessed(me, pets)) {
+                int damage = carriedCount > 0 ? carried[0] : 1;
+                if (carriedCount > 0) {
+                    System.arraycopy(carried, 1, carried, 0, --carriedCount);
+                }
+                reward += weight * Math.min(damage, health);
+                health -= damage;
+            }
+
+            if (health > 0) {
+                target = moveTarget(target, me, round, random);
+                for (int i = 0; i < pets.length; i++) {
+                    pets[i] = movePet(i, pets[i], round, random);
+                }
+            }
+        }
+        return reward / targetHealth;
+    }
+
+    /**
+     * Picks the player's action in a play-out: attack when it would land, otherwise mostly grab a
+     * weapon or close in on the target, with some random moves mixed in.
+     */
+    private int policy(int me, int target, int[] pets, int lying, int carriedCount, RandomSource random) {
+        if (target == me && !witnessed(me, pets) && random.nextInt(10) != 0) {
+            return ATTACK;
+        }
+        if (lying > 0 && carriedCount < capacity && (carriedCount == 0 || random.nextBoolean())) {
+            return PICK_UP;
+        }
+        int degree = graph.degree(me);
+        if (degree == 0) {
+            return ATTACK;
+        }
+        if (random.nextInt(10) < 7) {
+            int[] toTarget = distancesTo(target);
+            int best = -1;
+            int bestDistance = DistanceOracle.UNREACHABLE;
+            for (int e = graph.edgeStart(me), end = graph.edgeEnd(me); e < end; e++) {
+                int neighbor = graph.edgeTarget(e);
+                int distance = toTarget[neighbor];
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = neighbor;
+                }
+            }
+            if (best >= 0) {
+                return best;
+            }
+        }
+        return graph.edgeTarget(graph.edgeStart(me) + random.nextInt(degree));
+    }
+
+    private boolean witnessed(int space, int[] pets) {
+        if (occupied[space]) {
+            return true;
+        }
+        if (!watched[space]) {
+            return false;
+        }
+        for (int pet : pets) {
+            if (pet == space) {
+                return false; // The pet hides the space from its neighbors
+            }
+        }
+        return true;
+    }
+
+    private int moveTarget(int target, int me, int round, RandomSource random) {
+        switch (targetMode) {
+            case ROUTE:
+                return targetRoute[round] >= 0 ? targetRoute[round] : target;
+            case CHASE:
+                return chaseStep(target, me);
+            case RANDOM:
+                return randomStep(target, random);
+            default:
+                return target;
+        }
+    }
+
+    private int movePet(int pet, int space, int round, RandomSource random) {
+        switch (petMode[pet]) {
+            case ROUTE:
+                return petRoutes[pet][round] >= 0 ? petRoutes[pet][round] : space;
+            case RANDOM:
+                return randomStep(space, random);
+            default:
+                return space;
+        }
+    }
+
+    /**
+     * Steps towards the nearest player, or stays if one is already in the space.
+     */
+    private int chaseStep(int from, int me) {
+        if (from == me || occupied[from]) {
+            return from;
+        }
+        int[] toMe = distancesTo(me);
+        int best = from;
+        int bestDistance = DistanceOracle.UNREACHABLE;
+        for (int e = graph.edgeStart(from), end = graph.edgeEnd(from); e < end; e++) {
+            int neighbor = graph.edgeTarget(e);
+            int distance = toMe[neighbor];
+            for (int other : others) {
+                distance = Math.min(distance, distancesTo(other)[neighbor]);
+            }
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = neighbor;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the number of moves from every space to a space, from the shared oracle the first time.
+     */
+    private int[] distancesTo(int space) {
+        int[] row = towards.get(space);
+        if (row == null) {
+            row = oracle.distancesTo(graph.getSpace(space));
+            if (row == null || row.length != size) { // the world's graph changed under the model
+                row = new int[size];
+                Arrays.fill(row, DistanceOracle.UNREACHABLE);
+            }
+            towards.set(space, row);
+        }
+        return row;
+    }
+
+    private int randomStep(int from, RandomSource random) {
+        int degree = graph.degree(from);
+        return degree == 0 ? from : graph.edgeTarget(graph.edgeStart(from) + random.nextInt(degree));
+    }
+
+    private static void insertDescending(int[] values, int count, int value) {
+        int i = count;
+        while (i > 0 && values[i - 1] < value) {
+            values[i] = values[i - 1];
+            i--;
+        }
+        values[i] = value;
+    }
+
+    private static void sortDescending(int[] values, int from, int to) {
+        Arrays.sort(values, from, to);
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package strategy;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomSource backed by a {@link SplittableRandom}.
+ */
+final class SplittableRandomSource implements RandomSource {
+    private final SplittableRandom random;
+
+    SplittableRandomSource() {
+        this(new SplittableRandom());
+    }
+
+    SplittableRandomSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
@@ -1,5 +1,6 @@
 package world;
 
+import command.Command;
 import strategy.AIStrategy;
 import strategy.ChasePlayerStrategy;
 
@@ -12,7 +13,7 @@ import java.util.Map;
 public class AIPlayer implements Player {
     private String name;
     private int health;
-    private Space currentSpace;
+    private volatile Space currentSpace; // written under the stripe locks of the old and new space
     private PlayerInventory inventory;
     private AIStrategy strategy;
     private Map<Player, Boolean> visibilityMap; // Track visibility of other players
@@ -26,10 +27,23 @@ public class AIPlayer implements Player {
      * @param strategy      The strategy used by the AI player.
      */
     public AIPlayer(String name, int health, Space startingSpace, AIStrategy strategy) {
+        this(name, health, startingSpace, strategy, PlayerInventory.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes an AIPlayer with a custom inventory capacity.
+     *
+     * @param name              The name of the AI player.
+     * @param health            The initial health of the AI player.
+     * @param startingSpace     The starting space of the AI player.
+     * @param strategy          The strategy used by the AI player.
+     * @param inventoryCapacity The number of items the AI player can carry.
+     */
+    public AIPlayer(String name, int health, Space startingSpace, AIStrategy strategy, int inventoryCapacity) {
         this.name = name;
         this.health = health;
         this.currentSpace = startingSpace;
-        this.inventory = new PlayerInventory(10); // Assume default inventory capacity is 10
+        this.inventory = new PlayerInventory(inventoryCapacity);
         this.strategy = strategy;
         this.visibilityMap = new HashMap<>(); // Initialize the visibility map
         startingSpace.addPlayer(this); // Ensure player is added to the initial space
@@ -57,12 +71,18 @@ public class AIPlayer implements Player {
      */
     @Override
     public void setCurrentSpace(Space space) {
-        if (currentSpace != null) {
-            currentSpace.removePlayer(this); // Remove from old space
-        }
-        currentSpace = space;
-        if (currentSpace != null) {
-            currentSpace.addPlayer(this); // Add to the new space
+        while (true) {
+            Space previousSpace = currentSpace;
+            SpaceLocks.lock(previousSpace, space);
+            try {
+                if (currentSpace == previousSpace) { // otherwise another thread moved us first; retry
+                    currentSpace = space;
+                    World.relocatePlayer(this, previousSpace, space); // Leave the old space and enter the new one
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(previousSpace, space);
+            }
         }
     }
 
@@ -75,20 +95,39 @@ public class AIPlayer implements Player {
 
     @Override
     public void pickUpItem(Item item) {
-        if (currentSpace.getItems().contains(item)) {
-            inventory.addItem(item);
-            currentSpace.removeItem(item);
+        while (true) {
+            Space space = currentSpace;
+            SpaceLocks.lock(space);
+            try {
+                if (currentSpace == space) { // otherwise another thread moved us first; retry
+                    if (space != null && space.getItems().contains(item) && (inventory.contains(item) || inventory.addItem(item))) {
+                        space.detachItem(item);
+                        World world = space.getWorld();
+                        if (world != null) {
+                            world.onItemCarried(item, this);
+                        }
+                    }
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(space);
+            }
         }
     }
 
     @Override
     public void attemptAttack(Player target) {
-        System.out.println(name + " attempts to attack " + target.getName() + " using AI strategy.");
+        GameEventSink events = GameEventSink.of(currentSpace);
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.AI_ATTACK_STARTED, name, target.getName()));
+        }
         Item bestItem = inventory.getBestItem();
         if (bestItem != null) {
             bestItem.use(target);
         } else {
-            System.out.println(name + " has no items to use for attack.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.NO_WEAPON, name));
+            }
         }
     }
 
@@ -104,11 +143,19 @@ public class AIPlayer implements Player {
 
     @Override
     public void reduceHealth(int damage) {
+        boolean wasAlive = this.health > 0;
         this.health -= damage;
         if (this.health < 0) {
             this.health = 0; // Ensure health does not go below zero
         }
-        System.out.println(name + " (AI) has " + health + " health remaining.");
+        Space space = currentSpace;
+        if (wasAlive != this.health > 0 && space != null && space.getWorld() != null) {
+            space.getWorld().onPlayerLifeChanged(); // Chasers look for another player
+        }
+        GameEventSink events = GameEventSink.of(currentSpace);
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.HEALTH_CHANGED, name, "AI", null, health));
+        }
     }
 
     @Override
@@ -117,11 +164,40 @@ public class AIPlayer implements Player {
     }
 
     /**
-     * Executes the AI player's strategy.
+     * Gets the strategy the AI player follows.
+     *
+     * @return The strategy.
+     */
+    public AIStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the strategy the AI player follows.
+     *
+     * @param strategy The new strategy.
      */
-    public void executeStrategy() {
-        if (strategy != null) {
-            strategy.decideAction(this, currentSpace.getWorld());
+    public void setStrategy(AIStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Executes the AI player's strategy. Strategies that can plan are asked for a command, which
+     * is executed and returned so the caller can record it; the others decide on their own.
+     *
+     * @return The command that was executed, or null if the strategy acted without one.
+     */
+    public Command executeStrategy() {
+        if (strategy == null) {
+            return null;
+        }
+        World world = currentSpace.getWorld();
+        Command command = strategy.planAction(this, world);
+        if (command == null) {
+            strategy.decideAction(this, world);
+            return null;
         }
+        command.execute();
+        return command;
     }
 }
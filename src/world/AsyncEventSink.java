@@ -0,0 +1,287 @@
+package world;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AsyncEventSink writes events on a background thread, so the game never waits for the console
+ * or the disk.
+ *
+ * <p>Published events go into a fixed-size ring buffer. A single writer thread takes them out in
+ * batches, formats them and writes the text, flushing whenever the buffer runs empty. If the
+ * writer falls behind and the buffer fills up, publishers wait for room instead of dropping
+ * events, so nothing is lost and the order of events is kept. If the writer thread dies,
+ * publishing fails instead of waiting for room that will never come.
+ */
+public class AsyncEventSink implements GameEventSink, Closeable {
+    /**
+     * The number of events the buffer holds unless a size is given.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final GameEvent[] buffer;
+    private final int mask;
+    private final Writer writer;
+    private final boolean closeWriter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final Thread thread;
+    private long head; // next event to write
+    private long tail; // next free slot
+    private long flushed; // events written and flushed
+    private int flushWaiters;
+    private boolean closed;
+    private boolean stopped; // the writer thread has finished, normally or not
+    private IOException failure;
+    private Throwable crash; // what stopped the writer thread early, if anything
+
+    /**
+     * Initializes the AsyncEventSink.
+     *
+     * @param writer      The writer the formatted events are written to.
+     * @param capacity    The number of events the buffer holds, rounded up to a power of two.
+     * @param closeWriter True to close the writer when the sink is closed.
+     */
+    public AsyncEventSink(Writer writer, int capacity, boolean closeWriter) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer cannot be null.");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        int size = Integer.highestOneBit(Math.min(capacity, 1 << 30));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new GameEvent[size];
+        this.mask = size - 1;
+        this.writer = writer;
+        this.closeWriter = closeWriter;
+        this.thread = new Thread(this::drain, "game-event-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Creates a sink that writes events to the console.
+     *
+     * @return The sink.
+     */
+    public static AsyncEventSink console() {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        return new AsyncEventSink(out, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Creates a sink that writes events to a file, replacing anything already in it.
+     *
+     * @param path The file to write to.
+     * @return The sink.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static AsyncEventSink file(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null.");
+        }
+        return new AsyncEventSink(Files.newBufferedWriter(path, StandardCharsets.UTF_8), DEFAULT_CAPACITY, true);
+    }
+
+    /**
+     * Adds an event to the buffer, waiting for room if the buffer is full.
+     *
+     * @param event The event.
+     * @throws IllegalStateException If the sink is closed or its writer thread has died.
+     */
+    @Override
+    public void publish(GameEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null.");
+        }
+        lock.lock();
+        try {
+            checkOpen();
+            while (tail - head == buffer.length) {
+                notFull.awaitUninterruptibly();
+                checkOpen();
+            }
+            buffer[(int) tail & mask] = event;
+            tail++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Event sink is closed.");
+        }
+        if (stopped) {
+            throw new IllegalStateException("Event writer has stopped.", crash);
+        }
+    }
+
+    /**
+     * Waits until every event published so far has been written and flushed.
+     *
+     * @throws IOException If writing failed.
+     */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            long target = tail;
+            flushWaiters++;
+            try {
+                while (flushed < target && failure == null && !stopped) {
+                    drained.awaitUninterruptibly();
+                }
+            } finally {
+                flushWaiters--;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the remaining events, stops the writer thread and, if asked to, closes the writer.
+     * Publishing after this throws an {@link IllegalStateException}.
+     *
+     * @throws IOException If writing or closing failed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (closeWriter) {
+            writer.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Takes batches of events out of the buffer and writes them until the sink is closed and the
+     * buffer is empty. Formatting and writing happen outside the lock, so publishers only wait
+     * when the buffer is full.
+     */
+    private void drain() {
+        try {
+            writeEvents();
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                crash = e;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        } finally {
+            // Wake anyone waiting in flush() or publish(), even if the thread died
+            lock.lock();
+            try {
+                stopped = true;
+                drained.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeEvents() {
+        GameEvent[] batch = new GameEvent[buffer.length];
+        while (true) {
+            int count;
+            long batchEnd;
+            lock.lock();
+            try {
+                while (head == tail && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (head == tail) {
+                    return; // Closed and nothing left
+                }
+                count = (int) (tail - head);
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) (head + i) & mask;
+                    batch[i] = buffer[slot];
+                    buffer[slot] = null;
+                }
+                head += count;
+                batchEnd = head;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            boolean flush = false;
+            try {
+                for (int i = 0; i < count; i++) {
+                    writer.write(batch[i].format());
+                    writer.write(System.lineSeparator());
+                    batch[i] = null;
+                }
+                lock.lock();
+                try {
+                    flush = head == tail || flushWaiters > 0;
+                } finally {
+                    lock.unlock();
+                }
+                if (flush) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (flush && error == null) {
+                    flushed = batchEnd;
+                }
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
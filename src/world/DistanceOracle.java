@@ -0,0 +1,260 @@
+package world;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DistanceOracle answers shortest-path questions between spaces, counted in moves.
+ * Each query runs at most one breadth-first search per source space; the results are kept in a
+ * bounded least-recently-used cache and dropped whenever the world's topology changes.
+ * Queries may come from several threads at once, e.g. while AI players plan their moves. They
+ * normally take the oracle's lock; after {@link #freeze()}, they search and cache without locking
+ * until the topology changes.
+ */
+public class DistanceOracle {
+    /**
+     * Distance reported when one space cannot be reached from the other.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int DEFAULT_CACHED_INTS = 1 << 24; // about 64 MB of distance rows
+    private static final int MIN_CACHED_ROWS = 4;
+    private static final int MAX_CACHED_ROWS = 256;
+    private static final int[] FULL = new int[0]; // not in a frozen cache, and no room to add it
+
+    private final World world;
+    private final int maxRows;
+    private final Map<Long, int[]> rows;
+    private final ThreadLocal<int[]> queues = new ThreadLocal<>();
+    private SpaceGraph graph;
+    private volatile Frozen frozen;
+
+    /**
+     * Initializes a DistanceOracle with a cache size chosen from the size of the world.
+     *
+     * @param world The world whose spaces are measured.
+     */
+    public DistanceOracle(World world) {
+        this(world, 0);
+    }
+
+    /**
+     * Initializes a DistanceOracle that keeps at most the given number of search results.
+     *
+     * @param world   The world whose spaces are measured.
+     * @param maxRows The number of cached searches, or 0 to size the cache from the world.
+     */
+    public DistanceOracle(World world, int maxRows) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null.");
+        }
+        this.world = world;
+        this.maxRows = maxRows;
+        this.rows = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > rowLimit();
+            }
+        };
+    }
+
+    /**
+     * Gets the number of moves needed to get from one space to another.
+     *
+     * @param from The space to start from.
+     * @param to   The space to reach.
+     * @return The number of moves, or {@link #UNREACHABLE}.
+     */
+    public int distance(Space from, Space to) {
+        if (from == null || to == null) {
+            return UNREACHABLE;
+        }
+        if (from == to) {
+            return 0;
+        }
+        Frozen view = frozenView();
+        if (view != null) {
+            int[] distances = view.row(from, false);
+            if (distances != FULL) {
+                int toId = view.graph.idOf(to);
+                return distances != null && toId >= 0 ? distances[toId] : UNREACHABLE;
+            }
+        }
+        synchronized (this) {
+            SpaceGraph current = currentGraph();
+            int toId = current.idOf(to);
+            int[] distances = rowLocked(from, false);
+            return distances != null && toId >= 0 ? distances[toId] : UNREACHABLE;
+        }
+    }
+
+    /**
+     * Gets the number of moves from a space to every space in the graph, indexed by space id.
+     * The returned array is shared with the cache and must not be modified.
+     *
+     * @param from The space to start from.
+     * @return The distances, or null if the space is not part of the world's graph.
+     */
+    public int[] distancesFrom(Space from) {
+        return row(from, false);
+    }
+
+    /**
+     * Gets the number of moves from every space in the graph to a space, indexed by space id.
+     * The returned array is shared with the cache and must not be modified.
+     *
+     * @param to The space to reach.
+     * @return The distances, or null if the space is not part of the world's graph.
+     */
+    public int[] distancesTo(Space to) {
+        return row(to, true);
+    }
+
+    /**
+     * Gets the number of searches currently cached.
+     *
+     * @return The number of cached rows.
+     */
+    public synchronized int getCachedRowCount() {
+        Frozen view = frozenView();
+        return view != null ? view.rows.size() : rows.size();
+    }
+
+    /**
+     * Publishes a copy of the searches cached so far that queries then read, search and add to
+     * without locking, until the topology changes. Searches made since the last freeze are kept.
+     */
+    public synchronized void freeze() {
+        SpaceGraph current = currentGraph();
+        Frozen old = frozen;
+        if (old != null && old.graph == current) {
+            for (Map.Entry<Long, int[]> entry : old.rows.entrySet()) {
+                rows.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        frozen = new Frozen(current, new ConcurrentHashMap<>(rows));
+    }
+
+    private int[] row(Space source, boolean reversed) {
+        Frozen view = frozenView();
+        if (view != null) {
+            int[] distances = view.row(source, reversed);
+            if (distances != FULL) {
+                return distances;
+            }
+        }
+        synchronized (this) {
+            return rowLocked(source, reversed);
+        }
+    }
+
+    private Frozen frozenView() {
+        Frozen view = frozen;
+        return view != null && view.graph == world.getGraph() ? view : null;
+    }
+
+    private int[] rowLocked(Space source, boolean reversed) {
+        SpaceGraph current = currentGraph();
+        int sourceId = current.idOf(source);
+        if (sourceId < 0) {
+            return null;
+        }
+        Long key = key(sourceId, reversed);
+        int[] distances = rows.get(key);
+        if (distances == null) {
+            distances = search(reversed ? current.reverse() : current, sourceId);
+            rows.put(key, distances);
+        }
+        return distances;
+    }
+
+    private static Long key(int sourceId, boolean reversed) {
+        return ((long) sourceId << 1) | (reversed ? 1L : 0L);
+    }
+
+    private SpaceGraph currentGraph() {
+        SpaceGraph latest = world.getGraph();
+        if (latest != graph) {
+            rows.clear();
+            graph = latest;
+            frozen = null;
+        }
+        return latest;
+    }
+
+    private int[] search(SpaceGraph g, int source) {
+        int[] queue = queues.get();
+        if (queue == null || queue.length != g.size()) {
+            queue = new int[g.size()];
+            queues.set(queue);
+        }
+        int[] distances = new int[g.size()];
+        Arrays.fill(distances, UNREACHABLE);
+        distances[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int space = queue[head++];
+            int next = distances[space] + 1;
+            for (int e = g.edgeStart(space), end = g.edgeEnd(space); e < end; e++) {
+                int neighbor = g.edgeTarget(e);
+                if (distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distances;
+    }
+
+    private int rowLimit() {
+        if (maxRows > 0) {
+            return maxRows;
+        }
+        int spaces = Math.max(1, graph != null ? graph.size() : 1);
+        return Math.max(MIN_CACHED_ROWS, Math.min(MAX_CACHED_ROWS, DEFAULT_CACHED_INTS / spaces));
+    }
+
+    /**
+     * A cache of searches for one graph that queries use without locking.
+     */
+    private final class Frozen {
+        private final SpaceGraph graph;
+        private final Map<Long, int[]> rows;
+        private final int limit;
+
+        private Frozen(SpaceGraph graph, Map<Long, int[]> rows) {
+            this.graph = graph;
+            this.rows = rows;
+            this.limit = rowLimit();
+        }
+
+        /**
+         * Gets a row like {@link DistanceOracle#distancesFrom(Space)} or
+         * {@link DistanceOracle#distancesTo(Space)}, or returns FULL if the row is not cached here
+         * and the cache is full.
+         */
+        private int[] row(Space source, boolean reversed) {
+            int sourceId = graph.idOf(source);
+            if (sourceId < 0) {
+                return null;
+            }
+            Long key = key(sourceId, reversed);
+            int[] distances = rows.get(key);
+            if (distances == null) {
+                if (rows.size() >= limit) {
+                    return FULL;
+                }
+                distances = search(reversed ? graph.reverse() : graph, sourceId);
+                int[] found = rows.putIfAbsent(key, distances);
+                distances = found != null ? found : distances;
+            }
+            return distances;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package world;
+
+/**
+ * GameEvent records something that happened in the game.
+ *
+ * <p>Events only hold the type and the names and numbers involved, so creating one is cheap and an
+ * event can be handed to another thread safely. The message text is built by {@link #format()},
+ * which sinks call only when they actually write the event out.
+ */
+public final class GameEvent {
+    /**
+     * The kinds of events, each with its own message.
+     */
+    public enum Type {
+        /** Free-form text, such as prompts or look-around reports. */
+        MESSAGE,
+        /** A player moved into a neighboring space. */
+        PLAYER_MOVED,
+        /** A player tried to move to a space that is not a neighbor. */
+        MOVE_REJECTED,
+        /** A player picked up an item. */
+        ITEM_PICKED_UP,
+        /** A player tried to pick up an item that is not in their space. */
+        ITEM_UNAVAILABLE,
+        /** A player tried to pick up an item with no room left to carry it. */
+        INVENTORY_FULL,
+        /** An item was used on a player. */
+        ITEM_USED,
+        /** A human player started an attack. */
+        ATTACK_STARTED,
+        /** An AI player started an attack. */
+        AI_ATTACK_STARTED,
+        /** A player attacked with a weapon. */
+        WEAPON_USED,
+        /** A player had nothing to attack with. */
+        NO_WEAPON,
+        /** A player's health changed. */
+        HEALTH_CHANGED,
+        /** An attack failed because the target was elsewhere. */
+        ATTACK_OUT_OF_REACH,
+        /** An attack failed because another player saw it. */
+        ATTACK_WITNESSED,
+        /** An attack failed because the attacker was seen by the target. */
+        ATTACK_SEEN,
+        /** An attack succeeded. */
+        ATTACK_HIT,
+        /** The weapon of a successful attack was removed. */
+        EVIDENCE_REMOVED,
+        /** A player's health reached zero. */
+        PLAYER_DEFEATED,
+        /** A character moved to a random neighboring space. */
+        MOVED_RANDOMLY,
+        /** A character could not move because its space has no neighbors. */
+        NO_NEIGHBORS,
+        /** A chaser found nobody to chase. */
+        NO_PLAYERS_TO_CHASE,
+        /** A chaser is already with the player it chases. */
+        CHASER_ARRIVED,
+        /** A chaser moved towards the player it chases. */
+        CHASER_MOVED,
+        /** A chaser had no way to get closer. */
+        CHASER_STUCK,
+        /** A pet moved to a random neighboring space. */
+        PET_MOVED_RANDOMLY,
+        /** A pet could not move because its space has no neighbors. */
+        PET_NO_NEIGHBORS,
+        /** A pet moved deeper in its depth-first walk. */
+        PET_MOVED_DEPTH_FIRST,
+        /** A pet went back along its depth-first walk. */
+        PET_BACKTRACKED
+    }
+
+    private final Type type;
+    private final String actor;
+    private final String subject;
+    private final String place;
+    private final int amount;
+
+    private GameEvent(Type type, String actor, String subject, String place, int amount) {
+        this.type = type;
+        this.actor = actor;
+        this.subject = subject;
+        this.place = place;
+        this.amount = amount;
+    }
+
+    /**
+     * Creates an event.
+     *
+     * @param type    The kind of event.
+     * @param actor   The name of whoever or whatever caused the event.
+     * @param subject The name of the player, item or space the event is about, if any.
+     * @param place   The name of the space the event happened in or led to, if any.
+     * @param amount  The damage, health or other number involved, if any.
+     * @return The event.
+     */
+    public static GameEvent of(Type type, String actor, String subject, String place, int amount) {
+        if (type == null) {
+            throw new IllegalArgumentException("Event type cannot be null.");
+        }
+        return new GameEvent(type, actor, subject, place, amount);
+    }
+
+    /**
+     * Creates an event that only involves an actor.
+     *
+     * @param type  The kind of event.
+     * @param actor The name of whoever or whatever caused the event.
+     * @return The event.
+     */
+    public static GameEvent of(Type type, String actor) {
+        return of(type, actor, null, null, 0);
+    }
+
+    /**
+     * Creates an event that involves an actor and a subject.
+     *
+     * @param type    The kind of event.
+     * @param actor   The name of whoever or whatever caused the event.
+     * @param subject The name of the player, item or space the event is about.
+     * @return The event.
+     */
+    public static GameEvent of(Type type, String actor, String subject) {
+        return of(type, actor, subject, null, 0);
+    }
+
+    /**
+     * Creates a free-form text event.
+     *
+     * @param text The text.
+     * @return The event.
+     */
+    public static GameEvent message(String text) {
+        return of(Type.MESSAGE, text);
+    }
+
+    /**
+     * Gets the kind of event.
+     *
+     * @return The type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the name of whoever or whatever caused the event.
+     *
+     * @return The actor, or the text of a {@link Type#MESSAGE} event.
+     */
+    public String getActor() {
+        return actor;
+    }
+
+    /**
+     * Gets the name of the player, item or space the event is about.
+     *
+     * @return The subject, or null.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Gets the name of the space the event happened in or led to.
+     *
+     * @return The place, or null.
+     */
+    public String getPlace() {
+        return place;
+    }
+
+    /**
+     * Gets the damage, health or other number involved.
+     *
+     * @return The amount, or 0.
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    /**
+     * Builds the message describing the event.
+     *
+     * @return The message text.
+     */
+    public String format() {
+        switch (type) {
+            case MESSAGE:
+                return actor;
+            case PLAYER_MOVED:
+                return actor + " moved to " + place;
+            case MOVE_REJECTED:
+                return "Move not allowed: " + place + " is not a neighboring space.";
+            case ITEM_PICKED_UP:
+                return actor + " picked up " + subject;
+            case ITEM_UNAVAILABLE:
+                return "Item " + subject + " is not available in the current space.";
+            case INVENTORY_FULL:
+                return "Cannot add item: Inventory is full.";
+            case ITEM_USED:
+                return actor + " used on " + subject + " for " + amount + " damage.";
+            case ATTACK_STARTED:
+                return actor + " attempts to attack " + subject;
+            case AI_ATTACK_STARTED:
+                return actor + " attempts to attack " + subject + " using AI strategy.";
+            case WEAPON_USED:
+                return actor + " uses " + place + " on " + subject;
+            case NO_WEAPON:
+                return actor + " has no items to use for attack.";
+            case HEALTH_CHANGED:
+                return actor + " (" + subject + ") has " + amount + " health remaining.";
+            case ATTACK_OUT_OF_REACH:
+                return "Attack attempt failed! " + subject + " is not in the same space.";
+            case ATTACK_WITNESSED:
+                return "Attack attempt failed! " + subject + " was seen by " + place + ".";
+            case ATTACK_SEEN:
+                return "Attack attempt failed! " + subject + " was seen.";
+            case ATTACK_HIT:
+                return actor + " attacked " + subject + " for " + amount + " damage.";
+            case EVIDENCE_REMOVED:
+                return subject + " was removed from play as evidence.";
+            case PLAYER_DEFEATED:
+                return subject + " has been defeated!";
+            case MOVED_RANDOMLY:
+                return actor + " moved to " + place + " randomly.";
+            case NO_NEIGHBORS:
+                return actor + " has no neighboring spaces to move to.";
+            case NO_PLAYERS_TO_CHASE:
+                return "No players to chase.";
+            case CHASER_ARRIVED:
+                return actor + " is already in the same space as " + subject + ".";
+            case CHASER_MOVED:
+                return actor + " moved towards " + subject + " and entered " + place + ".";
+            case CHASER_STUCK:
+                return actor + " has no valid moves towards the player.";
+            case PET_MOVED_RANDOMLY:
+                return pet(actor, place) + " moved to " + place + " randomly.";
+            case PET_NO_NEIGHBORS:
+                return pet(actor, place) + " has no neighboring spaces to move to.";
+            case PET_MOVED_DEPTH_FIRST:
+                return pet(actor, place) + " moved to " + place + " using depth-first traversal.";
+            case PET_BACKTRACKED:
+                return pet(actor, place) + " backtracked to " + place + ".";
+            default:
+                throw new IllegalStateException("Unknown event type: " + type);
+        }
+    }
+
+    private static String pet(String name, String space) {
+        return "Pet[name=" + name + ", currentSpace=" + space + "]";
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,82 @@
+package world;
+
+/**
+ * GameEventSink receives the events of a game.
+ * Emitters check {@link #isEnabled()} before creating an event, so a disabled sink costs neither
+ * an allocation nor any formatting.
+ */
+public interface GameEventSink {
+    /**
+     * Sink that discards every event.
+     */
+    GameEventSink DISCARD = new GameEventSink() {
+        @Override
+        public void publish(GameEvent event) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Sink that formats every event right away and prints it to the console.
+     */
+    GameEventSink CONSOLE = event -> GameOutput.CONSOLE.println(event.format());
+
+    /**
+     * Receives an event.
+     *
+     * @param event The event.
+     */
+    void publish(GameEvent event);
+
+    /**
+     * Checks whether events sent to this sink are used at all.
+     *
+     * @return True if events should be created and published.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Creates a sink that formats every event right away and prints it to an output.
+     *
+     * @param output The output to print to.
+     * @return The sink.
+     */
+    static GameEventSink text(GameOutput output) {
+        if (output == null) {
+            throw new IllegalArgumentException("Output cannot be null.");
+        }
+        if (output == GameOutput.CONSOLE) {
+            return CONSOLE;
+        }
+        if (!output.isEnabled()) {
+            return DISCARD;
+        }
+        return event -> output.println(event.format());
+    }
+
+    /**
+     * Gets the event sink of a world.
+     *
+     * @param world The world, possibly null.
+     * @return The world's sink, or a console sink if there is no world.
+     */
+    static GameEventSink of(World world) {
+        return world != null ? world.getEventSink() : CONSOLE;
+    }
+
+    /**
+     * Gets the event sink of the world a space belongs to.
+     *
+     * @param space The space, possibly null.
+     * @return The sink of the space's world, or a console sink if there is none.
+     */
+    static GameEventSink of(Space space) {
+        return space != null ? of(space.getWorld()) : CONSOLE;
+    }
+}
@@ -0,0 +1,63 @@
+package world;
+
+/**
+ * GameOutput receives the messages the game prints while it runs.
+ * Callers check {@link #isEnabled()} before building a message, so a disabled output costs no
+ * string formatting at all.
+ */
+public interface GameOutput {
+    /**
+     * Output that prints every message to the console.
+     */
+    GameOutput CONSOLE = message -> System.out.println(message);
+
+    /**
+     * Output that discards every message.
+     */
+    GameOutput NONE = new GameOutput() {
+        @Override
+        public void println(String message) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Prints a message.
+     *
+     * @param message The message to print.
+     */
+    void println(String message);
+
+    /**
+     * Checks whether messages sent to this output are used at all.
+     *
+     * @return True if messages should be built and printed.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Gets the output of a world.
+     *
+     * @param world The world, possibly null.
+     * @return The world's output, or {@link #CONSOLE} if there is no world.
+     */
+    static GameOutput of(World world) {
+        return world != null ? world.getOutput() : CONSOLE;
+    }
+
+    /**
+     * Gets the output of the world a space belongs to.
+     *
+     * @param space The space, possibly null.
+     * @return The output of the space's world, or {@link #CONSOLE} if there is none.
+     */
+    static GameOutput of(Space space) {
+        return space != null ? of(space.getWorld()) : CONSOLE;
+    }
+}
@@ -9,7 +9,7 @@ import java.util.Map;
 public class HumanPlayer implements Player {
     private String name;
     private int health;
-    private Space currentSpace;
+    private volatile Space currentSpace; // written under the stripe locks of the old and new space
     private PlayerInventory inventory;
     private Map<Player, Boolean> visibilityMap; // Track visibility of other players
 
@@ -21,10 +21,22 @@ public class HumanPlayer implements Player {
      * @param startingSpace The starting space of the player.
      */
     public HumanPlayer(String name, int health, Space startingSpace) {
+        this(name, health, startingSpace, PlayerInventory.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes a HumanPlayer with a custom inventory capacity.
+     *
+     * @param name The name of the player.
+     * @param health The initial health of the player.
+     * @param startingSpace The starting space of the player.
+     * @param inventoryCapacity The number of items the player can carry.
+     */
+    public HumanPlayer(String name, int health, Space startingSpace, int inventoryCapacity) {
         this.name = name;
         this.health = health;
         this.currentSpace = startingSpace;
-        this.inventory = new PlayerInventory(10); // Assuming a default capacity of 10 for PlayerInventory
+        this.inventory = new PlayerInventory(inventoryCapacity);
         this.visibilityMap = new HashMap<>(); // Initialize the visibility map
     }
 
@@ -49,12 +61,18 @@ public class HumanPlayer implements Player {
      * @param space The new space to set as the current space of the player.
      */
     public void setCurrentSpace(Space space) {
-        if (currentSpace != null) {
-            currentSpace.removePlayer(this); // Remove from old space
-        }
-        currentSpace = space;
-        if (currentSpace != null) {
-            currentSpace.addPlayer(this); // Add to the new space
+        while (true) {
+            Space previousSpace = currentSpace;
+            SpaceLocks.lock(previousSpace, space);
+            try {
+                if (currentSpace == previousSpace) { // otherwise another thread moved us first; retry
+                    currentSpace = space;
+                    World.relocatePlayer(this, previousSpace, space); // Leave the old space and enter the new one
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(previousSpace, space);
+            }
         }
     }
 
@@ -67,22 +85,43 @@ public class HumanPlayer implements Player {
 
     @Override
     public void pickUpItem(Item item) {
-        if (currentSpace.getItems().contains(item)) {
-            inventory.addItem(item);
-            currentSpace.removeItem(item);
+        while (true) {
+            Space space = currentSpace;
+            SpaceLocks.lock(space);
+            try {
+                if (currentSpace == space) { // otherwise another thread moved us first; retry
+                    if (space != null && space.getItems().contains(item) && (inventory.contains(item) || inventory.addItem(item))) {
+                        space.detachItem(item);
+                        World world = space.getWorld();
+                        if (world != null) {
+                            world.onItemCarried(item, this);
+                        }
+                    }
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(space);
+            }
         }
     }
 
     @Override
     public void attemptAttack(Player target) {
-        System.out.println(name + " attempts to attack " + target.getName());
+        GameEventSink events = GameEventSink.of(currentSpace);
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.ATTACK_STARTED, name, target.getName()));
+        }
         // Pick one item to attack
         Item weapon = inventory.getBestItem(); // Pick the best item
         if (weapon != null) {
-            System.out.println(name + " uses " + weapon.getName() + " on " + target.getName());
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.WEAPON_USED, name, target.getName(), weapon.getName(), 0));
+            }
             weapon.use(target); // Attack using the weapon
         } else {
-            System.out.println(name + " has no items to use for attack.");
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.NO_WEAPON, name));
+            }
         }
     }
 
@@ -107,11 +146,19 @@ public class HumanPlayer implements Player {
 
     @Override
     public void reduceHealth(int damage) {
+        boolean wasAlive = this.health > 0;
         this.health -= damage;
         if (this.health < 0) {
             this.health = 0; // Ensure health does not go below zero
         }
-        System.out.println(name + " (Human) has " + health + " health remaining.");
+        Space space = currentSpace;
+        if (wasAlive != this.health > 0 && space != null && space.getWorld() != null) {
+            space.getWorld().onPlayerLifeChanged(); // Chasers look for another player
+        }
+        GameEventSink events = GameEventSink.of(currentSpace);
+        if (events.isEnabled()) {
+            events.publish(GameEvent.of(GameEvent.Type.HEALTH_CHANGED, name, "Human", null, health));
+        }
     }
 
     @Override
@@ -56,7 +56,10 @@ public class Item {
     public void use(Player target) {
         if (target != null) {
             target.reduceHealth(damage);
-            System.out.println(name + " used on " + target.getName() + " for " + damage + " damage.");
+            GameEventSink events = GameEventSink.of(target.getCurrentSpace());
+            if (events.isEnabled()) {
+                events.publish(GameEvent.of(GameEvent.Type.ITEM_USED, name, target.getName(), null, damage));
+            }
         }
     }
 }
@@ -7,7 +7,7 @@ import strategy.MoveStrategy;
  */
 public class Pet {
     private String name;
-    private Space currentSpace;
+    private volatile Space currentSpace; // written under the stripe locks of the old and new space
     private MoveStrategy strategy;
     private World world;
 
@@ -42,12 +42,23 @@ public class Pet {
      * @param newSpace The space to which the pet is moving.
      */
     public void moveTo(Space newSpace) {
-        if (this.currentSpace != null) {
-            this.currentSpace.removePet(this);  // Remove the pet from the current space
-        }
-        this.currentSpace = newSpace;
-        if (newSpace != null) {
-            newSpace.addPet(this);  // Add the pet to the new space
+        while (true) {
+            Space previousSpace = this.currentSpace;
+            SpaceLocks.lock(previousSpace, newSpace);
+            try {
+                if (this.currentSpace == previousSpace) { // otherwise another thread moved it first; retry
+                    if (previousSpace != null) {
+                        previousSpace.removePet(this);  // Remove the pet from the current space
+                    }
+                    this.currentSpace = newSpace;
+                    if (newSpace != null) {
+                        newSpace.addPet(this);  // Add the pet to the new space
+                    }
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(previousSpace, newSpace);
+            }
         }
     }
 
@@ -80,7 +91,8 @@ public class Pet {
 
     @Override
     public String toString() {
-        return "Pet[name=" + name + ", currentSpace=" + currentSpace.getName() + "]";
+        Space space = currentSpace;
+        return "Pet[name=" + name + ", currentSpace=" + (space != null ? space.getName() : "none") + "]";
     }
 
     /**
@@ -1,13 +1,33 @@
 package world;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 /**
  * PlayerInventory manages the items carried by a player.
+ * Items are kept in a max-heap ordered by damage, so the best item is always at the top and
+ * adding or removing an item takes logarithmic time. Items of equal damage are ranked by the
+ * order in which they were added.
  */
 public class PlayerInventory {
-    private List<Item> items;
+    /**
+     * The capacity players get when none is given.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private static final int INITIAL_STORAGE = 16;
+
+    private Item[] heap;
+    private long[] sequence;
+    private int size;
+    private long nextSequence;
+    private final Map<Item, Integer> positions;
+    private final List<Item> itemsView;
     private int maxItems;
 
     /**
@@ -16,23 +36,39 @@ public class PlayerInventory {
      * @param maxItems The maximum number of items the inventory can hold.
      */
     public PlayerInventory(int maxItems) {
-        this.items = new ArrayList<>();
+        if (maxItems < 0) {
+            throw new IllegalArgumentException("Inventory capacity cannot be negative.");
+        }
+        int storage = Math.min(maxItems, INITIAL_STORAGE);
+        this.heap = new Item[storage];
+        this.sequence = new long[storage];
+        this.positions = new IdentityHashMap<>();
+        this.itemsView = new HeapView();
         this.maxItems = maxItems;
     }
 
     /**
-     * Adds an item to the inventory if there is capacity.
+     * Adds an item to the inventory if there is capacity. Callers report a full inventory
+     * through the game's events.
      *
      * @param item The item to add.
-     * @return True if the item was successfully added, false otherwise.
+     * @return True if the item was successfully added, false if it is already carried or the
+     *         inventory is full.
      */
     public boolean addItem(Item item) {
-        if (items.size() < maxItems) {
-            items.add(item);
-            return true;
+        if (item == null || positions.containsKey(item) || size >= maxItems) {
+            return false;
         }
-        System.out.println("Cannot add item: Inventory is full.");
-        return false;
+        if (size == heap.length) {
+            int grown = (int) Math.min(maxItems, Math.max(1L, heap.length * 2L));
+            heap = Arrays.copyOf(heap, grown);
+            sequence = Arrays.copyOf(sequence, grown);
+        }
+        heap[size] = item;
+        sequence[size] = nextSequence++;
+        positions.put(item, size);
+        siftUp(size++);
+        return true;
     }
 
     /**
@@ -41,16 +77,16 @@ public class PlayerInventory {
      * @param item The item to remove.
      */
     public void removeItem(Item item) {
-        items.remove(item);
+        remove(item);
     }
 
     /**
-     * Gets the list of items in the inventory.
+     * Gets the items in the inventory, in no particular order.
      *
-     * @return The list of items.
+     * @return A read-only view of the items.
      */
     public List<Item> getItems() {
-        return items;
+        return itemsView;
     }
 
     /**
@@ -60,26 +96,57 @@ public class PlayerInventory {
      * @return True if the item is in the inventory, false otherwise.
      */
     public boolean containsItem(Item item) {
-        return items.contains(item);
+        return positions.containsKey(item);
     }
 
+    /**
+     * Gets the item that deals the most damage.
+     *
+     * @return The best item, or null if the inventory is empty.
+     */
     public Item getBestItem() {
-      if (items.isEmpty()) {
-          return null;
-      }
-
-      Item bestItem = items.get(0);
-      for (Item item : items) {
-          if (item.getDamage() > bestItem.getDamage()) {
-              bestItem = item;
-          }
-      }
-      return bestItem;
-  }
+        return size == 0 ? null : heap[0];
+    }
 
+    /**
+     * Gets the items that deal the most damage, best first.
+     *
+     * @param count The number of items wanted.
+     * @return Up to {@code count} items ordered by damage.
+     */
+    public List<Item> getTopItems(int count) {
+        int wanted = Math.min(Math.max(count, 0), size);
+        List<Item> top = new ArrayList<>(wanted);
+        if (wanted == 0) {
+            return top;
+        }
+
+        // Walk the heap with a small frontier heap of positions, so only O(count) nodes are touched
+        int[] frontier = new int[wanted * 2 + 1];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        while (top.size() < wanted) {
+            int position = frontier[0];
+            frontier[0] = frontier[--frontierSize];
+            siftDownFrontier(frontier, frontierSize, 0);
+            top.add(heap[position]);
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                frontier[frontierSize] = child;
+                siftUpFrontier(frontier, frontierSize++);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Checks if the inventory contains a specific item.
+     *
+     * @param item The item to check for.
+     * @return True if the item is in the inventory, false otherwise.
+     */
     public boolean contains(Item item) {
-      return items.contains(item);
-  }
+        return positions.containsKey(item);
+    }
 
     /**
      * Removes an item from the inventory.
@@ -88,7 +155,179 @@ public class PlayerInventory {
      * @return True if the item was successfully removed, false otherwise.
      */
     public boolean remove(Item item) {
-        return items.remove(item);
+        Integer position = positions.remove(item);
+        if (position == null) {
+            return false;
+        }
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            heap[last] = null;
+            if (!siftUp(position)) {
+                siftDown(position);
+            }
+        } else {
+            heap[last] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Moves items into another inventory, best first, until this inventory is empty or the other
+     * one is full. Items the other inventory already holds stay here.
+     *
+     * @param other The inventory receiving the items.
+     * @return The items that were moved.
+     */
+    public List<Item> transferTo(PlayerInventory other) {
+        List<Item> moved = new ArrayList<>();
+        if (other == null || other == this) {
+            return moved;
+        }
+        for (Item item : getTopItems(size)) {
+            if (other.size >= other.maxItems) {
+                break;
+            }
+            if (other.addItem(item)) { // added before it leaves here, so a refusal loses nothing
+                remove(item);
+                moved.add(item);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Gets the number of items in the inventory.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return size;
     }
 
+    /**
+     * Gets the maximum number of items the inventory can hold.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return maxItems;
+    }
+
+    /**
+     * Changes the maximum number of items the inventory can hold. Items already carried are kept
+     * even if they exceed the new capacity.
+     *
+     * @param maxItems The new capacity.
+     */
+    public void setCapacity(int maxItems) {
+        if (maxItems < 0) {
+            throw new IllegalArgumentException("Inventory capacity cannot be negative.");
+        }
+        this.maxItems = maxItems;
+    }
+
+    private boolean better(int a, int b) {
+        int damageA = heap[a].getDamage();
+        int damageB = heap[b].getDamage();
+        return damageA > damageB || (damageA == damageB && sequence[a] < sequence[b]);
+    }
+
+    private boolean siftUp(int position) {
+        int start = position;
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!better(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+        return position != start;
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+            int best = left + 1 < size && better(left + 1, left) ? left + 1 : left;
+            if (!better(best, position)) {
+                return;
+            }
+            swap(position, best);
+            position = best;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Item item = heap[a];
+        long order = sequence[a];
+        heap[a] = heap[b];
+        sequence[a] = sequence[b];
+        heap[b] = item;
+        sequence[b] = order;
+        positions.put(heap[a], a);
+        positions.put(heap[b], b);
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        sequence[to] = sequence[from];
+        positions.put(heap[to], to);
+    }
+
+    private void siftUpFrontier(int[] frontier, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!better(frontier[index], frontier[parent])) {
+                return;
+            }
+            int swap = frontier[index];
+            frontier[index] = frontier[parent];
+            frontier[parent] = swap;
+            index = parent;
+        }
+    }
+
+    private void siftDownFrontier(int[] frontier, int frontierSize, int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= frontierSize) {
+                return;
+            }
+            int best = left + 1 < frontierSize && better(frontier[left + 1], frontier[left]) ? left + 1 : left;
+            if (!better(frontier[best], frontier[index])) {
+                return;
+            }
+            int swap = frontier[index];
+            frontier[index] = frontier[best];
+            frontier[best] = swap;
+            index = best;
+        }
+    }
+
+    /**
+     * Read-only list over the occupied part of the heap.
+     */
+    private final class HeapView extends AbstractList<Item> implements RandomAccess {
+        @Override
+        public Item get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return heap[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Item && positions.containsKey(o);
+        }
+    }
 }
@@ -1,19 +1,29 @@
 package world;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a space in the game world, containing items, players, and pets.
  */
 public class Space {
     private String name;
-    private List<Item> items;
+    private Set<Item> items;
+    private Collection<Item> itemsView;
     private List<Player> players;
+    private List<Player> playersView;
     private List<Pet> pets; // add pets list
-    private List<Space> neighbors;
+    private List<Space> neighbors; // null once the neighbors are served by a SpaceGraph
+    private SpaceGraph graph;
+    private int graphRow;
+    private int id;
     private World world;
     private boolean isVisited;
+    boolean snapshotDirty; // queued for the next snapshot; guarded by the space's stripe lock
 
     /**
      * Initializes a Space with the given name.
@@ -23,10 +33,13 @@ public class Space {
      */
     public Space(String name, World world) {
         this.name = name;
-        this.items = new ArrayList<>();
+        this.items = new LinkedHashSet<>();
+        this.itemsView = Collections.unmodifiableSet(items);
         this.players = new ArrayList<>();
+        this.playersView = Collections.unmodifiableList(players);
         this.pets = new ArrayList<>(); // Initializes pets list
         this.neighbors = new ArrayList<>();
+        this.id = -1;
         this.world = world;
         this.isVisited = false;
     }
@@ -40,13 +53,37 @@ public class Space {
         return name;
     }
 
+    /**
+     * Renames the space, keeping the world's name index up to date.
+     *
+     * @param name The new name of the space.
+     */
+    public void setName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null.");
+        }
+        String oldName = this.name;
+        this.name = name;
+        if (world != null) {
+            world.onSpaceRenamed(this, oldName);
+        }
+    }
+
     /**
      * Adds a player to this space.
      *
      * @param player The player to add.
      */
     public void addPlayer(Player player) {
-        players.add(player);
+        SpaceLocks.lock(this);
+        try {
+            attachPlayer(player);
+            if (world != null) {
+                world.registerPlayer(player, this);
+            }
+        } finally {
+            SpaceLocks.unlock(this);
+        }
     }
 
     /**
@@ -55,16 +92,49 @@ public class Space {
      * @param player The player to remove.
      */
     public void removePlayer(Player player) {
-        players.remove(player);
+        SpaceLocks.lock(this);
+        try {
+            if (detachPlayer(player) && world != null) {
+                world.unregisterPlayer(player, this);
+            }
+        } finally {
+            SpaceLocks.unlock(this);
+        }
     }
 
     /**
      * Gets the list of players in this space.
      *
-     * @return The list of players.
+     * @return A read-only view of the players.
      */
     public List<Player> getPlayers() {
-        return players;
+        return playersView;
+    }
+
+    /**
+     * Adds a player to this space without touching the world's player registry.
+     *
+     * @param player The player to add.
+     */
+    void attachPlayer(Player player) {
+        if (!players.contains(player)) {
+            players.add(player);
+            changed();
+        }
+    }
+
+    /**
+     * Removes a player from this space without touching the world's player registry.
+     *
+     * @param player The player to remove.
+     * @return True if the player was in this space.
+     */
+    boolean detachPlayer(Player player) {
+        if (players.remove(player)) {
+            changed();
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -73,7 +143,13 @@ public class Space {
      * @param pet The pet to add.
      */
     public void addPet(Pet pet) {
-        pets.add(pet);
+        if (!pets.contains(pet)) {
+            pets.add(pet);
+            if (world != null) {
+                world.onPetEntered(this);
+                world.onSpaceChanged(this);
+            }
+        }
     }
 
     /**
@@ -82,7 +158,10 @@ public class Space {
      * @param pet The pet to remove.
      */
     public void removePet(Pet pet) {
-        pets.remove(pet);
+        if (pets.remove(pet) && world != null) {
+            world.onPetLeft(this);
+            world.onSpaceChanged(this);
+        }
     }
 
     /**
@@ -100,7 +179,17 @@ public class Space {
      * @param item The item to add.
      */
     public void addItem(Item item) {
-        items.add(item);
+        World owner = world;
+        if (owner != null) {
+            owner.onItemAdded(item, this); // locks this space together with the one the item leaves
+            return;
+        }
+        SpaceLocks.lock(this);
+        try {
+            attachItem(item);
+        } finally {
+            SpaceLocks.unlock(this);
+        }
     }
 
     /**
@@ -109,16 +198,54 @@ public class Space {
      * @param item The item to remove.
      */
     public void removeItem(Item item) {
-        items.remove(item);
+        SpaceLocks.lock(this);
+        try {
+            if (detachItem(item) && world != null) {
+                world.onItemRemoved(item, this);
+            }
+        } finally {
+            SpaceLocks.unlock(this);
+        }
     }
 
     /**
-     * Gets the list of items in this space.
+     * Gets the items in this space.
      *
-     * @return The list of items.
+     * @return A read-only view of the items.
      */
-    public List<Item> getItems() {
-        return items;
+    public Collection<Item> getItems() {
+        return itemsView;
+    }
+
+    /**
+     * Adds an item to this space without touching the world's item registry.
+     *
+     * @param item The item to add.
+     */
+    void attachItem(Item item) {
+        if (items.add(item)) {
+            changed();
+        }
+    }
+
+    /**
+     * Removes an item from this space without touching the world's item registry.
+     *
+     * @param item The item to remove.
+     * @return True if the item was in this space.
+     */
+    boolean detachItem(Item item) {
+        if (items.remove(item)) {
+            changed();
+            return true;
+        }
+        return false;
+    }
+
+    private void changed() {
+        if (world != null) {
+            world.onSpaceChanged(this);
+        }
     }
 
     /**
@@ -127,16 +254,85 @@ public class Space {
      * @param neighbor The neighboring space to add.
      */
     public void addNeighbor(Space neighbor) {
+        if (neighbors == null) {
+            // Leave the compact graph; the world rebuilds it on next use
+            neighbors = new ArrayList<>(graph.neighborView(graphRow));
+            graph = null;
+        }
         neighbors.add(neighbor);
+        if (world != null) {
+            world.onTopologyChanged();
+        }
     }
 
     /**
      * Gets the list of neighboring spaces.
      *
-     * @return The list of neighboring spaces.
+     * @return A read-only view of the neighboring spaces.
      */
     public List<Space> getNeighbors() {
-        return neighbors;
+        if (neighbors == null) {
+            return graph.neighborView(graphRow);
+        }
+        return Collections.unmodifiableList(neighbors);
+    }
+
+    /**
+     * Checks if the given space is a neighbor of this space.
+     *
+     * @param space The space to check.
+     * @return True if the space is a neighbor, false otherwise.
+     */
+    public boolean hasNeighbor(Space space) {
+        if (neighbors == null) {
+            return graph.hasEdge(graphRow, space);
+        }
+        return neighbors.contains(space);
+    }
+
+    /**
+     * Gets the id of this space in the world's space graph.
+     *
+     * @return The id, or -1 if no graph has been built for this space yet.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the id of this space in the world's space graph.
+     *
+     * @param id The id.
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Switches this space to serving its neighbors from the given graph, dropping its own list.
+     * Spaces with neighbors outside the graph keep their list. A space already served by an older
+     * graph moves to the new one, which drops neighbors that have left the world since.
+     *
+     * @param graph The graph this space belongs to.
+     */
+    void compactNeighbors(SpaceGraph graph) {
+        if (graph.getSpace(id) != this || (neighbors != null && graph.degree(id) != neighbors.size())) {
+            return;
+        }
+        this.graph = graph;
+        this.graphRow = id;
+        this.neighbors = null;
+    }
+
+    /**
+     * Gives this space its own neighbor list again, for when it leaves the world and will not be
+     * part of the next graph. Must be called before the graph is rebuilt.
+     */
+    void releaseNeighbors() {
+        if (neighbors == null) {
+            neighbors = new ArrayList<>(graph.neighborView(graphRow));
+            graph = null;
+        }
     }
 
     /**
@@ -239,6 +435,20 @@ public class Space {
         if (world == null) {
             throw new IllegalArgumentException("World cannot be null.");
         }
+        if (this.world != null && this.world != world) {
+            for (Player player : players) {
+                this.world.unregisterPlayer(player, this);
+            }
+            for (Item item : items) {
+                this.world.onItemRemoved(item, this);
+            }
+        }
         this.world = world;
+        for (Player player : players) {
+            world.registerPlayer(player, this);
+        }
+        for (Item item : new ArrayList<>(items)) {
+            world.onItemAdded(item, this);
+        }
     }
 }
@@ -0,0 +1,288 @@
+package world;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * SpaceGraph is an immutable, compressed-sparse-row view of the connections between spaces.
+ * Every space gets an int id, and the neighbors of space {@code i} are the ids stored in
+ * {@code edges[offsets[i]]} up to {@code edges[offsets[i + 1]]}, in the order they were added.
+ */
+public final class SpaceGraph {
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private final Space[] spaces;
+    private final int[] offsets;
+    private final int[] edges;
+    private final int[] sortedEdges;
+    private final long version;
+    private volatile SpaceGraph reverse;
+
+    private SpaceGraph(Space[] spaces, int[] offsets, int[] edges, int[] sortedEdges, long version) {
+        this.spaces = spaces;
+        this.offsets = offsets;
+        this.edges = edges;
+        this.sortedEdges = sortedEdges;
+        this.version = version;
+    }
+
+    /**
+     * Builds a graph from the current neighbors of the given spaces. Each space is assigned the
+     * id matching its position in the list. Neighbors that are not part of the list are left out.
+     *
+     * @param spaceList The spaces to include.
+     * @param sortEdges True to keep a sorted copy of each row for binary-search membership tests.
+     * @param version   The topology version the graph is built for.
+     * @return The new graph.
+     */
+    public static SpaceGraph build(List<Space> spaceList, boolean sortEdges, long version) {
+        int count = spaceList.size();
+        Space[] spaces = spaceList.toArray(new Space[count]);
+        for (int i = 0; i < count; i++) {
+            spaces[i].setId(i);
+        }
+
+        // First pass: count the resolvable neighbors of each space
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            int degree = 0;
+            for (Space neighbor : spaces[i].getNeighbors()) {
+                if (contains(spaces, neighbor)) {
+                    degree++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+
+        // Second pass: fill the edge array
+        int[] edges = new int[offsets[count]];
+        for (int i = 0; i < count; i++) {
+            int next = offsets[i];
+            for (Space neighbor : spaces[i].getNeighbors()) {
+                if (contains(spaces, neighbor)) {
+                    edges[next++] = neighbor.getId();
+                }
+            }
+        }
+
+        int[] sortedEdges = null;
+        if (sortEdges) {
+            sortedEdges = edges.clone();
+            for (int i = 0; i < count; i++) {
+                Arrays.sort(sortedEdges, offsets[i], offsets[i + 1]);
+            }
+        }
+        return new SpaceGraph(spaces, offsets, edges, sortedEdges, version);
+    }
+
+    private static boolean contains(Space[] spaces, Space space) {
+        int id = space.getId();
+        return id >= 0 && id < spaces.length && spaces[id] == space;
+    }
+
+    /**
+     * Gets the topology version this graph was built for.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of spaces in the graph.
+     *
+     * @return The number of spaces.
+     */
+    public int size() {
+        return spaces.length;
+    }
+
+    /**
+     * Gets the number of connections in the graph.
+     *
+     * @return The number of edges.
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Gets the space with the given id.
+     *
+     * @param id The space id.
+     * @return The space.
+     */
+    public Space getSpace(int id) {
+        return spaces[id];
+    }
+
+    /**
+     * Gets the id of a space in this graph.
+     *
+     * @param space The space.
+     * @return The id, or -1 if the space is not part of this graph.
+     */
+    public int idOf(Space space) {
+        return space != null && contains(spaces, space) ? space.getId() : -1;
+    }
+
+    /**
+     * Gets the number of neighbors of a space.
+     *
+     * @param id The space id.
+     * @return The number of neighbors.
+     */
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Gets the index of the first edge of a space. Together with {@link #edgeEnd(int)} and
+     * {@link #edgeTarget(int)} this allows traversals without creating any objects.
+     *
+     * @param id The space id.
+     * @return The index of the first edge.
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Gets the index just past the last edge of a space.
+     *
+     * @param id The space id.
+     * @return The end index.
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Gets the space id an edge leads to.
+     *
+     * @param edge The edge index.
+     * @return The id of the neighboring space.
+     */
+    public int edgeTarget(int edge) {
+        return edges[edge];
+    }
+
+    /**
+     * Checks whether one space is connected to another.
+     *
+     * @param from The id of the space to move from.
+     * @param to   The id of the space to move to.
+     * @return True if {@code to} is a neighbor of {@code from}.
+     */
+    public boolean hasEdge(int from, int to) {
+        int start = offsets[from];
+        int end = offsets[from + 1];
+        if (sortedEdges != null && end - start > LINEAR_SCAN_LIMIT) {
+            return Arrays.binarySearch(sortedEdges, start, end, to) >= 0;
+        }
+        for (int e = start; e < end; e++) {
+            if (edges[e] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a space is a neighbor of the space with the given id.
+     *
+     * @param from The id of the space to move from.
+     * @param to   The space to move to.
+     * @return True if {@code to} is part of this graph and a neighbor of {@code from}.
+     */
+    public boolean hasEdge(int from, Space to) {
+        return to != null && contains(spaces, to) && hasEdge(from, to.getId());
+    }
+
+    /**
+     * Gets the graph with every connection reversed, so that the neighbors of a space in the
+     * reverse graph are the spaces that lead to it. The reverse graph is built once and shared.
+     *
+     * @return The reverse graph.
+     */
+    public SpaceGraph reverse() {
+        SpaceGraph built = reverse;
+        return built != null ? built : buildReverse();
+    }
+
+    private synchronized SpaceGraph buildReverse() {
+        if (reverse == null) {
+            int count = spaces.length;
+            int[] reverseOffsets = new int[count + 1];
+            for (int edge : edges) {
+                reverseOffsets[edge + 1]++;
+            }
+            for (int i = 0; i < count; i++) {
+                reverseOffsets[i + 1] += reverseOffsets[i];
+            }
+            int[] reverseEdges = new int[edges.length];
+            int[] next = Arrays.copyOf(reverseOffsets, count);
+            for (int from = 0; from < count; from++) {
+                for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    reverseEdges[next[edges[e]]++] = from;
+                }
+            }
+            int[] reverseSorted = sortedEdges != null ? reverseEdges.clone() : null;
+            if (reverseSorted != null) {
+                for (int i = 0; i < count; i++) {
+                    Arrays.sort(reverseSorted, reverseOffsets[i], reverseOffsets[i + 1]);
+                }
+            }
+            SpaceGraph built = new SpaceGraph(spaces, reverseOffsets, reverseEdges, reverseSorted, version);
+            built.reverse = this;
+            reverse = built; // published complete, for readers that skip the lock
+        }
+        return reverse;
+    }
+
+    /**
+     * Gets a read-only list view of the neighbors of a space.
+     *
+     * @param id The space id.
+     * @return The neighbors, in the order they were added.
+     */
+    public List<Space> neighborView(int id) {
+        return new NeighborView(id);
+    }
+
+    /**
+     * Read-only list over one row of the edge array.
+     */
+    private final class NeighborView extends AbstractList<Space> implements RandomAccess {
+        private final int id;
+        private final int start;
+        private final int size;
+
+        private NeighborView(int id) {
+            this.id = id;
+            this.start = offsets[id];
+            this.size = offsets[id + 1] - start;
+        }
+
+        @Override
+        public Space get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return spaces[edges[start + index]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Space && hasEdge(id, (Space) o);
+        }
+    }
+}
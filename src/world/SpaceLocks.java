@@ -0,0 +1,96 @@
+package world;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SpaceLocks guards what is in each space while players, pets and items move on several threads
+ * at once.
+ *
+ * <p>Every space maps to one of a fixed set of locks, chosen from its identity hash. A move locks
+ * the stripes of the space it leaves and the space it enters, always the lower-numbered stripe
+ * first, so two moves can never wait for each other in a cycle. Moves between unrelated spaces
+ * usually take different stripes and do not block each other.
+ */
+final class SpaceLocks {
+    private static final ReentrantLock[] STRIPES;
+    private static final int MASK;
+
+    static {
+        int wanted = Math.max(64, Runtime.getRuntime().availableProcessors() * 16);
+        int size = Integer.highestOneBit(wanted - 1) << 1;
+        STRIPES = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            STRIPES[i] = new ReentrantLock();
+        }
+        MASK = size - 1;
+    }
+
+    private SpaceLocks() {
+    }
+
+    /**
+     * Locks a single space.
+     *
+     * @param space The space, or null to lock nothing.
+     */
+    static void lock(Space space) {
+        if (space != null) {
+            STRIPES[stripe(space)].lock();
+        }
+    }
+
+    /**
+     * Unlocks a space locked by {@link #lock(Space)}.
+     *
+     * @param space The space, or null.
+     */
+    static void unlock(Space space) {
+        if (space != null) {
+            STRIPES[stripe(space)].unlock();
+        }
+    }
+
+    /**
+     * Locks the two spaces of a move, in stripe order.
+     *
+     * @param from The space being left, or null.
+     * @param to   The space being entered, or null.
+     */
+    static void lock(Space from, Space to) {
+        int a = from != null ? stripe(from) : -1;
+        int b = to != null ? stripe(to) : -1;
+        if (a > b) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        if (a >= 0) {
+            STRIPES[a].lock();
+        }
+        if (b >= 0 && b != a) {
+            STRIPES[b].lock();
+        }
+    }
+
+    /**
+     * Unlocks the two spaces locked by {@link #lock(Space, Space)}.
+     *
+     * @param from The space being left, or null.
+     * @param to   The space being entered, or null.
+     */
+    static void unlock(Space from, Space to) {
+        int a = from != null ? stripe(from) : -1;
+        int b = to != null ? stripe(to) : -1;
+        if (b >= 0 && b != a) {
+            STRIPES[b].unlock();
+        }
+        if (a >= 0) {
+            STRIPES[a].unlock();
+        }
+    }
+
+    private static int stripe(Space space) {
+        int h = System.identityHashCode(space);
+        return (h ^ (h >>> 16)) & MASK;
+    }
+}
@@ -0,0 +1,135 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SpaceSnapshot is an immutable record of a space at the moment a {@link WorldSnapshot} was
+ * published. It can be read from any thread without locking.
+ */
+public final class SpaceSnapshot {
+    private final String name;
+    private final List<String> neighborNames;
+    private final List<Item> items;
+    private final List<String> playerNames;
+    private final List<String> petNames;
+
+    /**
+     * Records the current state of a space, holding its lock so that players, pets and items
+     * moving on other threads are seen either before or after they move.
+     *
+     * @param space The space.
+     * @return The snapshot.
+     */
+    static SpaceSnapshot capture(Space space) {
+        SpaceLocks.lock(space);
+        try {
+            return new SpaceSnapshot(space);
+        } finally {
+            SpaceLocks.unlock(space);
+        }
+    }
+
+    /**
+     * Captures the current state of a space.
+     *
+     * @param space The space to capture.
+     */
+    SpaceSnapshot(Space space) {
+        this.name = space.getName();
+        this.neighborNames = names(space.getNeighbors());
+        this.items = Collections.unmodifiableList(new ArrayList<>(space.getItems()));
+        List<String> players = new ArrayList<>(space.getPlayers().size());
+        for (Player player : space.getPlayers()) {
+            players.add(player.getName());
+        }
+        this.playerNames = Collections.unmodifiableList(players);
+        List<String> pets = new ArrayList<>(space.getPets().size());
+        for (Pet pet : space.getPets()) {
+            pets.add(pet.getName());
+        }
+        this.petNames = Collections.unmodifiableList(pets);
+    }
+
+    private static List<String> names(Collection<Space> spaces) {
+        List<String> names = new ArrayList<>(spaces.size());
+        for (Space space : spaces) {
+            names.add(space.getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Gets the name of the space.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the names of the neighboring spaces.
+     *
+     * @return The neighbor names, in the order they were added.
+     */
+    public List<String> getNeighborNames() {
+        return neighborNames;
+    }
+
+    /**
+     * Gets the items lying in the space.
+     *
+     * @return The items.
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the names of the players in the space.
+     *
+     * @return The player names.
+     */
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    /**
+     * Gets the names of the pets in the space.
+     *
+     * @return The pet names.
+     */
+    public List<String> getPetNames() {
+        return petNames;
+    }
+
+    /**
+     * Gets a description of the space, in the same form as {@link Space#getDescription()}.
+     *
+     * @return The description of the space.
+     */
+    public String getDescription() {
+        StringBuilder description = new StringBuilder();
+        description.append("Space: ").append(name).append("\n");
+        List<String> itemNames = new ArrayList<>(items.size());
+        for (Item item : items) {
+            itemNames.add(item.getName());
+        }
+        appendNames(description, "Items: ", itemNames);
+        appendNames(description, "Players: ", playerNames);
+        appendNames(description, "Pets: ", petNames);
+        return description.toString();
+    }
+
+    private static void appendNames(StringBuilder description, String label, List<String> names) {
+        description.append(label);
+        if (names.isEmpty()) {
+            description.append("None\n");
+        } else {
+            description.append(String.join(", ", names)).append("\n");
+        }
+    }
+}
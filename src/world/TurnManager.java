@@ -1,53 +1,288 @@
 package world;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * TurnManager handles the turn order and manages the sequence of players taking actions.
+ *
+ * <p>Players sit in a ring of seat indices linked in both directions, so a player can leave the
+ * ring in constant time. Players whose health has dropped to zero are taken out as soon as their
+ * turn would come up, so they never get another turn. A round is complete once every living
+ * player has had a turn; at the start of each round the ring can be reordered, e.g. by
+ * initiative.
  */
 public class TurnManager {
-    private List<Player> players;
-    private int currentTurn;
+    private Player[] seats;
+    private int[] next;
+    private int[] prev;
+    private int seatCount;
+    private final Map<Player, Integer> seatOf = new IdentityHashMap<>();
+    private int first = -1; // first seat of a round
+    private int cursor = -1; // seat whose turn is next
+    private int alive;
+    private boolean atRoundStart = true;
+    private int turnsTaken;
+    private int rounds;
     private int maxTurns;
+    private Comparator<? super Player> ordering;
 
     /**
      * Initializes the TurnManager with the given players and the maximum number of turns allowed.
      *
-     * @param players The list of players in the game.
+     * @param players The list of players in the game, in turn order.
      * @param maxTurns The maximum number of turns allowed in the game.
      */
     public TurnManager(List<Player> players, int maxTurns) {
-        this.players = players;
         this.maxTurns = maxTurns;
-        this.currentTurn = 0;
+        int capacity = Math.max(4, players != null ? players.size() : 0);
+        this.seats = new Player[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        if (players != null) {
+            for (Player player : players) {
+                addPlayer(player);
+            }
+        }
     }
 
     /**
-     * Adds a player to the turn order.
+     * Adds a player to the end of the turn order.
      *
      * @param player The player to add.
      */
     public void addPlayer(Player player) {
-        players.add(player);
+        if (player == null) {
+            throw new IllegalArgumentException("Player cannot be null.");
+        }
+        if (seatOf.containsKey(player)) {
+            return;
+        }
+        if (seatCount == seats.length) {
+            int capacity = seats.length * 2;
+            seats = Arrays.copyOf(seats, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+        int seat = seatCount++;
+        seats[seat] = player;
+        seatOf.put(player, seat);
+        if (first < 0) {
+            next[seat] = seat;
+            prev[seat] = seat;
+            first = seat;
+            cursor = seat;
+        } else {
+            // Insert before the first seat, i.e. at the end of the round order
+            int last = prev[first];
+            next[last] = seat;
+            prev[seat] = last;
+            next[seat] = first;
+            prev[first] = seat;
+        }
+        alive++;
     }
 
     /**
-     * Advances to the next player's turn.
+     * Takes a player out of the turn order.
      *
-     * @return The player whose turn is next.
+     * @param player The player to remove.
+     * @return True if the player was in the turn order.
+     */
+    public boolean removePlayer(Player player) {
+        Integer seat = seatOf.get(player);
+        if (seat == null || seats[seat] == null) {
+            return false;
+        }
+        if (seat == cursor) {
+            advanceFrom(seat, true);
+        } else {
+            unlink(seat);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the order in which players take their turns, applied at the start of every round. Players
+     * that compare equal keep their current order.
+     *
+     * @param ordering The ordering, e.g. by initiative, or null to keep the order players were added in.
+     */
+    public void setOrdering(Comparator<? super Player> ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * Advances to the next player's turn, skipping players that have been defeated.
+     *
+     * @return The player whose turn is next, or null if no player is left or the turn limit was reached.
      */
     public Player nextPlayer() {
-        Player player = players.get(currentTurn);
-        currentTurn = (currentTurn + 1) % players.size();
-        return player;
+        skipDefeated();
+        if (cursor < 0 || turnsTaken >= maxTurns) {
+            return null;
+        }
+        if (atRoundStart && ordering != null) {
+            reorder();
+        }
+        int seat = cursor;
+        turnsTaken++;
+        atRoundStart = false;
+        advanceFrom(seat, false);
+        return seats[seat];
+    }
+
+    /**
+     * Hands out every remaining turn of the current round at once, in turn order.
+     *
+     * @return The players to take a turn, which is empty if the game is over.
+     */
+    public List<Player> nextRound() {
+        List<Player> batch = new ArrayList<>(alive);
+        while (true) {
+            Player player = nextPlayer();
+            if (player == null) {
+                break;
+            }
+            batch.add(player);
+            if (atRoundStart) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Gets the number of turns taken so far.
+     *
+     * @return The number of turns handed out by {@link #nextPlayer()}.
+     */
+    public int getTurnsTaken() {
+        return turnsTaken;
+    }
+
+    /**
+     * Gets the number of rounds completed so far.
+     *
+     * @return The number of rounds.
+     */
+    public int getRoundsCompleted() {
+        skipDefeated();
+        return rounds;
+    }
+
+    /**
+     * Gets the players still in the turn order.
+     *
+     * @return The players, starting with the one whose turn is next.
+     */
+    public List<Player> getPlayers() {
+        skipDefeated();
+        List<Player> players = new ArrayList<>(alive);
+        for (int seat = cursor, i = 0; i < alive; seat = next[seat], i++) {
+            players.add(seats[seat]);
+        }
+        return players;
+    }
+
+    /**
+     * Checks if the last turn handed out completed a round, so that every player has moved.
+     *
+     * @return True if the next turn starts a new round.
+     */
+    public boolean isRoundComplete() {
+        skipDefeated();
+        return turnsTaken > 0 && atRoundStart;
     }
 
     /**
-     * Checks if the game is over based on the maximum number of turns.
+     * Checks if no turn of the current round has been handed out yet.
+     *
+     * @return True if the next turn starts a new round.
+     */
+    public boolean isRoundStarting() {
+        skipDefeated();
+        return atRoundStart;
+    }
+
+    /**
+     * Checks if the game is over, either because the maximum number of turns was reached or
+     * because no player is left.
      *
      * @return True if the game is over, false otherwise.
      */
     public boolean isGameOver() {
-        return currentTurn >= maxTurns;
+        skipDefeated();
+        return turnsTaken >= maxTurns || alive == 0;
+    }
+
+    /**
+     * Takes defeated players out of the ring until the player whose turn is next is alive.
+     */
+    private void skipDefeated() {
+        while (cursor >= 0 && seats[cursor].getHealth() <= 0) {
+            advanceFrom(cursor, true);
+        }
+    }
+
+    /**
+     * Moves the cursor past a seat, optionally removing the seat, and completes the round if the
+     * cursor passes the end of the ring.
+     */
+    private void advanceFrom(int seat, boolean remove) {
+        int following = next[seat];
+        boolean wasFirst = seat == first;
+        if (remove) {
+            unlink(seat);
+            if (alive == 0) {
+                cursor = -1;
+                return;
+            }
+        }
+        cursor = following;
+        if (cursor == first && !(remove && wasFirst)) {
+            if (!atRoundStart) {
+                rounds++;
+            }
+            atRoundStart = true;
+        }
+    }
+
+    private void unlink(int seat) {
+        Player player = seats[seat];
+        seats[seat] = null;
+        seatOf.remove(player);
+        alive--;
+        if (alive == 0) {
+            first = -1;
+            return;
+        }
+        next[prev[seat]] = next[seat];
+        prev[next[seat]] = prev[seat];
+        if (seat == first) {
+            first = next[seat];
+        }
+    }
+
+    /**
+     * Relinks the ring in the current ordering, starting a round from its first player.
+     */
+    private void reorder() {
+        List<Integer> order = new ArrayList<>(alive);
+        for (int seat = first, i = 0; i < alive; seat = next[seat], i++) {
+            order.add(seat);
+        }
+        order.sort((a, b) -> ordering.compare(seats[a], seats[b]));
+        for (int i = 0; i < order.size(); i++) {
+            int seat = order.get(i);
+            next[seat] = order.get((i + 1) % order.size());
+            prev[seat] = order.get((i + order.size() - 1) % order.size());
+        }
+        first = order.get(0);
+        cursor = first;
     }
 }
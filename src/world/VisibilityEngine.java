@@ -0,0 +1,110 @@
+package world;
+
+import java.util.BitSet;
+
+/**
+ * VisibilityEngine decides which spaces players can see into.
+ * A space can see itself and its neighbors, except that a space holding a pet cannot be seen
+ * from anywhere else. Pet positions are kept as a bitset over space ids that is updated as pets
+ * move, so visibility queries never scan the world.
+ */
+public class VisibilityEngine {
+    private final World world;
+    private SpaceGraph graph;
+    private int[] petCounts;
+    private final BitSet hidden;
+
+    /**
+     * Initializes a VisibilityEngine for the given world.
+     *
+     * @param world The world whose spaces are checked.
+     */
+    public VisibilityEngine(World world) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null.");
+        }
+        this.world = world;
+        this.hidden = new BitSet();
+    }
+
+    /**
+     * Checks whether a space is hidden from its neighbors by a pet.
+     *
+     * @param space The space to check.
+     * @return True if a pet is in the space.
+     */
+    public boolean isHidden(Space space) {
+        SpaceGraph current = sync();
+        int id = current.idOf(space);
+        return id >= 0 ? hidden.get(id) : !space.getPets().isEmpty();
+    }
+
+    /**
+     * Checks whether a player in one space can see into another.
+     *
+     * @param from The space the player is in.
+     * @param to   The space being looked at.
+     * @return True if {@code to} is {@code from}, or a neighbor of it that no pet hides.
+     */
+    public boolean canSee(Space from, Space to) {
+        if (from == null || to == null) {
+            return false;
+        }
+        if (from == to) {
+            return true;
+        }
+        return from.hasNeighbor(to) && !isHidden(to);
+    }
+
+    /**
+     * Records that a pet entered a space.
+     *
+     * @param space The space the pet entered.
+     */
+    void petEntered(Space space) {
+        int id = trackedId(space);
+        if (id >= 0 && petCounts[id]++ == 0) {
+            hidden.set(id);
+        }
+    }
+
+    /**
+     * Records that a pet left a space.
+     *
+     * @param space The space the pet left.
+     */
+    void petLeft(Space space) {
+        int id = trackedId(space);
+        if (id >= 0 && petCounts[id] > 0 && --petCounts[id] == 0) {
+            hidden.clear(id);
+        }
+    }
+
+    /**
+     * Gets the id of a space if the pet counts are in step with the world's current graph.
+     * When they are not, the next query rebuilds them, so the update can be skipped.
+     */
+    private int trackedId(Space space) {
+        if (graph == null || graph != world.peekGraph()) {
+            return -1;
+        }
+        return graph.idOf(space);
+    }
+
+    private SpaceGraph sync() {
+        SpaceGraph current = world.getGraph();
+        if (current != graph) {
+            int[] counts = new int[current.size()];
+            hidden.clear();
+            for (int id = 0; id < counts.length; id++) {
+                counts[id] = current.getSpace(id).getPets().size();
+                if (counts[id] > 0) {
+                    hidden.set(id);
+                }
+            }
+            petCounts = counts;
+            graph = current;
+        }
+        return current;
+    }
+}
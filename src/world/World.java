@@ -1,9 +1,26 @@
 package world;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
+import strategy.ChaseField;
+import strategy.MoveStrategy;
+import strategy.PathFinder;
 import strategy.TargetStrategy;
 
 /**
@@ -11,31 +28,78 @@ import strategy.TargetStrategy;
  */
 public class World {
     private static final Logger LOGGER = Logger.getLogger(World.class.getName());
-    private List<Space> spaces;
-    private List<Item> items;
+    private static final Object LOOSE = new Object(); // location of items that are in no space
+    private final SpaceList spaces;
+    private final Map<String, Space> spaceIndex;
+    private final List<Player> players;
+    private final List<Player> playersView;
+    private final Map<Player, PlayerEntry> playerEntries;
+    private final List<Player> playersById;
+    private SpaceGraph graph;
+    private long topologyVersion;
+    private DistanceOracle distanceOracle;
+    private PathFinder pathFinder;
+    private ChaseField chaseField;
+    private final AtomicLong occupancyVersion = new AtomicLong();
+    private VisibilityEngine visibility;
+    private final Map<Item, Object> itemLocations; // a Space, the Player carrying it, or LOOSE
+    private final Set<Item> items; // items in the world that no player carries
+    private final Collection<Item> itemsView;
     private Player target;
-    private Pet pet;
+    private final List<Pet> pets; // pets.get(0) is the target's pet
+    private final List<Pet> petsView;
     private TargetStrategy strategy;
+    private GameOutput output = GameOutput.CONSOLE;
+    private GameEventSink events = GameEventSink.CONSOLE;
+    private volatile WorldSnapshot snapshot = WorldSnapshot.empty();
+    private long snapshotVersion;
+    private boolean snapshotStale = true; // every space must be captured again
+    private final Queue<Space> changedSpaces = new ConcurrentLinkedQueue<>(); // each at most once, see Space.snapshotDirty
+    private final Map<Space, Integer> snapshotPositions = new IdentityHashMap<>();
+    private final Object registryLock = new Object(); // guards player and item registries when characters move concurrently
 
     /**
      * Initializes the World with spaces, items, a target, pet, and movement strategy.
      *
      * @param spaces   The list of spaces in the world.
-     * @param items    The list of items in the world.
+     * @param items    The items in the world.
      * @param target   The target character.
      * @param pet      The pet associated with the target character.
      * @param strategy The strategy used for target movement.
      */
-    public World(List<Space> spaces, List<Item> items, Player target, Pet pet, TargetStrategy strategy) {
-        this.spaces = spaces != null ? spaces : new ArrayList<>();
-        this.items = items != null ? items : new ArrayList<>();
+    public World(List<Space> spaces, Collection<Item> items, Player target, Pet pet, TargetStrategy strategy) {
+        this.spaceIndex = new HashMap<>();
+        this.players = new ArrayList<>();
+        this.playersView = Collections.unmodifiableList(this.players);
+        this.playerEntries = new ConcurrentHashMap<>();
+        this.playersById = new ArrayList<>();
+        this.spaces = new SpaceList();
+        if (spaces != null) {
+            this.spaces.addAll(spaces);
+        }
+        this.itemLocations = new IdentityHashMap<>();
+        this.items = new LinkedHashSet<>();
+        this.itemsView = Collections.unmodifiableSet(this.items);
+        if (items != null) {
+            for (Item item : items) {
+                if (item != null && !itemLocations.containsKey(item)) {
+                    itemLocations.put(item, LOOSE);
+                    this.items.add(item);
+                }
+            }
+        }
         this.target = target;
-        this.pet = pet;
+        this.pets = new ArrayList<>();
+        this.petsView = Collections.unmodifiableList(this.pets);
+        if (pet != null) {
+            this.pets.add(pet);
+        }
         this.strategy = strategy;
     }
 
     /**
-     * Gets the list of spaces in the world.
+     * Gets the list of spaces in the world. Changes made through the returned list
+     * are reflected in the name index used by {@link #getSpace(String)}.
      *
      * @return The list of spaces.
      */
@@ -44,12 +108,109 @@ public class World {
     }
 
     /**
-     * Gets the list of items in the world.
+     * Looks up a space by name, ignoring case.
+     *
+     * @param name The name of the space.
+     * @return The space with the given name, or null if there is none.
+     */
+    public Space getSpace(String name) {
+        if (name == null) {
+            return null;
+        }
+        return spaceIndex.get(normalizeName(name));
+    }
+
+    /**
+     * Gets the compact adjacency graph of the world's spaces, building it if the topology changed
+     * since it was last built. Building the graph assigns every space its id and lets spaces drop
+     * their own neighbor lists in favor of views over the graph.
+     *
+     * @return The space graph.
+     */
+    public SpaceGraph getGraph() {
+        if (graph == null) {
+            SpaceGraph built = SpaceGraph.build(spaces, true, topologyVersion);
+            for (Space space : spaces) {
+                space.compactNeighbors(built);
+            }
+            graph = built;
+        }
+        return graph;
+    }
+
+    /**
+     * Gets the shared distance oracle for this world's spaces.
      *
-     * @return The list of items.
+     * @return The distance oracle.
      */
-    public List<Item> getItems() {
-        return items;
+    public DistanceOracle getDistanceOracle() {
+        if (distanceOracle == null) {
+            distanceOracle = new DistanceOracle(this);
+        }
+        return distanceOracle;
+    }
+
+    /**
+     * Gets the shared path finder for this world's spaces.
+     *
+     * @return The path finder.
+     */
+    public PathFinder getPathFinder() {
+        if (pathFinder == null) {
+            pathFinder = new PathFinder(this);
+        }
+        return pathFinder;
+    }
+
+    /**
+     * Gets the flow field shared by the characters chasing players in this world.
+     *
+     * @return The chase field.
+     */
+    public ChaseField getChaseField() {
+        if (chaseField == null) {
+            chaseField = new ChaseField(this);
+        }
+        return chaseField;
+    }
+
+    /**
+     * Gets a counter that changes whenever spaces or their connections change.
+     *
+     * @return The topology version.
+     */
+    public long getTopologyVersion() {
+        return topologyVersion;
+    }
+
+    /**
+     * Gets a counter that changes whenever a player enters or leaves a space of this world, and
+     * whenever a player in one of its spaces is defeated or brought back to life.
+     *
+     * @return The occupancy version.
+     */
+    public long getOccupancyVersion() {
+        return occupancyVersion.get();
+    }
+
+    /**
+     * Registers several spaces at once.
+     *
+     * @param newSpaces The spaces to add to the world.
+     */
+    public void addSpaces(Collection<? extends Space> newSpaces) {
+        if (newSpaces != null) {
+            spaces.addAll(newSpaces);
+        }
+    }
+
+    /**
+     * Gets the items in the world that are not carried by a player.
+     *
+     * @return A read-only view of the items.
+     */
+    public Collection<Item> getItems() {
+        return itemsView;
     }
 
     /**
@@ -63,7 +224,8 @@ public class World {
             return;
         }
 
-        if (!items.contains(item)) {
+        if (!itemLocations.containsKey(item)) {
+            itemLocations.put(item, LOOSE);
             items.add(item);
             LOGGER.info("Item added: " + item.getName());
         } else {
@@ -72,7 +234,7 @@ public class World {
     }
 
     /**
-     * Removes an item from the world.
+     * Removes an item from the world, taking it out of the space that holds it.
      *
      * @param item The item to be removed.
      */
@@ -82,43 +244,227 @@ public class World {
             return;
         }
 
-        if (items.contains(item)) {
-            items.remove(item);
-            LOGGER.info("Item removed: " + item.getName());
-        } else {
-            LOGGER.warning("Attempted to remove an item that does not exist in the world: " + item.getName());
+        while (true) {
+            Space space = getItemSpace(item);
+            SpaceLocks.lock(space);
+            try {
+                synchronized (registryLock) {
+                    Object location = itemLocations.get(item);
+                    if (location instanceof Space && location != space) { // the item moved meanwhile; retry
+                        continue;
+                    }
+                    if (location != null && !(location instanceof Player)) {
+                        if (space != null) {
+                            space.detachItem(item);
+                        }
+                        itemLocations.remove(item);
+                        items.remove(item);
+                        LOGGER.info("Item removed: " + item.getName());
+                    } else {
+                        LOGGER.warning("Attempted to remove an item that does not exist in the world: " + item.getName());
+                    }
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(space);
+            }
         }
     }
 
     /**
-     * Gets the pet associated with the target character.
+     * Gets the space an item lies in.
      *
-     * @return The pet.
+     * @param item The item to look up.
+     * @return The space holding the item, or null if it is carried or in no space.
+     */
+    public Space getItemSpace(Item item) {
+        Object location;
+        synchronized (registryLock) {
+            location = itemLocations.get(item);
+        }
+        return location instanceof Space ? (Space) location : null;
+    }
+
+    /**
+     * Gets the player carrying an item.
+     *
+     * @param item The item to look up.
+     * @return The player carrying the item, or null if no player in this world carries it.
+     */
+    public Player getItemHolder(Item item) {
+        Object location;
+        synchronized (registryLock) {
+            location = itemLocations.get(item);
+        }
+        return location instanceof Player ? (Player) location : null;
+    }
+
+    /**
+     * Gets the pet associated with the target character, which is the first pet of the world.
+     *
+     * @return The pet, or null if the world has no pets.
      */
     public Pet getPet() {
-        return pet;
+        return pets.isEmpty() ? null : pets.get(0);
+    }
+
+    /**
+     * Gets a pet by its index in the world.
+     *
+     * @param index The index, from 0 to {@link #getPetCount()} - 1.
+     * @return The pet.
+     */
+    public Pet getPet(int index) {
+        return pets.get(index);
     }
 
     /**
-     * Moves the pet according to its strategy.
+     * Gets the number of pets in the world.
+     *
+     * @return The pet count.
+     */
+    public int getPetCount() {
+        return pets.size();
+    }
+
+    /**
+     * Moves the pet associated with the target character according to its strategy.
      */
     public void movePet() {
+        Pet pet = getPet();
         if (pet != null && pet.getStrategy() != null) {
             pet.getStrategy().movePet(pet, this);
         }
     }
 
     /**
-     * Gets the list of all pets in the world.
+     * Moves every pet once according to its own strategy, in the order the pets were added.
+     */
+    public void movePets() {
+        for (int i = 0, count = pets.size(); i < count; i++) {
+            Pet pet = pets.get(i);
+            MoveStrategy petStrategy = pet.getStrategy();
+            if (petStrategy != null) {
+                petStrategy.movePet(pet, this);
+            }
+        }
+    }
+
+    /**
+     * Gets the list of all pets in the world. The returned list is a read-only view that follows
+     * pets as they are added and removed.
      *
-     * @return The list of pets.
+     * @return The list of pets, indexed as in {@link #getPet(int)}.
      */
     public List<Pet> getPets() {
-        List<Pet> pets = new ArrayList<>();
-        if (pet != null) {
+        return petsView;
+    }
+
+    /**
+     * Adds a pet to the world after the pets already in it.
+     *
+     * @param pet The pet to add.
+     * @return The index of the pet.
+     */
+    public int addPet(Pet pet) {
+        if (pet == null) {
+            throw new IllegalArgumentException("Pet cannot be null.");
+        }
+        int index = pets.indexOf(pet);
+        if (index < 0) {
+            pet.setWorld(this);
             pets.add(pet);
+            index = pets.size() - 1;
+        }
+        return index;
+    }
+
+    /**
+     * Takes a pet out of the world and out of its space. Pets after it move up one index.
+     *
+     * @param pet The pet to remove.
+     * @return True if the pet was in the world.
+     */
+    public boolean removePet(Pet pet) {
+        if (!pets.remove(pet)) {
+            return false;
         }
-        return pets;
+        pet.moveTo(null);
+        pet.setWorld(null);
+        return true;
+    }
+
+    /**
+     * Gets the target character.
+     *
+     * @return The target, or null if the world has none.
+     */
+    public Player getTarget() {
+        return target;
+    }
+
+    /**
+     * Sets the target character.
+     *
+     * @param target The new target.
+     */
+    public void setTarget(Player target) {
+        this.target = target;
+    }
+
+    /**
+     * Gets the output that game messages in this world are printed to.
+     *
+     * @return The output.
+     */
+    public GameOutput getOutput() {
+        return output;
+    }
+
+    /**
+     * Sets the output that game messages in this world are printed to. Events are formatted as
+     * soon as they happen and printed to the output.
+     *
+     * @param output The new output, or null to print to the console.
+     */
+    public void setOutput(GameOutput output) {
+        this.output = output != null ? output : GameOutput.CONSOLE;
+        this.events = GameEventSink.text(this.output);
+    }
+
+    /**
+     * Gets the sink that the events of this world are published to.
+     *
+     * @return The event sink.
+     */
+    public GameEventSink getEventSink() {
+        return events;
+    }
+
+    /**
+     * Sets the sink that the events of this world are published to. Plain text messages, such as
+     * those printed through {@link #getOutput()}, are published to the same sink as
+     * {@link GameEvent.Type#MESSAGE} events so they stay in order with the other events.
+     *
+     * @param sink The new sink, or null to print events to the console.
+     */
+    public void setEventSink(GameEventSink sink) {
+        if (sink == null) {
+            setOutput(GameOutput.CONSOLE);
+            return;
+        }
+        this.events = sink;
+        this.output = new GameOutput() {
+            @Override
+            public void println(String message) {
+                sink.publish(GameEvent.message(message));
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return sink.isEnabled();
+            }
+        };
     }
 
     /**
@@ -142,38 +488,144 @@ public class World {
             return;
         }
 
-        Space currentSpace = player.getCurrentSpace();
-        if (currentSpace != null && currentSpace.getItems().contains(item) && items.contains(item)) {
-            // Remove item from space and world only if both contain the item
-            boolean removedFromSpace = currentSpace.getItems().remove(item);
-            boolean removedFromWorld = items.remove(item);
+        while (true) {
+            Space currentSpace = player.getCurrentSpace();
+            SpaceLocks.lock(currentSpace);
+            try {
+                if (player.getCurrentSpace() != currentSpace) { // the player moved meanwhile; retry
+                    continue;
+                }
+                synchronized (registryLock) {
+                    if (currentSpace == null || itemLocations.get(item) != currentSpace) {
+                        LOGGER.warning("Item not available in the current space or the world: " + item.getName());
+                    } else if (player.getInventory().addItem(item)) {
+                        currentSpace.detachItem(item);
+                        itemLocations.put(item, player);
+                        items.remove(item);
+                        LOGGER.info(player.getName() + " picked up item: " + item.getName());
+                    } else {
+                        LOGGER.warning(player.getName() + " has no room for item: " + item.getName());
+                    }
+                }
+                return;
+            } finally {
+                SpaceLocks.unlock(currentSpace);
+            }
+        }
+    }
+
+    /**
+     * Allows a player to drop a carried item into the current space.
+     *
+     * @param player The player dropping the item.
+     * @param item   The item to be dropped.
+     */
+    public void playerDropItem(Player player, Item item) {
+        if (player == null || item == null) {
+            LOGGER.warning("Attempted to drop a null player or item.");
+            return;
+        }
 
-            if (removedFromSpace && removedFromWorld) {
-                if (!player.getInventory().contains(item)) {
-                    player.pickUpItem(item);  // Player picks up item
-                    LOGGER.info(player.getName() + " picked up item: " + item.getName());
-                } else {
-                    LOGGER.warning("Attempted to add a duplicate item to player's inventory: " + item.getName());
+        while (true) {
+            Space currentSpace = player.getCurrentSpace();
+            SpaceLocks.lock(currentSpace);
+            try {
+                if (player.getCurrentSpace() != currentSpace) { // the player moved meanwhile; retry
+                    continue;
                 }
-            } else {
-                LOGGER.warning("Failed to remove item from space or world.");
+                synchronized (registryLock) {
+                    if (currentSpace == null || itemLocations.get(item) != player || !player.getInventory().remove(item)) {
+                        LOGGER.warning(player.getName() + " cannot drop an item it does not carry: " + item.getName());
+                        return;
+                    }
+                    currentSpace.attachItem(item);
+                    itemLocations.put(item, currentSpace);
+                    items.add(item);
+                }
+                LOGGER.info(player.getName() + " dropped item: " + item.getName());
+                return;
+            } finally {
+                SpaceLocks.unlock(currentSpace);
             }
-        } else {
-            LOGGER.warning("Item not available in the current space or the world: " + item.getName());
         }
     }
 
     /**
-     * Gets the list of all players in the world by iterating over all spaces.
+     * Hands as many carried items as fit from one player to another, best items first.
+     *
+     * @param from The player giving up items.
+     * @param to   The player receiving them.
+     * @return The number of items handed over.
+     */
+    public int transferItems(Player from, Player to) {
+        if (from == null || to == null) {
+            LOGGER.warning("Attempted to transfer items with a null player.");
+            return 0;
+        }
+
+        synchronized (registryLock) {
+            List<Item> moved = from.getInventory().transferTo(to.getInventory());
+            for (Item item : moved) {
+                if (itemLocations.get(item) == from) {
+                    itemLocations.put(item, to);
+                }
+            }
+            return moved.size();
+        }
+    }
+
+    /**
+     * Gets the players currently placed in a space of this world. The returned list is a
+     * read-only view that follows players as they enter and leave spaces.
      *
      * @return The list of players.
      */
     public List<Player> getPlayers() {
-        List<Player> players = new ArrayList<>();
-        for (Space space : spaces) {
-            players.addAll(space.getPlayers());
+        return playersView;
+    }
+
+    /**
+     * Gets the number of players currently placed in this world.
+     *
+     * @return The player count.
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Gets the space a player currently occupies in this world.
+     *
+     * @param player The player to look up.
+     * @return The player's space, or null if the player is not in this world.
+     */
+    public Space getPlayerSpace(Player player) {
+        PlayerEntry entry = playerEntries.get(player);
+        return entry != null ? entry.space : null;
+    }
+
+    /**
+     * Gets the id the world assigned to a player when it first entered one of its spaces.
+     *
+     * @param player The player to look up.
+     * @return The player's id, or -1 if the player is not in this world.
+     */
+    public int getPlayerId(Player player) {
+        PlayerEntry entry = playerEntries.get(player);
+        return entry != null ? entry.id : -1;
+    }
+
+    /**
+     * Gets a player by the id assigned to it by this world.
+     *
+     * @param id The player id.
+     * @return The player, or null if no player in the world has that id.
+     */
+    public Player getPlayerById(int id) {
+        if (id < 0 || id >= playersById.size()) {
+            return null;
         }
-        return players;
+        return playersById.get(id);
     }
 
     /**
@@ -184,13 +636,15 @@ public class World {
     public void setPlayers(List<Player> players) {
         // Clear current players from all spaces
         for (Space space : spaces) {
-            space.getPlayers().clear();
+            for (Player player : new ArrayList<>(space.getPlayers())) {
+                space.removePlayer(player);
+            }
         }
 
         // Distribute the players among the spaces or reset their current space
         for (Player player : players) {
             Space currentSpace = player.getCurrentSpace();
-            if (currentSpace != null && spaces.contains(currentSpace)) {
+            if (currentSpace != null && (currentSpace.getWorld() == this || spaces.contains(currentSpace))) {
                 currentSpace.addPlayer(player);
             } else {
                 // Assign a default space if the current space is null or invalid
@@ -205,14 +659,68 @@ public class World {
     }
 
     /**
-     * Determines if a space is visible to the player.
+     * Determines if a space can be seen from its neighbors, which is not the case while a pet is in it.
      *
      * @param space The space to check.
      * @return True if the space is visible, false otherwise.
      */
     public boolean isVisible(Space space) {
-        // Placeholder logic: This should be updated with the actual visibility logic
-        return space != null;
+        return space != null && !getVisibility().isHidden(space);
+    }
+
+    /**
+     * Determines if a player standing in one space can see into another.
+     *
+     * @param from The space the player is in.
+     * @param to   The space to check.
+     * @return True if the space is visible from {@code from}, false otherwise.
+     */
+    public boolean isVisible(Space from, Space to) {
+        return getVisibility().canSee(from, to);
+    }
+
+    /**
+     * Finds a player, other than the attacker and the target, who can see what happens in a space:
+     * anyone in the space itself, or in a neighboring space that can see into it.
+     *
+     * @param space    The space to watch.
+     * @param attacker The attacking player.
+     * @param target   The attacked player.
+     * @return A witness, or null if nobody can see the space.
+     */
+    public Player findWitness(Space space, Player attacker, Player target) {
+        for (Player player : space.getPlayers()) {
+            if (player != attacker && player != target) {
+                return player;
+            }
+        }
+
+        SpaceGraph current = getGraph();
+        int id = current.idOf(space);
+        if (id < 0 || getVisibility().isHidden(space)) {
+            return null;
+        }
+        SpaceGraph incoming = current.reverse();
+        for (int e = incoming.edgeStart(id), end = incoming.edgeEnd(id); e < end; e++) {
+            for (Player player : incoming.getSpace(incoming.edgeTarget(e)).getPlayers()) {
+                if (player != attacker && player != target) {
+                    return player;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the visibility engine of this world.
+     *
+     * @return The visibility engine.
+     */
+    public VisibilityEngine getVisibility() {
+        if (visibility == null) {
+            visibility = new VisibilityEngine(this);
+        }
+        return visibility;
     }
 
     /**
@@ -221,7 +729,9 @@ public class World {
      * @param spaces The list of spaces to set.
      */
     public void setSpaces(List<Space> spaces) {
-        this.spaces = spaces != null ? spaces : new ArrayList<>();
+        List<Space> replacement = spaces != null ? new ArrayList<>(spaces) : new ArrayList<>();
+        this.spaces.clear();
+        this.spaces.addAll(replacement);
     }
 
     /**
@@ -243,11 +753,530 @@ public class World {
     }
 
     /**
-     * Sets the pet in the world.
+     * Sets the pet associated with the target character, replacing the first pet of the world. The
+     * replaced pet leaves the world and its space, as with {@link #removePet(Pet)}.
      *
-     * @param pet The pet to set.
+     * @param pet The pet to set, or null to remove the first pet.
      */
     public void setPet(Pet pet) {
-        this.pet = pet;
+        Pet previous = getPet();
+        if (previous != null && previous != pet) {
+            removePet(previous);
+        }
+        if (pet != null) {
+            int index = addPet(pet);
+            if (index > 0) {
+                pets.add(0, pets.remove(index));
+            }
+        }
+    }
+
+    /**
+     * Gets the most recently published snapshot of this world. Safe to call from any thread.
+     *
+     * @return The latest snapshot, which is empty until one has been published.
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes a snapshot of the current state of every space, for readers on other threads.
+     * Only spaces that changed since the previous snapshot are captured again; the rest are shared
+     * with it. Must be called by the thread that changes the world, typically after each turn.
+     *
+     * @return The published snapshot, which is the previous one if nothing changed.
+     */
+    public WorldSnapshot publishSnapshot() {
+        WorldSnapshot previous = snapshot;
+        WorldSnapshot next;
+        List<Space> changedSince = drainChangedSpaces();
+        if (snapshotStale) {
+            next = WorldSnapshot.capture(++snapshotVersion, spaces);
+            snapshotPositions.clear();
+            for (int i = 0; i < spaces.size(); i++) {
+                snapshotPositions.putIfAbsent(spaces.get(i), i);
+            }
+            snapshotStale = false;
+        } else if (!changedSince.isEmpty()) {
+            int[] positions = new int[changedSince.size()];
+            Space[] changed = new Space[positions.length];
+            int count = 0;
+            for (Space space : changedSince) {
+                Integer position = snapshotPositions.get(space);
+                if (position != null) {
+                    positions[count] = position;
+                    changed[count++] = space;
+                }
+            }
+            next = count > 0 ? previous.update(++snapshotVersion, positions, changed, count) : previous;
+        } else {
+            return previous;
+        }
+        snapshot = next;
+        return next;
+    }
+
+    /**
+     * Takes every space marked as changed off the queue and clears its mark, under the space's
+     * lock, so a change made while the snapshot is being built marks the space again.
+     *
+     * @return The changed spaces.
+     */
+    private List<Space> drainChangedSpaces() {
+        List<Space> drained = new ArrayList<>();
+        Space space;
+        while ((space = changedSpaces.poll()) != null) {
+            SpaceLocks.lock(space);
+            try {
+                space.snapshotDirty = false;
+            } finally {
+                SpaceLocks.unlock(space);
+            }
+            drained.add(space);
+        }
+        return drained;
+    }
+
+    /**
+     * Creates an independent copy of this world for running a separate game.
+     * Spaces, connections, players, the target and the pet are duplicated, and every item is
+     * placed in the matching space or inventory of the copy. Items themselves are immutable and
+     * shared. Strategies are shared as well, so stateful or seeded strategies should be replaced
+     * on the copy before it is played.
+     *
+     * @return The copy.
+     */
+    public World copy() {
+        World copy = new World(new ArrayList<>(), new ArrayList<>(), null, null, strategy);
+        copy.output = output;
+        copy.events = events;
+
+        Map<Space, Space> spaceCopies = new IdentityHashMap<>();
+        List<Space> newSpaces = new ArrayList<>(spaces.size());
+        for (Space space : spaces) {
+            Space spaceCopy = new Space(space.getName(), copy);
+            spaceCopies.put(space, spaceCopy);
+            newSpaces.add(spaceCopy);
+        }
+        copy.spaces.addAll(newSpaces);
+        for (Space space : spaces) {
+            Space spaceCopy = spaceCopies.get(space);
+            for (Space neighbor : space.getNeighbors()) {
+                Space neighborCopy = spaceCopies.get(neighbor);
+                if (neighborCopy != null) {
+                    spaceCopy.addNeighbor(neighborCopy);
+                }
+            }
+            for (Item item : space.getItems()) {
+                spaceCopy.attachItem(item);
+                copy.itemLocations.put(item, spaceCopy);
+                copy.items.add(item);
+            }
+        }
+        for (Item item : items) {
+            if (itemLocations.get(item) == LOOSE) {
+                copy.itemLocations.put(item, LOOSE);
+                copy.items.add(item);
+            }
+        }
+
+        Map<Player, Player> playerCopies = new IdentityHashMap<>();
+        for (Player player : players) {
+            Player playerCopy = copyPlayer(player, spaceCopies.get(player.getCurrentSpace()));
+            if (playerCopy != null) {
+                playerCopies.put(player, playerCopy);
+                for (Item item : player.getInventory().getTopItems(player.getInventory().size())) {
+                    playerCopy.getInventory().addItem(item);
+                    copy.itemLocations.put(item, playerCopy);
+                }
+            }
+        }
+        if (target != null) {
+            copy.target = playerCopies.containsKey(target) ? playerCopies.get(target)
+                    : copyPlayer(target, spaceCopies.get(target.getCurrentSpace()));
+        }
+        for (Pet pet : pets) {
+            Pet petCopy = new Pet(pet.getName(), spaceCopies.get(pet.getCurrentSpace()), pet.getStrategy());
+            petCopy.setWorld(copy);
+            copy.pets.add(petCopy);
+        }
+        return copy;
+    }
+
+    private static Player copyPlayer(Player player, Space space) {
+        if (space == null) {
+            return null;
+        }
+        Player playerCopy;
+        if (player instanceof AIPlayer) {
+            AIPlayer ai = (AIPlayer) player;
+            playerCopy = new AIPlayer(ai.getName(), ai.getHealth(), space, ai.getStrategy(), ai.getInventory().getCapacity());
+        } else if (player instanceof HumanPlayer) {
+            playerCopy = new HumanPlayer(player.getName(), player.getHealth(), space, player.getInventory().getCapacity());
+        } else {
+            LOGGER.warning("Cannot copy player of type " + player.getClass().getName() + ": " + player.getName());
+            return null;
+        }
+        space.addPlayer(playerCopy);
+        return playerCopy;
+    }
+
+    /**
+     * Gets the space graph if it is up to date, without building it.
+     *
+     * @return The current graph, or null if it needs to be rebuilt.
+     */
+    SpaceGraph peekGraph() {
+        return graph;
+    }
+
+    /**
+     * Records that a pet entered a space of this world.
+     *
+     * @param space The space the pet entered.
+     */
+    void onPetEntered(Space space) {
+        VisibilityEngine current = visibility;
+        if (current != null) {
+            synchronized (current) {
+                current.petEntered(space);
+            }
+        }
+    }
+
+    /**
+     * Records that a pet left a space of this world.
+     *
+     * @param space The space the pet left.
+     */
+    void onPetLeft(Space space) {
+        VisibilityEngine current = visibility;
+        if (current != null) {
+            synchronized (current) {
+                current.petLeft(space);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the space graph after spaces or their connections changed.
+     */
+    void onTopologyChanged() {
+        topologyVersion++;
+        graph = null;
+        snapshotStale = true;
+    }
+
+    /**
+     * Records that the contents of a space changed, so the next snapshot captures it again.
+     *
+     * @param space The space that changed.
+     */
+    void onSpaceChanged(Space space) {
+        if (!snapshotStale && !space.snapshotDirty) {
+            space.snapshotDirty = true;
+            changedSpaces.add(space);
+        }
+    }
+
+    /**
+     * Updates the name index after a space in this world has been renamed.
+     *
+     * @param space   The renamed space.
+     * @param oldName The name the space had before.
+     */
+    void onSpaceRenamed(Space space, String oldName) {
+        spaces.rename(space, normalizeName(oldName));
+        snapshotStale = true;
+    }
+
+    /**
+     * Records that a player now occupies a space of this world.
+     *
+     * @param player The player.
+     * @param space  The space the player occupies.
+     */
+    void registerPlayer(Player player, Space space) {
+        PlayerEntry entry = playerEntries.get(player);
+        if (entry == null) {
+            synchronized (registryLock) {
+                entry = playerEntries.get(player);
+                if (entry == null) {
+                    entry = new PlayerEntry(playersById.size(), players.size());
+                    playersById.add(player);
+                    players.add(player);
+                    playerEntries.put(player, entry);
+                }
+            }
+        }
+        entry.space = space;
+        occupancyVersion.incrementAndGet();
+    }
+
+    /**
+     * Records that a player in a space of this world was defeated or brought back to life.
+     */
+    void onPlayerLifeChanged() {
+        occupancyVersion.incrementAndGet();
+    }
+
+    /**
+     * Records that a player has left a space of this world without entering another one.
+     *
+     * @param player The player.
+     * @param space  The space the player left.
+     */
+    void unregisterPlayer(Player player, Space space) {
+        synchronized (registryLock) {
+            PlayerEntry entry = playerEntries.get(player);
+            if (entry == null || entry.space != space) {
+                return;
+            }
+            occupancyVersion.incrementAndGet();
+            playerEntries.remove(player);
+            playersById.set(entry.id, null);
+
+            // Swap the last player into the freed slot so removal stays constant time
+            Player last = players.remove(players.size() - 1);
+            if (last != player) {
+                players.set(entry.slot, last);
+                playerEntries.get(last).slot = entry.slot;
+            }
+        }
+    }
+
+    /**
+     * Puts an item in a space of this world and records it there, taking it out of its previous
+     * place. Both spaces are locked while the item moves.
+     *
+     * @param item  The item.
+     * @param space The space now holding the item.
+     */
+    void onItemAdded(Item item, Space space) {
+        while (true) {
+            Space previous = getItemSpace(item);
+            SpaceLocks.lock(previous, space);
+            try {
+                if (getItemSpace(item) == previous) { // otherwise the item moved meanwhile; retry
+                    placeItem(item, space);
+                    return;
+                }
+            } finally {
+                SpaceLocks.unlock(previous, space);
+            }
+        }
+    }
+
+    private void placeItem(Item item, Space space) {
+        space.attachItem(item);
+        synchronized (registryLock) {
+            Object previous = itemLocations.put(item, space);
+            if (previous instanceof Space && previous != space) {
+                ((Space) previous).detachItem(item);
+            } else if (previous instanceof Player) {
+                ((Player) previous).getInventory().remove(item);
+            }
+            items.add(item);
+        }
+    }
+
+    /**
+     * Records that an item was taken out of a space of this world without being carried off.
+     *
+     * @param item  The item.
+     * @param space The space that held the item.
+     */
+    void onItemRemoved(Item item, Space space) {
+        synchronized (registryLock) {
+            if (itemLocations.get(item) == space) {
+                itemLocations.put(item, LOOSE);
+            }
+        }
+    }
+
+    /**
+     * Records that a player now carries an item.
+     *
+     * @param item   The item.
+     * @param player The player carrying it.
+     */
+    void onItemCarried(Item item, Player player) {
+        synchronized (registryLock) {
+            Object previous = itemLocations.put(item, player);
+            if (previous instanceof Space) {
+                ((Space) previous).detachItem(item);
+            }
+            items.remove(item);
+        }
+    }
+
+    /**
+     * Moves a player between two spaces, updating both spaces and the owning worlds' registries.
+     *
+     * @param player The player being moved.
+     * @param from   The space the player leaves, may be null.
+     * @param to     The space the player enters, may be null.
+     */
+    static void relocatePlayer(Player player, Space from, Space to) {
+        World fromWorld = from != null ? from.getWorld() : null;
+        World toWorld = to != null ? to.getWorld() : null;
+        if (from != null) {
+            from.detachPlayer(player);
+            if (fromWorld != null && fromWorld != toWorld) {
+                fromWorld.unregisterPlayer(player, from);
+            }
+        }
+        if (to != null) {
+            to.attachPlayer(player);
+            if (toWorld != null) {
+                toWorld.registerPlayer(player, to);
+            }
+        }
+    }
+
+    static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Registry bookkeeping for a single player.
+     */
+    private static final class PlayerEntry {
+        private final int id;
+        private int slot;
+        private volatile Space space;
+
+        private PlayerEntry(int id, int slot) {
+            this.id = id;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Space list that keeps the name index in step with every structural change.
+     */
+    private final class SpaceList extends AbstractList<Space> implements RandomAccess {
+        private final ArrayList<Space> elements = new ArrayList<>();
+        private int shadowedNames; // spaces hidden in the index by an earlier space of the same name
+
+        @Override
+        public Space get(int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public Space set(int index, Space space) {
+            requireSpace(space);
+            Space old = elements.set(index, space);
+            if (old != space) {
+                old.releaseNeighbors();
+            }
+            unindex(old);
+            index(space);
+            onTopologyChanged();
+            return old;
+        }
+
+        @Override
+        public void add(int index, Space space) {
+            requireSpace(space);
+            elements.add(index, space);
+            modCount++;
+            index(space);
+            onTopologyChanged();
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Space> c) {
+            elements.ensureCapacity(elements.size() + c.size());
+            return super.addAll(c);
+        }
+
+        @Override
+        public Space remove(int index) {
+            Space old = elements.remove(index);
+            modCount++;
+            old.releaseNeighbors();
+            unindex(old);
+            onTopologyChanged();
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            for (Space space : elements) {
+                space.releaseNeighbors();
+            }
+            elements.clear();
+            modCount++;
+            spaceIndex.clear();
+            shadowedNames = 0;
+            onTopologyChanged();
+        }
+
+        private void rename(Space space, String oldKey) {
+            if (spaceIndex.get(oldKey) == space) {
+                spaceIndex.remove(oldKey);
+                reindexName(oldKey);
+                index(space);
+            } else if (shadowedNames > 0) {
+                rebuildIndex();
+            }
+        }
+
+        private void requireSpace(Space space) {
+            if (space == null) {
+                throw new IllegalArgumentException("Space cannot be null.");
+            }
+        }
+
+        private void index(Space space) {
+            Space existing = spaceIndex.putIfAbsent(normalizeName(space.getName()), space);
+            if (existing != null && existing != space) {
+                shadowedNames++;
+            }
+        }
+
+        private void unindex(Space space) {
+            String key = normalizeName(space.getName());
+            Space indexed = spaceIndex.get(key);
+            if (indexed == space) {
+                spaceIndex.remove(key);
+                reindexName(key);
+            } else if (indexed != null && shadowedNames > 0) {
+                shadowedNames--;
+            }
+        }
+
+        /**
+         * Points the index at the first remaining space with the given name, if any.
+         * Only scans when a duplicate name is known to exist.
+         */
+        private void reindexName(String key) {
+            if (shadowedNames == 0) {
+                return;
+            }
+            for (Space candidate : elements) {
+                if (normalizeName(candidate.getName()).equals(key)) {
+                    spaceIndex.put(key, candidate);
+                    shadowedNames--;
+                    return;
+                }
+            }
+        }
+
+        private void rebuildIndex() {
+            spaceIndex.clear();
+            shadowedNames = 0;
+            for (Space space : elements) {
+                index(space);
+            }
+        }
     }
 }
@@ -0,0 +1,141 @@
+package world;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * WorldSnapshot is an immutable view of all spaces of a world as they were when it was published.
+ *
+ * <p>Snapshots are published by the thread running the game, see {@link World#publishSnapshot()},
+ * and can be held and read by any number of other threads without locking. Space records are kept
+ * in fixed-size chunks; a new snapshot copies only the chunks holding spaces that changed since
+ * the previous one and shares all other chunks with it.
+ */
+public final class WorldSnapshot {
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private final long version;
+    private final int size;
+    private final SpaceSnapshot[][] chunks;
+    private final Map<String, Integer> nameIndex;
+    private final List<SpaceSnapshot> spacesView;
+
+    private WorldSnapshot(long version, int size, SpaceSnapshot[][] chunks, Map<String, Integer> nameIndex) {
+        this.version = version;
+        this.size = size;
+        this.chunks = chunks;
+        this.nameIndex = nameIndex;
+        this.spacesView = new SpacesView();
+    }
+
+    /**
+     * Creates an empty snapshot.
+     *
+     * @return A snapshot with version 0 and no spaces.
+     */
+    static WorldSnapshot empty() {
+        return new WorldSnapshot(0, 0, new SpaceSnapshot[0][], Collections.<String, Integer>emptyMap());
+    }
+
+    /**
+     * Captures every space of a list.
+     *
+     * @param version The version of the new snapshot.
+     * @param spaces  The spaces, in world order.
+     * @return The new snapshot.
+     */
+    static WorldSnapshot capture(long version, List<Space> spaces) {
+        int size = spaces.size();
+        SpaceSnapshot[][] chunks = new SpaceSnapshot[(size + CHUNK_SIZE - 1) >> CHUNK_SHIFT][];
+        Map<String, Integer> nameIndex = new HashMap<>();
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = new SpaceSnapshot[Math.min(CHUNK_SIZE, size - (c << CHUNK_SHIFT))];
+        }
+        for (int i = 0; i < size; i++) {
+            Space space = spaces.get(i);
+            chunks[i >> CHUNK_SHIFT][i & (CHUNK_SIZE - 1)] = SpaceSnapshot.capture(space);
+            nameIndex.putIfAbsent(World.normalizeName(space.getName()), i);
+        }
+        return new WorldSnapshot(version, size, chunks, Collections.unmodifiableMap(nameIndex));
+    }
+
+    /**
+     * Creates the next snapshot by recapturing only some spaces and sharing everything else.
+     *
+     * @param version   The version of the new snapshot.
+     * @param positions The positions of the changed spaces.
+     * @param changed   The changed spaces, matching {@code positions}.
+     * @param count     The number of changed spaces.
+     * @return The new snapshot.
+     */
+    WorldSnapshot update(long version, int[] positions, Space[] changed, int count) {
+        SpaceSnapshot[][] next = chunks.clone();
+        boolean[] copied = new boolean[next.length];
+        for (int i = 0; i < count; i++) {
+            int chunk = positions[i] >> CHUNK_SHIFT;
+            if (!copied[chunk]) {
+                next[chunk] = next[chunk].clone();
+                copied[chunk] = true;
+            }
+            next[chunk][positions[i] & (CHUNK_SIZE - 1)] = SpaceSnapshot.capture(changed[i]);
+        }
+        return new WorldSnapshot(version, size, next, nameIndex);
+    }
+
+    /**
+     * Gets the version of this snapshot. Every published snapshot that differs from the previous
+     * one has a higher version.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the recorded spaces, in world order.
+     *
+     * @return A read-only list of space records.
+     */
+    public List<SpaceSnapshot> getSpaces() {
+        return spacesView;
+    }
+
+    /**
+     * Gets a recorded space by name, ignoring case.
+     *
+     * @param name The name of the space.
+     * @return The space record, or null if there is none.
+     */
+    public SpaceSnapshot getSpace(String name) {
+        Integer position = name != null ? nameIndex.get(World.normalizeName(name)) : null;
+        return position != null ? get(position) : null;
+    }
+
+    private SpaceSnapshot get(int index) {
+        return chunks[index >> CHUNK_SHIFT][index & (CHUNK_SIZE - 1)];
+    }
+
+    /**
+     * Read-only list over the chunks.
+     */
+    private final class SpacesView extends AbstractList<SpaceSnapshot> implements RandomAccess {
+        @Override
+        public SpaceSnapshot get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return WorldSnapshot.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
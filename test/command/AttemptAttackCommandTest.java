@@ -92,4 +92,20 @@ public class AttemptAttackCommandTest {
         // Verify the attack did not occur (target's health remains unchanged)
         assertEquals(100, target.getHealth());
     }
+
+    @Test
+    public void testExecuteAttackSeenFromNeighboringSpace() {
+        // Add a witness in a space that can see into the battlefield
+        Space lookout = new Space("Lookout", world);
+        world.getSpaces().add(lookout);
+        lookout.addNeighbor(space);
+        Player witness = new HumanPlayer("Witness", 100, lookout);
+        lookout.addPlayer(witness);
+
+        // Execute the attack command
+        command.execute();
+
+        // Verify the attack was stopped (target's health remains unchanged)
+        assertEquals(100, target.getHealth());
+    }
 }
@@ -107,4 +107,17 @@ public class LookAroundCommandTest {
         assertTrue(result.contains("From here, you can see:"));
         assertTrue(result.contains("Kitchen with no items and no players"));
     }
+
+    @Test
+    public void testExecuteLookAroundNeighborHiddenByPet() {
+        // Put a pet in the neighboring space
+        new Pet("Rex", space2, null);
+
+        // Execute the command to look around the current space
+        command.execute();
+
+        // Verify the neighboring space is reported as not visible
+        String result = outContent.toString();
+        assertTrue(result.contains("Kitchen is not visible."));
+    }
 }
@@ -7,6 +7,7 @@ import world.*;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Test class for the PickUpItemCommand class.
@@ -71,4 +72,19 @@ public class PickUpItemCommandTest {
         assertTrue(space.getItems().contains(item));
         assertFalse(player.getInventory().contains(item));
     }
+
+    @Test
+    public void testExecuteInventoryFull() {
+        List<GameEvent> events = new ArrayList<>();
+        world.setEventSink(events::add);
+        player.getInventory().setCapacity(0);
+
+        command.execute();
+
+        // The item stays put and the full inventory is reported as an event
+        assertTrue(space.getItems().contains(item));
+        assertFalse(player.getInventory().contains(item));
+        assertEquals(1, events.size());
+        assertEquals(GameEvent.Type.INVENTORY_FULL, events.get(0).getType());
+    }
 }
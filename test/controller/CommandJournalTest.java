@@ -0,0 +1,203 @@
+package controller;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import command.AttemptAttackCommand;
+import command.Command;
+import command.MoveCommand;
+import command.PickUpItemCommand;
+import strategy.AIStrategy;
+import strategy.ChasePlayerStrategy;
+import strategy.RandomMoveStrategy;
+import strategy.RandomPetMoveStrategy;
+import strategy.RandomSource;
+import world.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the CommandJournal class.
+ */
+public class CommandJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private World world;
+    private World replica;
+
+    @Before
+    public void setUp() {
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, new RandomMoveStrategy(RandomSource.of(7)));
+        Space hall = new Space("Hall", world);
+        Space kitchen = new Space("Kitchen", world);
+        Space cellar = new Space("Cellar", world);
+        world.addSpaces(Arrays.asList(hall, kitchen, cellar));
+        hall.addNeighbor(kitchen);
+        kitchen.addNeighbor(hall);
+        kitchen.addNeighbor(cellar);
+        cellar.addNeighbor(kitchen);
+
+        Item knife = new Item("Knife", 5, "A sharp knife");
+        kitchen.addItem(knife);
+        world.addItem(knife);
+
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        hall.addPlayer(alice);
+        Player bob = new HumanPlayer("Bob", 100, cellar);
+        cellar.addPlayer(bob);
+        AIPlayer chaser = new AIPlayer("Chaser", 100, cellar, new ChasePlayerStrategy(RandomSource.of(3)));
+        cellar.addPlayer(chaser);
+
+        Player target = new HumanPlayer("Target", 50, hall);
+        hall.addPlayer(target);
+        world.setTarget(target);
+        world.setPet(new Pet("Fortune", cellar, new RandomPetMoveStrategy(RandomSource.of(11))));
+        world.setOutput(GameOutput.NONE);
+
+        // The journal is replayed against a copy taken before the game starts
+        replica = world.copy();
+    }
+
+    @Test
+    public void testReplayRebuildsGame() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CommandJournal journal = new CommandJournal(world, bytes);
+        playGame(journal);
+        journal.close();
+
+        long replayed = CommandJournal.replay(ByteBuffer.wrap(bytes.toByteArray()), replica);
+        assertEquals(journal.getRecordCount(), replayed);
+        assertTrue(replayed > 10);
+        assertEquals(1, replica.getPlayerById(0).getInventory().size()); // Alice picked up the knife
+        assertSameState(world, replica);
+    }
+
+    @Test
+    public void testReplayIncludesAiCommands() throws IOException {
+        // The AI fetches the knife from the kitchen and comes back to attack Bob
+        AIPlayer chaser = (AIPlayer) world.getPlayerById(2);
+        Player bob = world.getPlayerById(1);
+        chaser.setStrategy(new AIStrategy() {
+            private int turn;
+
+            @Override
+            public void decideAction(AIPlayer player, World w) {
+            }
+
+            @Override
+            public Command planAction(AIPlayer player, World w) {
+                switch (turn++) {
+                    case 0:
+                        return new MoveCommand(player, w.getSpace("Kitchen"));
+                    case 1:
+                        return new PickUpItemCommand(player, player.getCurrentSpace().getItems().iterator().next());
+                    case 2:
+                        return new MoveCommand(player, w.getSpace("Cellar"));
+                    case 3:
+                        return new AttemptAttackCommand(player, bob, player.getInventory().getBestItem());
+                    default:
+                        return null;
+                }
+            }
+        });
+
+        world.setStrategy(null); // The target stays in the hall, out of sight of the cellar
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CommandJournal journal = new CommandJournal(world, bytes);
+        GameEngine engine = new GameEngine(world, Collections.singletonList(chaser), InputProvider.PASS, GameOutput.NONE, 6);
+        engine.setJournal(journal);
+        engine.run();
+        journal.close();
+        assertTrue(bob.getHealth() < 100);
+
+        CommandJournal.replay(ByteBuffer.wrap(bytes.toByteArray()), replica);
+        assertEquals(bob.getHealth(), replica.getPlayerById(1).getHealth());
+        assertSameState(world, replica);
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CommandJournal journal = new CommandJournal(world, bytes);
+        playGame(journal);
+        journal.close();
+
+        byte[] data = bytes.toByteArray();
+        ByteBuffer torn = ByteBuffer.wrap(Arrays.copyOf(data, data.length - 3));
+        long replayed = CommandJournal.replay(torn, replica);
+        assertEquals(journal.getRecordCount() - 1, replayed);
+        assertEquals(torn.limit(), torn.position() + 6); // The rest of the cut record is left
+    }
+
+    @Test
+    public void testRecoverContinuesJournal() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("game.journal");
+        World fresh = replica.copy();
+        try (CommandJournal journal = CommandJournal.create(world, path)) {
+            playGame(journal);
+        }
+        // Simulate a crash halfway through writing a record
+        byte[] data = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, data.length - 1));
+
+        long recovered;
+        try (CommandJournal journal = CommandJournal.recover(replica, path)) {
+            recovered = journal.getRecordCount();
+            Player alice = replica.getPlayerById(0);
+            journal.record(new command.LookAroundCommand(alice, replica));
+        }
+        assertEquals(recovered + 1, CommandJournal.replay(ByteBuffer.wrap(Files.readAllBytes(path)), fresh));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherWorld() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new CommandJournal(world, bytes).close();
+        World other = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        CommandJournal.replay(ByteBuffer.wrap(bytes.toByteArray()), other);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsGarbage() throws IOException {
+        CommandJournal.replay(ByteBuffer.wrap(new byte[32]), replica);
+    }
+
+    private void playGame(CommandJournal journal) {
+        // Alice follows the script while the chaser, target and pet move on their own
+        List<Player> players = Arrays.asList(world.getPlayerById(0), world.getPlayerById(2));
+        CommandParser parser = new CommandParser(world);
+        InputProvider input = new ScriptedInputProvider(parser, Arrays.asList(
+                "move kitchen", "look around", "pick up knife", "move cellar", "attack bob", "move kitchen"));
+        GameEngine engine = new GameEngine(world, players, input, GameOutput.NONE, 30);
+        engine.setJournal(journal);
+        engine.run();
+    }
+
+    private static void assertSameState(World expected, World actual) {
+        assertEquals(expected.getPlayerCount(), actual.getPlayerCount());
+        for (int id = 0; id < expected.getPlayerCount(); id++) {
+            Player e = expected.getPlayerById(id);
+            Player a = actual.getPlayerById(id);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getCurrentSpace().getName(), a.getCurrentSpace().getName());
+            assertEquals(e.getHealth(), a.getHealth());
+            assertEquals(e.getInventory().size(), a.getInventory().size());
+        }
+        assertEquals(expected.getTarget().getCurrentSpace().getName(), actual.getTarget().getCurrentSpace().getName());
+        assertEquals(expected.getPet().getCurrentSpace().getName(), actual.getPet().getCurrentSpace().getName());
+        assertEquals(expected.getItems().size(), actual.getItems().size());
+    }
+}
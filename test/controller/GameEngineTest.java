@@ -0,0 +1,175 @@
+package controller;
+
+import org.junit.Before;
+import org.junit.Test;
+import strategy.ChasePlayerStrategy;
+import strategy.RandomMoveStrategy;
+import strategy.RandomSource;
+import world.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the GameEngine class.
+ */
+public class GameEngineTest {
+    private World world;
+    private Space hall;
+    private Space kitchen;
+    private Space cellar;
+
+    @Before
+    public void setUp() {
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        hall = new Space("Hall", world);
+        kitchen = new Space("Kitchen", world);
+        cellar = new Space("Cellar", world);
+        world.addSpaces(Arrays.asList(hall, kitchen, cellar));
+        hall.addNeighbor(kitchen);
+        kitchen.addNeighbor(hall);
+        kitchen.addNeighbor(cellar);
+        cellar.addNeighbor(kitchen);
+    }
+
+    @Test
+    public void testRunsUntilTurnLimit() {
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        hall.addPlayer(alice);
+        Player bob = new HumanPlayer("Bob", 100, cellar);
+        cellar.addPlayer(bob);
+
+        GameEngine engine = new GameEngine(world, Arrays.asList(alice, bob), InputProvider.PASS, GameOutput.NONE, 10);
+        assertEquals(10, engine.run());
+        assertTrue(engine.isGameOver());
+        assertFalse(engine.step());
+    }
+
+    @Test
+    public void testScriptedCommands() {
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        hall.addPlayer(alice);
+        CommandParser parser = new CommandParser(world);
+        InputProvider input = new ScriptedInputProvider(parser, Arrays.asList("move kitchen", "move cellar", "move attic"));
+
+        GameEngine engine = new GameEngine(world, Arrays.asList(alice), input, GameOutput.NONE, 3);
+        engine.run();
+        assertEquals(cellar, alice.getCurrentSpace());
+    }
+
+    @Test
+    public void testAiPlayersAndTargetMove() {
+        Player target = new HumanPlayer("Target", 100, hall);
+        hall.addPlayer(target);
+        world.setTarget(target);
+        world.setStrategy(new RandomMoveStrategy());
+        AIPlayer chaser = new AIPlayer("Chaser", 100, cellar, new ChasePlayerStrategy());
+        cellar.addPlayer(chaser);
+
+        List<String> messages = new ArrayList<>();
+        GameEngine engine = new GameEngine(world, Arrays.asList(chaser), InputProvider.PASS, messages::add, 1);
+        engine.run();
+
+        // The chaser moved towards the target, and the target moved after the round
+        assertNotEquals(cellar, chaser.getCurrentSpace());
+        assertEquals(kitchen, target.getCurrentSpace());
+        assertFalse(messages.isEmpty());
+    }
+
+    @Test
+    public void testDisabledOutputSkipsMessages() {
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        hall.addPlayer(alice);
+        GameOutput failing = new GameOutput() {
+            @Override
+            public void println(String message) {
+                fail("Message should not be printed: " + message);
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+        InputProvider input = new ScriptedInputProvider(new CommandParser(world), Arrays.asList("move kitchen", "look around"));
+        new GameEngine(world, Arrays.asList(alice), input, failing, 2).run();
+        assertEquals(kitchen, alice.getCurrentSpace());
+    }
+
+    @Test
+    public void testParallelAiMatchesOnAnyPoolSize() {
+        Player target = new HumanPlayer("Target", 100, hall);
+        hall.addPlayer(target);
+        world.setTarget(target);
+        List<Player> seats = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // Every other chaser shares a strategy, so its random source is used by two players
+            ChasePlayerStrategy strategy = i % 2 == 0 ? new ChasePlayerStrategy(RandomSource.of(i)) : strategy(seats.get(i - 1));
+            AIPlayer chaser = new AIPlayer("Chaser" + i, 100, cellar, strategy);
+            cellar.addPlayer(chaser);
+            seats.add(chaser);
+        }
+
+        String single = playParallel(reseeded(world.copy()), 1);
+        String several = playParallel(reseeded(world.copy()), 4);
+        assertEquals(single, several);
+    }
+
+    @Test
+    public void testParallelAiCarriesOutPlans() {
+        Player target = new HumanPlayer("Target", 100, hall);
+        hall.addPlayer(target);
+        AIPlayer chaser = new AIPlayer("Chaser", 100, cellar, new ChasePlayerStrategy(RandomSource.of(1)));
+        cellar.addPlayer(chaser);
+
+        assertEquals("Chaser@Hall ", playParallel(world, 2));
+    }
+
+    /**
+     * Gives the chasers of a copy their own strategies, seeded and shared the same way as in the
+     * original, since a copy shares the original's strategy instances.
+     */
+    private static World reseeded(World game) {
+        ChasePlayerStrategy shared = null;
+        for (Player player : game.getPlayers()) {
+            if (player instanceof AIPlayer) {
+                int i = Integer.parseInt(player.getName().substring("Chaser".length()));
+                if (i % 2 == 0) {
+                    shared = new ChasePlayerStrategy(RandomSource.of(i));
+                }
+                ((AIPlayer) player).setStrategy(shared);
+            }
+        }
+        return game;
+    }
+
+    private static ChasePlayerStrategy strategy(Player player) {
+        return (ChasePlayerStrategy) ((AIPlayer) player).getStrategy();
+    }
+
+    private static String playParallel(World game, int threads) {
+        List<Player> chasers = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            if (player instanceof AIPlayer) {
+                chasers.add(player);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            GameEngine engine = new GameEngine(game, chasers, InputProvider.PASS, GameOutput.NONE, chasers.size() * 3);
+            engine.setAiPool(pool);
+            engine.run();
+        } finally {
+            pool.shutdown();
+        }
+        StringBuilder positions = new StringBuilder();
+        for (Player chaser : chasers) {
+            positions.append(chaser.getName()).append('@').append(chaser.getCurrentSpace().getName()).append(' ');
+        }
+        return positions.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package controller;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import world.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the GameServer class.
+ */
+public class GameServerTest {
+    private GameServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GameServer(0, () -> {
+            World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+            Space hall = new Space("Hall", world);
+            Space kitchen = new Space("Kitchen", world);
+            world.addSpaces(Arrays.asList(hall, kitchen));
+            hall.addNeighbor(kitchen);
+            hall.addPlayer(new HumanPlayer("Alice", 100, hall));
+            return world;
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    private static String readUntil(BufferedReader reader, String text) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.contains(text)) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private void awaitSessions(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (server.getActiveSessions() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, server.getActiveSessions());
+    }
+
+    @Test
+    public void testSessionPlaysCommands() throws IOException {
+        try (Socket socket = connect()) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+
+            assertNotNull(readUntil(in, "Alice, it's your turn!"));
+            out.println("look around");
+            assertNotNull(readUntil(in, "You are currently in: Hall"));
+            out.println("move kitchen");
+            assertNotNull(readUntil(in, "Alice moved to Kitchen"));
+        }
+    }
+
+    @Test
+    public void testSessionsAreIndependent() throws IOException {
+        try (Socket first = connect(); Socket second = connect()) {
+            BufferedReader firstIn = new BufferedReader(new InputStreamReader(first.getInputStream(), StandardCharsets.UTF_8));
+            BufferedReader secondIn = new BufferedReader(new InputStreamReader(second.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter firstOut = new PrintWriter(new OutputStreamWriter(first.getOutputStream(), StandardCharsets.UTF_8), true);
+            PrintWriter secondOut = new PrintWriter(new OutputStreamWriter(second.getOutputStream(), StandardCharsets.UTF_8), true);
+
+            firstOut.println("move kitchen");
+            assertNotNull(readUntil(firstIn, "Alice moved to Kitchen"));
+
+            // The second game still has Alice in the hall
+            secondOut.println("look around");
+            assertNotNull(readUntil(secondIn, "You are currently in: Hall"));
+        }
+    }
+
+    @Test
+    public void testManyIdleSessions() throws IOException, InterruptedException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                sockets.add(connect());
+            }
+            awaitSessions(200);
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+        awaitSessions(0);
+    }
+}
@@ -0,0 +1,100 @@
+package controller;
+
+import org.junit.Before;
+import org.junit.Test;
+import strategy.AIStrategy;
+import strategy.RandomMoveStrategy;
+import world.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the TournamentRunner class.
+ */
+public class TournamentRunnerTest {
+    private World template;
+    private GameSetup setup;
+
+    @Before
+    public void setUp() {
+        template = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        Space hall = new Space("Hall", template);
+        Space kitchen = new Space("Kitchen", template);
+        template.addSpaces(Arrays.asList(hall, kitchen));
+        hall.addNeighbor(kitchen);
+        kitchen.addNeighbor(hall);
+        new AIPlayer("Alice", 30, hall, null);
+        new AIPlayer("Bob", 30, kitchen, null);
+
+        // Each player hits a random other player for random damage
+        setup = (world, random) -> {
+            List<Player> players = new ArrayList<>(world.getPlayers());
+            AIStrategy brawler = (player, w) -> {
+                Player victim = players.get(random.nextInt(players.size()));
+                if (victim != player && random.nextBoolean()) {
+                    victim.reduceHealth(1 + random.nextInt(5));
+                }
+            };
+            for (Player player : players) {
+                ((AIPlayer) player).setStrategy(brawler);
+            }
+            world.setStrategy(new RandomMoveStrategy(random.split()));
+            return players;
+        };
+    }
+
+    @Test
+    public void testSameSeedSameResult() {
+        TournamentRunner runner = new TournamentRunner(template, setup, 20);
+        TournamentResult single = runner.run(200, 42L, 1);
+        TournamentResult parallel = runner.run(200, 42L, 4);
+
+        assertEquals(200, single.getGames());
+        assertEquals(single, parallel);
+        assertEquals(single.getGames(), single.getWins(0) + single.getWins(1) + single.getDraws());
+        assertTrue(single.getDamageTaken(0) > 0);
+    }
+
+    @Test
+    public void testDifferentSeedsDiffer() {
+        TournamentRunner runner = new TournamentRunner(template, setup, 20);
+        assertNotEquals(runner.run(200, 1L, 2), runner.run(200, 2L, 2));
+    }
+
+    @Test
+    public void testTemplateUntouched() {
+        new TournamentRunner(template, setup, 20).run(50, 7L, 2);
+        for (Player player : template.getPlayers()) {
+            assertEquals(30, player.getHealth());
+            assertNull(((AIPlayer) player).getStrategy());
+        }
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        Item sword = new Item("Sword", 10, "");
+        template.getSpace("Hall").addItem(sword);
+        World copy = template.copy();
+
+        assertEquals(2, copy.getSpaces().size());
+        assertNotSame(template.getSpace("Hall"), copy.getSpace("Hall"));
+        assertTrue(copy.getSpace("Hall").hasNeighbor(copy.getSpace("Kitchen")));
+        assertEquals(2, copy.getPlayerCount());
+        assertTrue(copy.getSpace("Hall").getItems().contains(sword));
+
+        // Picking up the item in the copy does not affect the template
+        Player alice = copy.getSpace("Hall").getPlayers().get(0);
+        copy.playerPickUpItem(alice, sword);
+        assertEquals(alice, copy.getItemHolder(sword));
+        assertEquals(template.getSpace("Hall"), template.getItemSpace(sword));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetupRequired() {
+        new TournamentRunner(template, null, 20);
+    }
+}
@@ -0,0 +1,173 @@
+package controller;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import world.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the WorldImage class.
+ */
+public class WorldImageTest {
+    private String config;
+    private File imageFile;
+    private World world;
+
+    @Before
+    public void setUp() throws IOException {
+        imageFile = File.createTempFile("world", ".img");
+        config = "space LivingRoom\n"
+                + "space Kitchen\n"
+                + "space Garden\n"
+                + "player Alice 100 LivingRoom\n"
+                + "pet Rex Garden\n"
+                + "item Sword 20 Kitchen A sharp blade.\n"
+                + "item Knife 5 LivingRoom\n"
+                + "neighbor LivingRoom Kitchen\n"
+                + "neighbor Kitchen Garden\n"
+                + "neighbor Garden LivingRoom\n";
+        world = new WorldLoader().load(new StringReader(config));
+    }
+
+    @After
+    public void tearDown() {
+        imageFile.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        // Alice carries the knife before the world is stored
+        Player alice = world.getPlayers().get(0);
+        Item knife = world.getSpace("LivingRoom").getItems().iterator().next();
+        world.playerPickUpItem(alice, knife);
+
+        WorldImage.write(world, imageFile.getPath());
+        World loaded = WorldImage.load(imageFile.getPath());
+
+        assertEquals(3, loaded.getSpaces().size());
+        Space livingRoom = loaded.getSpace("LivingRoom");
+        Space kitchen = loaded.getSpace("Kitchen");
+        Space garden = loaded.getSpace("Garden");
+        assertTrue(livingRoom.hasNeighbor(kitchen));
+        assertTrue(kitchen.hasNeighbor(garden));
+        assertTrue(garden.hasNeighbor(livingRoom));
+        assertFalse(kitchen.hasNeighbor(livingRoom));
+
+        Player loadedAlice = loaded.getPlayers().get(0);
+        assertEquals("Alice", loadedAlice.getName());
+        assertEquals(100, loadedAlice.getHealth());
+        assertEquals(livingRoom, loadedAlice.getCurrentSpace());
+        assertEquals(1, loadedAlice.getInventory().size());
+        assertEquals("Knife", loadedAlice.getInventory().getBestItem().getName());
+
+        Collection<Item> kitchenItems = kitchen.getItems();
+        assertEquals(1, kitchenItems.size());
+        Item sword = kitchenItems.iterator().next();
+        assertEquals(20, sword.getDamage());
+        assertEquals("A sharp blade.", sword.getDescription());
+
+        assertEquals("Rex", loaded.getPet().getName());
+        assertEquals(garden, loaded.getPet().getCurrentSpace());
+    }
+
+    @Test
+    public void testCorruptImageRejected() throws IOException {
+        WorldImage.write(world, imageFile.getPath());
+
+        // Flip one byte of the body
+        try (RandomAccessFile file = new RandomAccessFile(imageFile, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+        try {
+            WorldImage.load(imageFile.getPath());
+            fail("Expected a WorldFormatException");
+        } catch (WorldFormatException e) {
+            assertTrue(e.getErrors().get(0).contains("checksum"));
+        }
+    }
+
+    @Test
+    public void testCorruptImageRecompiledWithWarning() throws IOException {
+        File textFile = File.createTempFile("world", ".txt");
+        Logger logger = Logger.getLogger(WorldImage.class.getName());
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.addHandler(handler);
+        try {
+            Files.write(textFile.toPath(), config.getBytes(StandardCharsets.UTF_8));
+            Files.write(imageFile.toPath(), new byte[] {1, 2, 3});
+            imageFile.setLastModified(textFile.lastModified() + 1000);
+
+            World loaded = WorldImage.loadOrCompile(textFile.getPath(), imageFile.getPath());
+            assertEquals(3, loaded.getSpaces().size());
+            assertEquals(1, records.size());
+            assertEquals(Level.WARNING, records.get(0).getLevel());
+            assertTrue(records.get(0).getMessage().contains(imageFile.getPath()));
+
+            // The refreshed image loads without another warning
+            WorldImage.loadOrCompile(textFile.getPath(), imageFile.getPath());
+            assertEquals(1, records.size());
+        } finally {
+            logger.removeHandler(handler);
+            textFile.delete();
+        }
+    }
+
+    @Test
+    public void testOtherVersionRejected() throws IOException {
+        WorldImage.write(world, imageFile.getPath());
+
+        try (RandomAccessFile file = new RandomAccessFile(imageFile, "rw")) {
+            file.seek(4);
+            file.writeInt(WorldImage.FORMAT_VERSION + 1);
+        }
+        try {
+            WorldImage.load(imageFile.getPath());
+            fail("Expected a WorldFormatException");
+        } catch (WorldFormatException e) {
+            assertTrue(e.getErrors().get(0).contains("version"));
+        }
+    }
+
+    @Test
+    public void testEmptyWorld() throws IOException {
+        World empty = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        WorldImage.write(empty, imageFile.getPath());
+        World loaded = WorldImage.load(imageFile.getPath());
+        assertTrue(loaded.getSpaces().isEmpty());
+        assertEquals(0, loaded.getPlayerCount());
+        assertNull(loaded.getPet());
+    }
+}
@@ -0,0 +1,73 @@
+package controller;
+
+import org.junit.Test;
+import world.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the WorldLoader class.
+ */
+public class WorldLoaderTest {
+
+    @Test
+    public void testLoadWorld() throws IOException {
+        String config = "# Define spaces\n"
+                + "space LivingRoom\n"
+                + "space Kitchen\n"
+                + "\n"
+                + "player Alice 100 LivingRoom\n"
+                + "pet Rex Kitchen\n"
+                + "item Sword 20 Kitchen A sharp blade.\n"
+                + "neighbor LivingRoom Kitchen\n";
+        World world = new WorldLoader().load(new StringReader(config));
+
+        Space livingRoom = world.getSpace("livingroom");
+        Space kitchen = world.getSpace("Kitchen");
+        assertEquals(2, world.getSpaces().size());
+        assertTrue(livingRoom.hasNeighbor(kitchen));
+        assertFalse(kitchen.hasNeighbor(livingRoom));
+
+        assertEquals(1, world.getPlayerCount());
+        assertEquals(livingRoom, world.getPlayers().get(0).getCurrentSpace());
+        assertEquals("Rex", world.getPet().getName());
+        assertEquals(kitchen, world.getPet().getCurrentSpace());
+
+        Item sword = kitchen.getItems().iterator().next();
+        assertEquals(20, sword.getDamage());
+        assertEquals("A sharp blade.", sword.getDescription());
+    }
+
+    @Test
+    public void testForwardReferences() throws IOException {
+        String config = "neighbor Hall Cellar\n"
+                + "player Bob 50 Cellar\n"
+                + "space Hall\n"
+                + "space Cellar\n";
+        World world = new WorldLoader().load(new StringReader(config));
+        assertTrue(world.getSpace("Hall").hasNeighbor(world.getSpace("Cellar")));
+        assertEquals(1, world.getPlayerCount());
+    }
+
+    @Test
+    public void testAllErrorsReportedWithLineNumbers() throws IOException {
+        String config = "space Hall\n"
+                + "space Hall\n"
+                + "player Bob lots Hall\n"
+                + "neighbor Hall Attic\n"
+                + "teleport Hall\n";
+        try {
+            new WorldLoader().load(new StringReader(config));
+            fail("Expected a WorldFormatException");
+        } catch (WorldFormatException e) {
+            assertEquals(4, e.getErrors().size());
+            assertTrue(e.getErrors().get(0).startsWith("line 2:"));
+            assertTrue(e.getErrors().get(1).startsWith("line 3:"));
+            assertTrue(e.getErrors().get(2).contains("Attic"));
+            assertTrue(e.getErrors().get(3).startsWith("line 5:"));
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package strategy;
+
+import org.junit.Before;
+import org.junit.Test;
+import world.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the ChaseField class.
+ */
+public class ChaseFieldTest {
+    private World world;
+    private List<Space> hallway;
+    private ChaseField field;
+
+    @Before
+    public void setUp() {
+        // Six rooms in a row, connected both ways
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        hallway = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            hallway.add(new Space("Room" + i, world));
+        }
+        world.addSpaces(hallway);
+        for (int i = 1; i < 6; i++) {
+            hallway.get(i - 1).addNeighbor(hallway.get(i));
+            hallway.get(i).addNeighbor(hallway.get(i - 1));
+        }
+        field = world.getChaseField();
+    }
+
+    @Test
+    public void testPointsTowardsNearestPlayer() {
+        Player alice = place(new HumanPlayer("Alice", 100, hallway.get(0)));
+        Player bob = place(new HumanPlayer("Bob", 100, hallway.get(5)));
+
+        assertSame(alice, field.getNearestPlayer(hallway.get(2)));
+        assertSame(hallway.get(1), field.getNextHop(hallway.get(2)));
+        assertEquals(2, field.getDistance(hallway.get(2)));
+        assertSame(bob, field.getNearestPlayer(hallway.get(4)));
+        assertEquals(world.getPlayerId(bob), field.getNearestPlayerId(hallway.get(4)));
+        assertSame(hallway.get(5), field.getNextHop(hallway.get(4)));
+        assertNull(field.getNextHop(hallway.get(0)));
+        assertEquals(0, field.getDistance(hallway.get(0)));
+    }
+
+    @Test
+    public void testFollowsPlayersAsTheyMove() {
+        Player alice = place(new HumanPlayer("Alice", 100, hallway.get(0)));
+        assertEquals(5, field.getDistance(hallway.get(5)));
+
+        alice.move(hallway.get(1));
+        alice.move(hallway.get(2));
+        assertEquals(3, field.getDistance(hallway.get(5)));
+        assertSame(hallway.get(1), field.getNextHop(hallway.get(0)));
+    }
+
+    @Test
+    public void testDefeatedPlayersAreNotChased() {
+        Player alice = place(new HumanPlayer("Alice", 100, hallway.get(0)));
+        Player bob = place(new HumanPlayer("Bob", 100, hallway.get(5)));
+        assertSame(alice, field.getNearestPlayer(hallway.get(1)));
+
+        alice.reduceHealth(100);
+        assertSame(bob, field.getNearestPlayer(hallway.get(1)));
+        assertEquals(4, field.getDistance(hallway.get(1)));
+    }
+
+    @Test
+    public void testChasersAreNotChased() {
+        ChasePlayerStrategy strategy = new ChasePlayerStrategy(RandomSource.of(1));
+        AIPlayer chaser = place(new AIPlayer("Chaser", 100, hallway.get(2), strategy));
+        Player alice = place(new HumanPlayer("Alice", 100, hallway.get(5)));
+
+        assertFalse(field.isChased(chaser));
+        assertTrue(field.isChased(alice));
+        assertSame(alice, field.getNearestPlayer(hallway.get(2)));
+
+        strategy.decideAction(chaser, world);
+        assertSame(hallway.get(3), chaser.getCurrentSpace());
+    }
+
+    @Test
+    public void testNoPlayers() {
+        assertNull(field.getNearestPlayer(hallway.get(0)));
+        assertNull(field.getNextHop(hallway.get(0)));
+        assertEquals(DistanceOracle.UNREACHABLE, field.getDistance(hallway.get(0)));
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchFreshField() {
+        World random = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        List<Space> spaces = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            spaces.add(new Space("Space" + i, random));
+        }
+        random.addSpaces(spaces);
+        Random rng = new Random(5);
+        for (int i = 0; i < 400; i++) {
+            spaces.get(rng.nextInt(150)).addNeighbor(spaces.get(rng.nextInt(150)));
+        }
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Player player = new HumanPlayer("P" + i, 1000, spaces.get(rng.nextInt(150)));
+            player.getCurrentSpace().addPlayer(player);
+            players.add(player);
+        }
+        ChaseField shared = random.getChaseField();
+        DistanceOracle oracle = random.getDistanceOracle();
+
+        for (int round = 0; round < 200; round++) {
+            Player player = players.get(rng.nextInt(players.size()));
+            if (rng.nextInt(20) == 0) {
+                player.reduceHealth(rng.nextInt(400));
+            } else {
+                player.move(spaces.get(rng.nextInt(150)));
+            }
+
+            ChaseField fresh = new ChaseField(random);
+            for (Space space : spaces) {
+                int moves = shared.getDistance(space);
+                assertEquals(fresh.getDistance(space), moves);
+                Player nearest = shared.getNearestPlayer(space);
+                if (moves == DistanceOracle.UNREACHABLE) {
+                    assertNull(nearest);
+                    continue;
+                }
+                assertTrue(nearest.getHealth() > 0);
+                assertEquals(moves, oracle.distance(space, nearest.getCurrentSpace()));
+                Space hop = shared.getNextHop(space);
+                if (moves > 0) {
+                    assertTrue(space.getNeighbors().contains(hop));
+                    assertEquals(moves - 1, shared.getDistance(hop));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testFrozenFieldReadsWithoutLocking() throws Exception {
+        Player alice = place(new HumanPlayer("Alice", 100, hallway.get(0)));
+        field.freeze();
+        FutureTask<Space> hop = new FutureTask<>(() -> field.getNextHop(hallway.get(3)));
+        synchronized (field) {
+            new Thread(hop).start();
+            assertSame(hallway.get(2), hop.get());
+        }
+
+        // Moving a player thaws the field rather than leaving chasers on stale hops
+        alice.move(hallway.get(1));
+        alice.move(hallway.get(2));
+        assertNull(field.getNextHop(hallway.get(2)));
+        assertEquals(1, field.getDistance(hallway.get(3)));
+    }
+
+    @Test
+    public void testFrozenFieldDropsDefeatedPlayer() {
+        Player alice = place(new HumanPlayer("Alice", 100, hallway.get(0)));
+        Player bob = place(new HumanPlayer("Bob", 100, hallway.get(5)));
+        field.freeze();
+        long version = world.getOccupancyVersion();
+
+        // Only a defeat changes the version that frozen views are checked against
+        alice.reduceHealth(40);
+        assertEquals(version, world.getOccupancyVersion());
+        assertSame(alice, field.getNearestPlayer(hallway.get(1)));
+
+        alice.reduceHealth(60);
+        assertNotEquals(version, world.getOccupancyVersion());
+        assertSame(bob, field.getNearestPlayer(hallway.get(1)));
+        assertEquals(4, field.getDistance(hallway.get(1)));
+    }
+
+    @Test(timeout = 10000)
+    public void testManyChasersPlanAgainstFrozenViews() throws Exception {
+        // Chasers planning in parallel never wait on the shared field, routes or distances
+        World grid = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        List<Space> spaces = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            spaces.add(new Space("Space" + i, grid));
+        }
+        grid.addSpaces(spaces);
+        for (int i = 0; i < 400; i++) {
+            if (i % 20 > 0) {
+                spaces.get(i).addNeighbor(spaces.get(i - 1));
+                spaces.get(i - 1).addNeighbor(spaces.get(i));
+            }
+            if (i >= 20) {
+                spaces.get(i).addNeighbor(spaces.get(i - 20));
+                spaces.get(i - 20).addNeighbor(spaces.get(i));
+            }
+        }
+        place(new HumanPlayer("Alice", 100, spaces.get(0)));
+        place(new HumanPlayer("Bob", 100, spaces.get(398)));
+        List<AIPlayer> chasers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            chasers.add(place(new AIPlayer("Chaser" + i, 100, spaces.get(i * 2 + 1),
+                    new ChasePlayerStrategy(RandomSource.of(i)))));
+        }
+        ChaseField shared = grid.getChaseField();
+        PathFinder finder = grid.getPathFinder();
+        DistanceOracle oracle = grid.getDistanceOracle();
+        oracle.freeze();
+        finder.freeze();
+        shared.freeze();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            synchronized (shared) {
+                synchronized (finder) {
+                    synchronized (oracle) {
+                        List<ForkJoinTask<Space>> plans = new ArrayList<>();
+                        for (AIPlayer chaser : chasers) {
+                            plans.add(pool.submit(() -> shared.getNextHop(chaser.getCurrentSpace())));
+                        }
+                        for (int i = 0; i < chasers.size(); i++) {
+                            Space from = chasers.get(i).getCurrentSpace();
+                            assertEquals(shared.getDistance(from) - 1, shared.getDistance(plans.get(i).get()));
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullWorld() {
+        new ChaseField(null);
+    }
+
+    private <P extends Player> P place(P player) {
+        player.getCurrentSpace().addPlayer(player);
+        return player;
+    }
+}
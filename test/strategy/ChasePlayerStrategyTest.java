@@ -100,4 +100,20 @@ public class ChasePlayerStrategyTest {
             assertTrue(world.getSpaces().contains(chaser.getCurrentSpace()));
         }
     }
+
+    @Test
+    public void testChaserFollowsShortestPath() {
+        // Add a longer route through a new space and put the target at the end of it
+        Space space4 = new Space("Cellar", world);
+        world.getSpaces().add(space4);
+        space3.addNeighbor(space4);
+        space4.addNeighbor(space3);
+        targetPlayer.move(space4);
+
+        strategy.move(chaser, world);
+        assertEquals(space3, chaser.getCurrentSpace());
+
+        strategy.move(chaser, world);
+        assertEquals(space4, chaser.getCurrentSpace());
+    }
 }
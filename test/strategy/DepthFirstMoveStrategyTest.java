@@ -73,4 +73,55 @@ public class DepthFirstMoveStrategyTest {
         // Verify the player is still in the world
         assertTrue(world.getPlayers().contains(player));
     }
+
+    @Test
+    public void testWalkBacktracksAndRestarts() {
+        strategy.move(player, world); // Move to space2
+        strategy.move(player, world); // Move to space3
+        strategy.move(player, world); // Back to space2
+        assertEquals(space2, player.getCurrentSpace());
+        strategy.move(player, world); // Back to space1
+        assertEquals(space1, player.getCurrentSpace());
+
+        // Every space has been visited, so the walk starts over instead of stopping
+        strategy.move(player, world);
+        assertEquals(space2, player.getCurrentSpace());
+    }
+
+    @Test
+    public void testPetsWalkIndependently() {
+        Pet first = new Pet("First", space1, strategy);
+        Pet second = new Pet("Second", space2, strategy);
+
+        strategy.movePet(first, world);
+        strategy.movePet(second, world);
+        assertEquals(space2, first.getCurrentSpace());
+        assertEquals(space3, second.getCurrentSpace());
+
+        strategy.movePet(first, world);
+        strategy.movePet(second, world);
+        assertEquals(space3, first.getCurrentSpace());
+        assertEquals(space2, second.getCurrentSpace()); // Backtracked
+    }
+
+    @Test
+    public void testWalkRestartsWhenMovedElsewhere() {
+        Pet pet = new Pet("Fortune", space1, strategy);
+        strategy.movePet(pet, world);
+        assertEquals(space2, pet.getCurrentSpace());
+
+        pet.moveTo(space3);
+        space3.addNeighbor(space1);
+        strategy.movePet(pet, world);
+        assertEquals(space1, pet.getCurrentSpace());
+    }
+
+    @Test
+    public void testPetWithoutNeighborsStays() {
+        Space cell = new Space("Cell", world);
+        world.getSpaces().add(cell);
+        Pet pet = new Pet("Fortune", cell, strategy);
+        strategy.movePet(pet, world);
+        assertEquals(cell, pet.getCurrentSpace());
+    }
 }
@@ -0,0 +1,193 @@
+package strategy;
+
+import command.AttemptAttackCommand;
+import command.Command;
+import command.MoveCommand;
+import command.PickUpItemCommand;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import world.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the MonteCarloStrategy class.
+ */
+public class MonteCarloStrategyTest {
+    private World world;
+    private Space hall;
+    private Space kitchen;
+    private Space cellar;
+    private Player target;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        // Hall - Kitchen - Cellar, connected both ways
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        hall = new Space("Hall", world);
+        kitchen = new Space("Kitchen", world);
+        cellar = new Space("Cellar", world);
+        world.addSpaces(Arrays.asList(hall, kitchen, cellar));
+        hall.addNeighbor(kitchen);
+        kitchen.addNeighbor(hall);
+        kitchen.addNeighbor(cellar);
+        cellar.addNeighbor(kitchen);
+
+        target = new HumanPlayer("Target", 10, cellar);
+        cellar.addPlayer(target);
+        world.setTarget(target);
+        world.setOutput(GameOutput.NONE);
+        pool = new ForkJoinPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testAttacksWhenAlone() {
+        AIPlayer bot = new AIPlayer("Bot", 100, cellar, null);
+        Item knife = new Item("Knife", 4, "A sharp knife");
+        cellar.addItem(knife);
+        bot.pickUpItem(knife);
+        bot.setStrategy(strategy(1));
+
+        Command command = bot.getStrategy().planAction(bot, world);
+        assertTrue(command instanceof AttemptAttackCommand);
+        command.execute();
+        assertEquals(6, target.getHealth());
+    }
+
+    @Test
+    public void testClosesInOnTarget() {
+        AIPlayer bot = new AIPlayer("Bot", 100, hall, null);
+        bot.setStrategy(strategy(2));
+
+        Command command = bot.getStrategy().planAction(bot, world);
+        assertTrue(command instanceof MoveCommand);
+        assertSame(kitchen, ((MoveCommand) command).getTargetSpace());
+    }
+
+    @Test
+    public void testPicksUpWeaponFirst() {
+        AIPlayer bot = new AIPlayer("Bot", 100, cellar, null);
+        cellar.addItem(new Item("Axe", 10, "A heavy axe"));
+        bot.setStrategy(strategy(3));
+
+        Command command = bot.getStrategy().planAction(bot, world);
+        assertTrue(command instanceof PickUpItemCommand);
+        assertEquals("Axe", ((PickUpItemCommand) command).getItem().getName());
+    }
+
+    @Test
+    public void testBeatsTargetInGame() {
+        AIPlayer bot = new AIPlayer("Bot", 100, hall, null);
+        kitchen.addItem(new Item("Axe", 5, "A heavy axe"));
+        bot.setStrategy(strategy(4));
+        for (int turn = 0; turn < 10 && target.getHealth() > 0; turn++) {
+            bot.executeStrategy();
+        }
+        assertEquals(0, target.getHealth());
+    }
+
+    @Test
+    public void testSameChoicesOnAnyPoolSize() {
+        List<String> single = playBot(new ForkJoinPool(1));
+        List<String> several = playBot(new ForkJoinPool(3));
+        assertEquals(single, several);
+    }
+
+    @Test(timeout = 5000)
+    public void testHonorsTimeBudget() {
+        AIPlayer bot = new AIPlayer("Bot", 100, hall, null);
+        MonteCarloStrategy strategy = new MonteCarloStrategy(RandomSource.of(5), 30);
+        long start = System.nanoTime();
+        assertNotNull(strategy.planAction(bot, world));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue("took " + millis + " ms", millis < 1000);
+    }
+
+    @Test
+    public void testRanksMovesWithSharedOracleOnLargeWorld() {
+        // A corridor larger than any per-strategy distance table would cover
+        World large = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        List<Space> rooms = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            rooms.add(new Space("Room" + i, large));
+        }
+        large.addSpaces(rooms);
+        for (int i = 1; i < rooms.size(); i++) {
+            rooms.get(i - 1).addNeighbor(rooms.get(i));
+            rooms.get(i).addNeighbor(rooms.get(i - 1));
+        }
+        Player chased = new HumanPlayer("Target", 10, rooms.get(1500));
+        rooms.get(1500).addPlayer(chased);
+        large.setTarget(chased);
+        large.setStrategy(new ChasePlayerStrategy(RandomSource.of(3)));
+        large.setOutput(GameOutput.NONE);
+        AIPlayer bot = new AIPlayer("Bot", 100, rooms.get(1497), null);
+        rooms.get(1497).addPlayer(bot);
+
+        Command command = strategy(10).planAction(bot, large);
+        assertTrue(command instanceof MoveCommand);
+        assertSame(rooms.get(1498), ((MoveCommand) command).getTargetSpace());
+        assertTrue(large.getDistanceOracle().getCachedRowCount() > 0);
+    }
+
+    @Test(timeout = 5000)
+    public void testUnlimitedInventory() {
+        AIPlayer bot = new AIPlayer("Bot", 100, cellar, null, Integer.MAX_VALUE);
+        cellar.addItem(new Item("Axe", 10, "A heavy axe"));
+        bot.setStrategy(strategy(11));
+
+        Command command = bot.getStrategy().planAction(bot, world);
+        assertTrue(command instanceof PickUpItemCommand);
+    }
+
+    @Test
+    public void testNothingToPlanWithoutTarget() {
+        AIPlayer bot = new AIPlayer("Bot", 100, hall, null);
+        world.setTarget(null);
+        assertNull(strategy(6).planAction(bot, world));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiresSomeBudget() {
+        new MonteCarloStrategy(RandomSource.of(1), 0, 0, pool);
+    }
+
+    private MonteCarloStrategy strategy(long seed) {
+        return new MonteCarloStrategy(RandomSource.of(seed), 0, 200, pool);
+    }
+
+    private List<String> playBot(ForkJoinPool botPool) {
+        World copy = world.copy();
+        copy.setStrategy(new RandomMoveStrategy(RandomSource.of(8)));
+        copy.setPet(new Pet("Fortune", copy.getSpace("Kitchen"), new RandomPetMoveStrategy(RandomSource.of(9))));
+        copy.getSpace("Kitchen").addItem(new Item("Axe", 3, "A heavy axe"));
+        AIPlayer bot = new AIPlayer("Bot", 100, copy.getSpace("Hall"), new MonteCarloStrategy(RandomSource.of(7), 0, 50, botPool));
+        List<String> choices = new ArrayList<>();
+        try {
+            for (int round = 0; round < 8; round++) {
+                Command command = bot.getStrategy().planAction(bot, copy);
+                choices.add(command != null ? command.getDescription() : "none");
+                if (command != null) {
+                    command.execute();
+                }
+                copy.moveTarget();
+                copy.movePets();
+            }
+        } finally {
+            botPool.shutdown();
+        }
+        return choices;
+    }
+}
@@ -0,0 +1,195 @@
+package strategy;
+
+import org.junit.Before;
+import org.junit.Test;
+import world.DistanceOracle;
+import world.Space;
+import world.SpaceGraph;
+import world.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the PathFinder class.
+ */
+public class PathFinderTest {
+    private static final int SIDE = 6;
+
+    private World world;
+    private List<Space> grid;
+    private PathFinder finder;
+
+    @Before
+    public void setUp() {
+        // A SIDE x SIDE grid of rooms connected to their horizontal and vertical neighbors
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        grid = new ArrayList<>();
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            grid.add(new Space("Room" + i, world));
+        }
+        world.addSpaces(grid);
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                Space room = room(x, y);
+                if (x > 0) {
+                    room.addNeighbor(room(x - 1, y));
+                }
+                if (x < SIDE - 1) {
+                    room.addNeighbor(room(x + 1, y));
+                }
+                if (y > 0) {
+                    room.addNeighbor(room(x, y - 1));
+                }
+                if (y < SIDE - 1) {
+                    room.addNeighbor(room(x, y + 1));
+                }
+            }
+        }
+        finder = new PathFinder(world);
+    }
+
+    @Test
+    public void testFindsShortestPath() {
+        int[] path = finder.findPath(room(0, 0), room(5, 3));
+        assertNotNull(path);
+        assertEquals(9, path.length);
+        assertValidPath(path, room(0, 0), room(5, 3));
+        assertEquals(8, finder.distance(room(0, 0), room(5, 3)));
+    }
+
+    @Test
+    public void testPathToSameSpace() {
+        int[] path = finder.findPath(room(2, 2), room(2, 2));
+        assertEquals(1, path.length);
+        assertNull(finder.nextStep(room(2, 2), room(2, 2)));
+    }
+
+    @Test
+    public void testNextStepIsNeighbor() {
+        Space step = finder.nextStep(room(0, 0), room(0, 4));
+        assertSame(room(0, 1), step);
+    }
+
+    @Test
+    public void testOneWayConnections() {
+        Space cellar = new Space("Cellar", world);
+        world.addSpaces(Collections.singletonList(cellar));
+        room(0, 0).addNeighbor(cellar); // A trapdoor: there is no way back up
+        assertEquals(1, finder.distance(room(0, 0), cellar));
+        assertEquals(-1, finder.distance(cellar, room(0, 0)));
+        assertNull(finder.findPath(cellar, room(0, 0)));
+    }
+
+    @Test
+    public void testRepeatedQueriesAreCached() {
+        int[] first = finder.findPath(room(0, 0), room(5, 5));
+        assertSame(first, finder.findPath(room(0, 0), room(5, 5)));
+        assertEquals(1, finder.getCachedPathCount());
+        finder.findPath(room(5, 5), room(0, 0));
+        assertEquals(2, finder.getCachedPathCount());
+    }
+
+    @Test
+    public void testTopologyChangeDropsCache() {
+        assertEquals(10, finder.distance(room(0, 0), room(5, 5)));
+        Space shortcut = room(0, 0);
+        shortcut.addNeighbor(room(5, 5));
+        assertEquals(1, finder.distance(room(0, 0), room(5, 5)));
+        assertEquals(1, finder.getCachedPathCount());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        PathFinder small = new PathFinder(world, 3);
+        for (int i = 1; i < 10; i++) {
+            small.findPath(grid.get(0), grid.get(i));
+        }
+        assertEquals(3, small.getCachedPathCount());
+    }
+
+    @Test
+    public void testAStarWithCoordinates() {
+        finder.setHeuristic((from, to) -> {
+            int a = grid.indexOf(from);
+            int b = grid.indexOf(to);
+            return Math.abs(a % SIDE - b % SIDE) + Math.abs(a / SIDE - b / SIDE);
+        });
+        int[] path = finder.findPath(room(1, 4), room(4, 0));
+        assertEquals(8, path.length);
+        assertValidPath(path, room(1, 4), room(4, 0));
+    }
+
+    @Test
+    public void testMatchesDistanceOracleOnRandomGraph() {
+        World random = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        List<Space> spaces = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            spaces.add(new Space("Space" + i, random));
+        }
+        random.addSpaces(spaces);
+        Random rng = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            spaces.get(rng.nextInt(200)).addNeighbor(spaces.get(rng.nextInt(200)));
+        }
+        PathFinder bfs = random.getPathFinder();
+        PathFinder aStar = new PathFinder(random);
+        aStar.setHeuristic((from, to) -> 0);
+        DistanceOracle oracle = random.getDistanceOracle();
+        for (int i = 0; i < 2000; i++) {
+            Space from = spaces.get(rng.nextInt(200));
+            Space to = spaces.get(rng.nextInt(200));
+            int expected = oracle.distance(from, to);
+            int moves = expected == DistanceOracle.UNREACHABLE ? -1 : expected;
+            assertEquals(moves, bfs.distance(from, to));
+            assertEquals(moves, aStar.distance(from, to));
+            int[] path = bfs.findPath(from, to);
+            if (path != null) {
+                assertValidPath(random.getGraph(), path, from, to);
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testFrozenFinderSearchesWithoutLocking() throws Exception {
+        finder.findPath(room(0, 0), room(5, 5));
+        finder.freeze();
+        FutureTask<int[]> search = new FutureTask<>(() -> finder.findPath(room(0, 5), room(5, 0)));
+        synchronized (finder) {
+            new Thread(search).start();
+            int[] path = search.get();
+            assertEquals(11, path.length);
+            assertValidPath(path, room(0, 5), room(5, 0));
+        }
+
+        // Searches made while frozen carry over to the next freeze
+        finder.freeze();
+        assertSame(finder.findPath(room(0, 5), room(5, 0)), finder.findPath(room(0, 5), room(5, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullWorld() {
+        new PathFinder(null);
+    }
+
+    private Space room(int x, int y) {
+        return grid.get(y * SIDE + x);
+    }
+
+    private void assertValidPath(int[] path, Space from, Space to) {
+        assertValidPath(world.getGraph(), path, from, to);
+    }
+
+    private static void assertValidPath(SpaceGraph graph, int[] path, Space from, Space to) {
+        assertSame(from, graph.getSpace(path[0]));
+        assertSame(to, graph.getSpace(path[path.length - 1]));
+        for (int i = 1; i < path.length; i++) {
+            assertTrue(graph.hasEdge(path[i - 1], path[i]));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package strategy;
+
+import org.junit.Before;
+import org.junit.Test;
+import world.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the PatrolRoute class.
+ */
+public class PatrolRouteTest {
+    private World world;
+    private List<Space> spaces;
+
+    @Before
+    public void setUp() {
+        // A small tree: Hall leads to Kitchen and Study, Kitchen leads to Pantry
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        spaces = new ArrayList<>();
+        for (String name : new String[]{"Hall", "Kitchen", "Pantry", "Study"}) {
+            spaces.add(new Space(name, world));
+        }
+        world.addSpaces(spaces);
+        connect(0, 1);
+        connect(1, 2);
+        connect(0, 3);
+    }
+
+    @Test
+    public void testRouteIncludesBacktracking() {
+        PatrolRoute route = PatrolRoute.compile(world.getGraph(), 0);
+        // Hall, Kitchen, Pantry, back to Kitchen, back to Hall, Study, then back to Hall to start over
+        assertEquals(6, route.length());
+        String[] expected = {"Hall", "Kitchen", "Pantry", "Kitchen", "Hall", "Study", "Hall"};
+        boolean[] backtrack = {true, false, false, true, true, false, true};
+        for (int step = 0; step < expected.length; step++) {
+            assertEquals(expected[step], route.spaceAt(step).getName());
+            assertEquals(backtrack[step], route.isBacktrack(step));
+        }
+    }
+
+    @Test
+    public void testIsolatedSpace() {
+        Space cell = new Space("Cell", world);
+        world.getSpaces().add(cell);
+        PatrolRoute route = PatrolRoute.compile(world.getGraph(), world.getGraph().idOf(cell));
+        assertEquals(1, route.length());
+        assertSame(cell, route.spaceAt(1000));
+    }
+
+    @Test
+    public void testPositionAfterMatchesMoves() {
+        Random rng = new Random(9);
+        for (int i = 0; i < 40; i++) {
+            spaces.add(new Space("Room" + i, world));
+        }
+        world.getSpaces().addAll(spaces.subList(4, spaces.size()));
+        for (int i = 0; i < 90; i++) {
+            spaces.get(rng.nextInt(spaces.size())).addNeighbor(spaces.get(rng.nextInt(spaces.size())));
+        }
+        DepthFirstMoveStrategy strategy = new DepthFirstMoveStrategy();
+        Pet pet = new Pet("Fortune", spaces.get(0), strategy);
+
+        List<Space> predicted = new ArrayList<>();
+        for (int turns = 0; turns < 300; turns++) {
+            predicted.add(strategy.positionAfter(pet, world, turns));
+        }
+        for (int turns = 1; turns < 300; turns++) {
+            strategy.movePet(pet, world);
+            assertSame(predicted.get(turns), pet.getCurrentSpace());
+        }
+    }
+
+    @Test
+    public void testRouteFollowsTopologyChanges() {
+        DepthFirstMoveStrategy strategy = new DepthFirstMoveStrategy();
+        Pet pet = new Pet("Fortune", spaces.get(3), strategy);
+        assertSame(spaces.get(3), strategy.positionAfter(pet, world, 6)); // Once round the four rooms
+
+        Space garden = new Space("Garden", world);
+        world.getSpaces().add(garden);
+        spaces.get(3).addNeighbor(garden);
+        assertSame(garden, strategy.positionAfter(pet, world, 7)); // Visited last, from the study
+        assertSame(spaces.get(3), strategy.positionAfter(pet, world, 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnknownStart() {
+        PatrolRoute.compile(world.getGraph(), 99);
+    }
+
+    private void connect(int a, int b) {
+        spaces.get(a).addNeighbor(spaces.get(b));
+        spaces.get(b).addNeighbor(spaces.get(a));
+    }
+}
@@ -0,0 +1,55 @@
+package strategy;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the RandomSource interface.
+ */
+public class RandomSourceTest {
+
+    @Test
+    public void testSameSeedSameSequence() {
+        RandomSource first = RandomSource.of(123L);
+        RandomSource second = RandomSource.of(123L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextInt(1000), second.nextInt(1000));
+        }
+    }
+
+    @Test
+    public void testSplitsAreReproducible() {
+        RandomSource first = RandomSource.of(7L);
+        RandomSource second = RandomSource.of(7L);
+
+        // The same sequence of splits gives the same children
+        RandomSource firstChild = first.split();
+        RandomSource secondChild = second.split();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(firstChild.nextLong(), secondChild.nextLong());
+        }
+
+        // Drawing from a child does not change what the parent gives next
+        first.split().nextLong();
+        RandomSource untouched = second.split();
+        assertEquals(first.nextLong(), second.nextLong());
+        assertNotNull(untouched);
+    }
+
+    @Test
+    public void testBoundRespected() {
+        RandomSource source = RandomSource.of(new Random(1));
+        for (int i = 0; i < 1000; i++) {
+            int value = source.nextInt(3);
+            assertTrue(value >= 0 && value < 3);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullRandomRejected() {
+        RandomSource.of((Random) null);
+    }
+}
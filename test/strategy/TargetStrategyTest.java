@@ -51,7 +51,6 @@ public class TargetStrategyTest {
         // Set up ChasePlayerStrategy
         Player playerToChase = new HumanPlayer("Player to Chase", 100, space2);
         space2.addPlayer(playerToChase);
-        world.getPlayers().add(playerToChase);
 
         strategy = new ChasePlayerStrategy();
         world.setStrategy(strategy);
@@ -0,0 +1,137 @@
+package world;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import command.MoveCommand;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the AsyncEventSink class and the events published by the world.
+ */
+public class AsyncEventSinkTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void testEventsWrittenInOrder() throws IOException {
+        StringWriter out = new StringWriter();
+        // A tiny buffer makes the publisher wait for the writer thread
+        AsyncEventSink sink = new AsyncEventSink(out, 2, false);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sink.publish(GameEvent.of(GameEvent.Type.PLAYER_MOVED, "P" + i, null, "Hall", 0));
+            expected.append("P").append(i).append(" moved to Hall").append(NL);
+        }
+        sink.flush();
+        assertEquals(expected.toString(), out.toString());
+        sink.close();
+    }
+
+    @Test
+    public void testCloseWritesRemainingEvents() throws IOException {
+        StringWriter out = new StringWriter();
+        AsyncEventSink sink = new AsyncEventSink(out, 16, false);
+        sink.publish(GameEvent.message("first"));
+        sink.publish(GameEvent.message("second"));
+        sink.close();
+        assertEquals("first" + NL + "second" + NL, out.toString());
+        sink.close(); // Closing again does nothing
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPublishAfterClose() throws IOException {
+        AsyncEventSink sink = new AsyncEventSink(new StringWriter(), 16, false);
+        sink.close();
+        sink.publish(GameEvent.message("late"));
+    }
+
+    @Test(timeout = 5000)
+    public void testPublishFailsOnceWriterDies() throws IOException {
+        Writer broken = new StringWriter() {
+            @Override
+            public void write(String text) {
+                throw new IllegalStateException("broken writer");
+            }
+        };
+        AsyncEventSink sink = new AsyncEventSink(broken, 2, false);
+        try {
+            // The writer dies on the first event; without it the buffer fills and stays full
+            for (int i = 0; i < 10; i++) {
+                sink.publish(GameEvent.message("event " + i));
+            }
+            fail("Publishing should fail once the writer has stopped");
+        } catch (IllegalStateException e) {
+            assertEquals("broken writer", e.getCause().getMessage());
+        }
+        sink.flush(); // Returns instead of waiting for the dead writer
+    }
+
+    @Test
+    public void testFileSink() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("events.log");
+        try (AsyncEventSink sink = AsyncEventSink.file(path)) {
+            sink.publish(GameEvent.of(GameEvent.Type.ATTACK_HIT, "Alice", "Bob", null, 7));
+            sink.publish(GameEvent.of(GameEvent.Type.PLAYER_DEFEATED, "Alice", "Bob"));
+        }
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("Alice attacked Bob for 7 damage.", lines.get(0));
+        assertEquals("Bob has been defeated!", lines.get(1));
+    }
+
+    @Test
+    public void testWorldPublishesTypedEvents() {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        Space hall = new Space("Hall", world);
+        Space kitchen = new Space("Kitchen", world);
+        world.getSpaces().add(hall);
+        world.getSpaces().add(kitchen);
+        hall.addNeighbor(kitchen);
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        hall.addPlayer(alice);
+
+        List<GameEvent> events = new ArrayList<>();
+        world.setEventSink(events::add);
+        new MoveCommand(alice, kitchen).execute();
+        world.getOutput().println("Plain text");
+
+        assertEquals(2, events.size());
+        assertEquals(GameEvent.Type.PLAYER_MOVED, events.get(0).getType());
+        assertEquals("Alice", events.get(0).getActor());
+        assertEquals("Kitchen", events.get(0).getPlace());
+        assertEquals("Alice moved to Kitchen", events.get(0).format());
+        assertEquals(GameEvent.Type.MESSAGE, events.get(1).getType());
+        assertEquals("Plain text", events.get(1).format());
+    }
+
+    @Test
+    public void testDiscardSinkSkipsEvents() {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        world.setEventSink(GameEventSink.DISCARD);
+        assertFalse(world.getEventSink().isEnabled());
+        assertFalse(world.getOutput().isEnabled());
+
+        world.setOutput(GameOutput.NONE);
+        assertSame(GameEventSink.DISCARD, world.getEventSink());
+    }
+
+    @Test
+    public void testPetEventMatchesPetDescription() {
+        GameEvent event = GameEvent.of(GameEvent.Type.PET_MOVED_RANDOMLY, "Fortune", null, "Hall", 0);
+        assertEquals("Pet[name=Fortune, currentSpace=Hall] moved to Hall randomly.", event.format());
+    }
+}
@@ -0,0 +1,84 @@
+package world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the DistanceOracle class.
+ */
+public class DistanceOracleTest {
+    private World world;
+    private Space space1;
+    private Space space2;
+    private Space space3;
+    private Space space4;
+    private DistanceOracle oracle;
+
+    @Before
+    public void setUp() {
+        // Initialize a one-way corridor: Hall -> Kitchen -> Pantry, plus an isolated Attic
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        space1 = new Space("Hall", world);
+        space2 = new Space("Kitchen", world);
+        space3 = new Space("Pantry", world);
+        space4 = new Space("Attic", world);
+        world.getSpaces().add(space1);
+        world.getSpaces().add(space2);
+        world.getSpaces().add(space3);
+        world.getSpaces().add(space4);
+        space1.addNeighbor(space2);
+        space2.addNeighbor(space3);
+
+        oracle = new DistanceOracle(world, 2);
+    }
+
+    @Test
+    public void testDistances() {
+        assertEquals(0, oracle.distance(space1, space1));
+        assertEquals(1, oracle.distance(space1, space2));
+        assertEquals(2, oracle.distance(space1, space3));
+        assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(space3, space1));
+        assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(space1, space4));
+    }
+
+    @Test
+    public void testDistancesTo() {
+        int[] distances = oracle.distancesTo(space3);
+        assertEquals(2, distances[space1.getId()]);
+        assertEquals(1, distances[space2.getId()]);
+        assertEquals(DistanceOracle.UNREACHABLE, distances[space4.getId()]);
+    }
+
+    @Test
+    public void testCacheIsBoundedAndInvalidated() {
+        oracle.distance(space1, space3);
+        oracle.distance(space2, space3);
+        oracle.distance(space3, space1);
+        assertEquals(2, oracle.getCachedRowCount());
+
+        space3.addNeighbor(space1);
+        assertEquals(1, oracle.distance(space3, space1));
+        assertEquals(1, oracle.getCachedRowCount());
+    }
+
+    @Test(timeout = 5000)
+    public void testFrozenOracleAnswersWithoutLocking() throws Exception {
+        oracle.freeze();
+        FutureTask<Integer> query = new FutureTask<>(() -> oracle.distance(space1, space3) + oracle.distancesTo(space3)[space2.getId()]);
+        synchronized (oracle) {
+            new Thread(query).start();
+            assertEquals(Integer.valueOf(3), query.get());
+        }
+        assertEquals(2, oracle.getCachedRowCount());
+
+        // The frozen rows are dropped with the topology they were searched on
+        space3.addNeighbor(space1);
+        assertEquals(1, oracle.distance(space3, space1));
+        assertEquals(1, oracle.getCachedRowCount());
+    }
+}
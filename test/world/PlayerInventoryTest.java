@@ -0,0 +1,102 @@
+package world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the PlayerInventory class.
+ */
+public class PlayerInventoryTest {
+    private PlayerInventory inventory;
+    private Item knife;
+    private Item sword;
+    private Item club;
+    private Item axe;
+
+    @Before
+    public void setUp() {
+        inventory = new PlayerInventory(3);
+        knife = new Item("Knife", 5, "A kitchen knife.");
+        sword = new Item("Sword", 20, "A sharp blade.");
+        club = new Item("Club", 10, "A heavy club.");
+        axe = new Item("Axe", 20, "A rusty axe.");
+    }
+
+    @Test
+    public void testBestItemFollowsAddsAndRemoves() {
+        assertNull(inventory.getBestItem());
+        inventory.addItem(knife);
+        inventory.addItem(sword);
+        inventory.addItem(club);
+        assertEquals(sword, inventory.getBestItem());
+
+        inventory.remove(sword);
+        assertEquals(club, inventory.getBestItem());
+        assertFalse(inventory.contains(sword));
+        assertEquals(2, inventory.size());
+    }
+
+    @Test
+    public void testEqualDamageKeepsFirstAdded() {
+        inventory.addItem(sword);
+        inventory.addItem(axe);
+        assertEquals(sword, inventory.getBestItem());
+    }
+
+    @Test
+    public void testCapacityIsEnforced() {
+        assertTrue(inventory.addItem(knife));
+        assertTrue(inventory.addItem(sword));
+        assertTrue(inventory.addItem(club));
+        assertFalse(inventory.addItem(axe));
+        assertFalse(inventory.contains(axe));
+    }
+
+    @Test
+    public void testTopItems() {
+        inventory.addItem(knife);
+        inventory.addItem(club);
+        inventory.addItem(sword);
+
+        List<Item> top = inventory.getTopItems(2);
+        assertEquals(2, top.size());
+        assertEquals(sword, top.get(0));
+        assertEquals(club, top.get(1));
+        assertEquals(3, inventory.getTopItems(10).size());
+    }
+
+    @Test
+    public void testTransferTo() {
+        PlayerInventory other = new PlayerInventory(2);
+        inventory.addItem(knife);
+        inventory.addItem(sword);
+        inventory.addItem(club);
+
+        List<Item> moved = inventory.transferTo(other);
+        assertEquals(2, moved.size());
+        assertTrue(other.contains(sword));
+        assertTrue(other.contains(club));
+        assertTrue(inventory.contains(knife));
+        assertEquals(1, inventory.size());
+    }
+
+    @Test
+    public void testTransferKeepsItemsAlreadyHeld() {
+        PlayerInventory other = new PlayerInventory(2);
+        other.addItem(sword);
+        inventory.addItem(sword);
+        inventory.addItem(knife);
+
+        List<Item> moved = inventory.transferTo(other);
+        assertEquals(1, moved.size());
+        assertEquals(knife, moved.get(0));
+        assertTrue(inventory.contains(sword));
+        assertTrue(other.contains(sword));
+        assertTrue(other.contains(knife));
+        assertEquals(1, inventory.size());
+    }
+}
@@ -0,0 +1,105 @@
+package world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the SpaceGraph class.
+ */
+public class SpaceGraphTest {
+    private World world;
+    private Space space1;
+    private Space space2;
+    private Space space3;
+
+    @Before
+    public void setUp() {
+        // Initialize world and spaces
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        space1 = new Space("Living Room", world);
+        space2 = new Space("Kitchen", world);
+        space3 = new Space("Garden", world);
+        world.getSpaces().add(space1);
+        world.getSpaces().add(space2);
+        world.getSpaces().add(space3);
+
+        // Set neighbors
+        space1.addNeighbor(space2);
+        space1.addNeighbor(space3);
+        space2.addNeighbor(space3);
+    }
+
+    @Test
+    public void testBuildAssignsIdsAndEdges() {
+        SpaceGraph graph = world.getGraph();
+        assertEquals(3, graph.size());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(space2, graph.getSpace(space2.getId()));
+        assertTrue(graph.hasEdge(space1.getId(), space2.getId()));
+        assertFalse(graph.hasEdge(space2.getId(), space1.getId()));
+        assertEquals(0, graph.degree(space3.getId()));
+    }
+
+    @Test
+    public void testNeighborsServedFromGraph() {
+        world.getGraph();
+        List<Space> neighbors = space1.getNeighbors();
+        assertEquals(2, neighbors.size());
+        assertEquals(space2, neighbors.get(0));
+        assertEquals(space3, neighbors.get(1));
+        assertTrue(space1.hasNeighbor(space3));
+        assertFalse(space3.hasNeighbor(space1));
+    }
+
+    @Test
+    public void testAddNeighborAfterBuild() {
+        SpaceGraph graph = world.getGraph();
+        long version = world.getTopologyVersion();
+
+        space3.addNeighbor(space1);
+        assertTrue(space3.hasNeighbor(space1));
+        assertTrue(world.getTopologyVersion() > version);
+
+        SpaceGraph rebuilt = world.getGraph();
+        assertNotSame(graph, rebuilt);
+        assertTrue(rebuilt.hasEdge(space3.getId(), space1.getId()));
+        assertTrue(space1.hasNeighbor(space2));
+    }
+
+    @Test
+    public void testNeighborOutsideWorldIsKept() {
+        Space outside = new Space("Attic", null);
+        space3.addNeighbor(outside);
+        world.getGraph();
+        assertTrue(space3.getNeighbors().contains(outside));
+        assertEquals(-1, world.getGraph().idOf(outside));
+    }
+
+    @Test
+    public void testRemovedSpaceLeavesCompactNeighbors() {
+        Space hall = new Space("Hall", world);
+        world.getSpaces().add(0, hall);
+        hall.addNeighbor(space1);
+        space2.addNeighbor(space1);
+        world.getGraph();
+
+        world.getSpaces().remove(space1);
+        SpaceGraph rebuilt = world.getGraph();
+        assertFalse(hall.hasNeighbor(space1));
+        assertFalse(hall.getNeighbors().contains(space1));
+        assertTrue(space2.hasNeighbor(space3));
+        assertFalse(space2.hasNeighbor(space1));
+        assertEquals(1, space2.getNeighbors().size());
+        assertEquals(0, rebuilt.degree(hall.getId()));
+
+        // The removed space still knows where it led
+        assertTrue(space1.hasNeighbor(space2));
+        assertTrue(space1.hasNeighbor(space3));
+        assertEquals(2, space1.getNeighbors().size());
+    }
+}
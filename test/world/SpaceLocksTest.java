@@ -0,0 +1,215 @@
+package world;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for concurrent movement guarded by SpaceLocks.
+ */
+public class SpaceLocksTest {
+    private static final int SPACES = 12;
+    private static final int THREADS = 8;
+    private static final int MOVES = 20000;
+
+    @Test(timeout = 60000)
+    public void testConcurrentMovesKeepOccupancyConsistent() throws Exception {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        List<Space> spaces = new ArrayList<>();
+        for (int i = 0; i < SPACES; i++) {
+            spaces.add(new Space("Room" + i, world));
+        }
+        world.addSpaces(spaces);
+        for (int i = 0; i < SPACES; i++) {
+            for (int j = 0; j < SPACES; j++) {
+                if (i != j) {
+                    spaces.get(i).addNeighbor(spaces.get(j));
+                }
+            }
+        }
+        List<Player> players = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Player player = t % 2 == 0 ? new HumanPlayer("P" + t, 100, spaces.get(0)) : new AIPlayer("P" + t, 100, spaces.get(0), null);
+            spaces.get(0).addPlayer(player);
+            players.add(player);
+        }
+        Pet pet = new Pet("Fortune", spaces.get(0), null);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < SPACES; i++) {
+            Item item = new Item("Item" + i, 1, "An item");
+            spaces.get(i).addItem(item);
+            items.add(item);
+        }
+        world.publishSnapshot();
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Player player = players.get(t);
+            long seed = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int m = 0; m < MOVES; m++) {
+                        Space next = spaces.get(random.nextInt(SPACES));
+                        player.move(next);
+                        if (m % 7 == 0) {
+                            pet.moveTo(spaces.get(random.nextInt(SPACES)));
+                        }
+                        if (m % 97 == 0) {
+                            Item[] lying;
+                            SpaceLocks.lock(next);
+                            try {
+                                lying = next.getItems().toArray(new Item[0]);
+                            } finally {
+                                SpaceLocks.unlock(next);
+                            }
+                            for (Item item : lying) {
+                                player.pickUpItem(item);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            world.publishSnapshot(); // Snapshots are taken while the players move
+            Thread.sleep(1);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+
+        int occupants = 0;
+        int pets = 0;
+        for (Space space : spaces) {
+            occupants += space.getPlayers().size();
+            pets += space.getPets().size();
+            for (Player player : space.getPlayers()) {
+                assertSame(space, player.getCurrentSpace());
+            }
+        }
+        assertEquals(THREADS, occupants);
+        assertEquals(1, pets);
+        assertTrue(pet.getCurrentSpace().getPets().contains(pet));
+        for (Player player : players) {
+            assertSame(player.getCurrentSpace(), world.getPlayerSpace(player));
+        }
+
+        int carried = 0;
+        for (Player player : players) {
+            carried += player.getInventory().size();
+        }
+        int lying = 0;
+        for (Space space : spaces) {
+            lying += space.getItems().size();
+        }
+        assertEquals(items.size(), carried + lying);
+
+        // The last snapshot matches the final state
+        WorldSnapshot snapshot = world.publishSnapshot();
+        for (Space space : spaces) {
+            assertEquals(space.getPlayers().size(), snapshot.getSpace(space.getName()).getPlayerNames().size());
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentPickUpsHandOutItemOnce() throws Exception {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        Space hall = new Space("Hall", world);
+        Space kitchen = new Space("Kitchen", world);
+        world.addSpaces(Arrays.asList(hall, kitchen));
+        hall.addNeighbor(kitchen);
+        kitchen.addNeighbor(hall);
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        Player bot = new AIPlayer("Bot", 100, hall, null);
+        hall.addPlayer(alice);
+        hall.addPlayer(bot);
+
+        for (int round = 0; round < 500; round++) {
+            Item item = new Item("Item" + round, 1, "An item");
+            (round % 2 == 0 ? hall : kitchen).addItem(item);
+            CyclicBarrier start = new CyclicBarrier(2);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread viaWorld = new Thread(() -> {
+                try {
+                    start.await();
+                    world.playerPickUpItem(alice, item);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            Thread viaPlayer = new Thread(() -> {
+                try {
+                    start.await();
+                    bot.pickUpItem(item);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            viaWorld.start();
+            viaPlayer.start();
+            viaWorld.join();
+            viaPlayer.join();
+            assertNull(failure.get());
+
+            boolean aliceHas = alice.getInventory().contains(item);
+            boolean botHas = bot.getInventory().contains(item);
+            Space space = world.getItemSpace(item);
+            boolean lying = space != null && space.getItems().contains(item);
+            assertEquals(1, (aliceHas ? 1 : 0) + (botHas ? 1 : 0) + (lying ? 1 : 0));
+            assertSame(aliceHas ? alice : botHas ? bot : null, world.getItemHolder(item));
+            alice.getInventory().remove(item);
+            bot.getInventory().remove(item);
+            world.removeItem(item);
+            alice.move(round % 2 == 0 ? kitchen : hall);
+            bot.move(round % 2 == 0 ? kitchen : hall);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testWorldPickUpWaitsForSpaceLock() throws Exception {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        Space hall = new Space("Hall", world);
+        world.addSpaces(Arrays.asList(hall));
+        Player alice = new HumanPlayer("Alice", 100, hall);
+        Player bot = new AIPlayer("Bot", 100, hall, null);
+        hall.addPlayer(alice);
+        hall.addPlayer(bot);
+        Item item = new Item("Knife", 1, "A sharp knife");
+        hall.addItem(item);
+
+        Thread viaWorld = new Thread(() -> world.playerPickUpItem(alice, item));
+        SpaceLocks.lock(hall);
+        try {
+            viaWorld.start();
+            while (viaWorld.getState() != Thread.State.WAITING && viaWorld.isAlive()) {
+                Thread.sleep(1);
+            }
+            bot.pickUpItem(item); // the bot gets there first while the world waits for the space
+        } finally {
+            SpaceLocks.unlock(hall);
+        }
+        viaWorld.join();
+
+        assertTrue(bot.getInventory().contains(item));
+        assertFalse(alice.getInventory().contains(item));
+        assertSame(bot, world.getItemHolder(item));
+    }
+}
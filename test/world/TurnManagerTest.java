@@ -0,0 +1,120 @@
+package world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the TurnManager class.
+ */
+public class TurnManagerTest {
+    private Space hall;
+    private Player alice;
+    private Player bob;
+    private Player carol;
+
+    @Before
+    public void setUp() {
+        World world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        hall = new Space("Hall", world);
+        alice = new HumanPlayer("Alice", 10, hall);
+        bob = new HumanPlayer("Bob", 30, hall);
+        carol = new HumanPlayer("Carol", 20, hall);
+    }
+
+    @Test
+    public void testTurnsGoRoundInOrder() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob, carol), 100);
+        assertTrue(turns.isRoundStarting());
+        assertSame(alice, turns.nextPlayer());
+        assertFalse(turns.isRoundComplete());
+        assertSame(bob, turns.nextPlayer());
+        assertSame(carol, turns.nextPlayer());
+        assertTrue(turns.isRoundComplete());
+        assertEquals(1, turns.getRoundsCompleted());
+        assertSame(alice, turns.nextPlayer());
+        assertEquals(4, turns.getTurnsTaken());
+    }
+
+    @Test
+    public void testTurnLimitEndsGame() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob), 5);
+        int handed = 0;
+        while (turns.nextPlayer() != null) {
+            handed++;
+        }
+        assertEquals(5, handed);
+        assertTrue(turns.isGameOver());
+        assertEquals(2, turns.getRoundsCompleted());
+    }
+
+    @Test
+    public void testDefeatedPlayersAreSkipped() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob, carol), 100);
+        assertSame(alice, turns.nextPlayer());
+        bob.reduceHealth(30);
+        assertSame(carol, turns.nextPlayer());
+        assertTrue(turns.isRoundComplete());
+        assertEquals(Arrays.asList(alice, carol), turns.getPlayers());
+    }
+
+    @Test
+    public void testDefeatOfLastPlayerCompletesRound() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob, carol), 100);
+        turns.nextPlayer();
+        turns.nextPlayer();
+        assertFalse(turns.isRoundComplete());
+        carol.reduceHealth(20); // e.g. Bob attacked Carol on his turn
+        assertTrue(turns.isRoundComplete());
+        assertSame(alice, turns.nextPlayer());
+    }
+
+    @Test
+    public void testGameOverWhenEveryoneIsDefeated() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob), 100);
+        alice.reduceHealth(10);
+        bob.reduceHealth(30);
+        assertTrue(turns.isGameOver());
+        assertNull(turns.nextPlayer());
+    }
+
+    @Test
+    public void testRemoveAndAddPlayers() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob), 100);
+        assertTrue(turns.removePlayer(alice));
+        assertFalse(turns.removePlayer(alice));
+        turns.addPlayer(carol);
+        assertSame(bob, turns.nextPlayer());
+        assertSame(carol, turns.nextPlayer());
+        assertTrue(turns.isRoundComplete());
+    }
+
+    @Test
+    public void testOrderingAppliesEachRound() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob, carol), 100);
+        // Highest health goes first
+        turns.setOrdering(Comparator.comparingInt(Player::getHealth).reversed());
+        assertEquals(Arrays.asList(bob, carol, alice), turns.nextRound());
+
+        bob.reduceHealth(25);
+        assertEquals(Arrays.asList(carol, alice, bob), turns.nextRound());
+        assertEquals(2, turns.getRoundsCompleted());
+    }
+
+    @Test
+    public void testRoundBatches() {
+        TurnManager turns = new TurnManager(Arrays.asList(alice, bob, carol), 7);
+        turns.nextPlayer();
+        assertEquals(Arrays.asList(bob, carol), turns.nextRound());
+        assertEquals(Arrays.asList(alice, bob, carol), turns.nextRound());
+        List<Player> last = turns.nextRound();
+        assertEquals(Arrays.asList(alice), last); // Cut short by the turn limit
+        assertTrue(turns.nextRound().isEmpty());
+    }
+}
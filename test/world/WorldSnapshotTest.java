@@ -0,0 +1,94 @@
+package world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the WorldSnapshot class.
+ */
+public class WorldSnapshotTest {
+    private World world;
+    private Space hall;
+    private Space kitchen;
+    private Player alice;
+
+    @Before
+    public void setUp() {
+        world = new World(new ArrayList<>(), new ArrayList<>(), null, null, null);
+        hall = new Space("Hall", world);
+        kitchen = new Space("Kitchen", world);
+        world.getSpaces().add(hall);
+        world.getSpaces().add(kitchen);
+        hall.addNeighbor(kitchen);
+        alice = new HumanPlayer("Alice", 100, hall);
+        hall.addPlayer(alice);
+    }
+
+    @Test
+    public void testEmptyUntilPublished() {
+        assertEquals(0, world.getSnapshot().getVersion());
+        assertTrue(world.getSnapshot().getSpaces().isEmpty());
+
+        WorldSnapshot snapshot = world.publishSnapshot();
+        assertSame(snapshot, world.getSnapshot());
+        assertEquals(2, snapshot.getSpaces().size());
+        assertEquals("Hall", snapshot.getSpaces().get(0).getName());
+        assertEquals("[Alice]", snapshot.getSpace("hall").getPlayerNames().toString());
+        assertEquals("[Kitchen]", snapshot.getSpace("Hall").getNeighborNames().toString());
+    }
+
+    @Test
+    public void testSnapshotUnaffectedByLaterMoves() {
+        WorldSnapshot before = world.publishSnapshot();
+        alice.move(kitchen);
+        kitchen.addItem(new Item("Knife", 5, ""));
+
+        // The old snapshot still shows Alice in the hall
+        assertEquals("[Alice]", before.getSpace("Hall").getPlayerNames().toString());
+        assertTrue(before.getSpace("Kitchen").getPlayerNames().isEmpty());
+
+        WorldSnapshot after = world.publishSnapshot();
+        assertTrue(after.getVersion() > before.getVersion());
+        assertTrue(after.getSpace("Hall").getPlayerNames().isEmpty());
+        assertEquals("[Alice]", after.getSpace("Kitchen").getPlayerNames().toString());
+        assertEquals("Knife", after.getSpace("Kitchen").getItems().get(0).getName());
+    }
+
+    @Test
+    public void testUnchangedSpacesShared() {
+        List<Space> more = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            more.add(new Space("Room" + i, world));
+        }
+        world.addSpaces(more);
+        WorldSnapshot before = world.publishSnapshot();
+
+        // Nothing changed, so publishing again gives the same snapshot
+        assertSame(before, world.publishSnapshot());
+
+        more.get(150).addItem(new Item("Lamp", 1, ""));
+        WorldSnapshot after = world.publishSnapshot();
+        assertNotSame(before.getSpace("Room150"), after.getSpace("Room150"));
+        assertSame(before.getSpace("Room10"), after.getSpace("Room10"));
+        assertSame(before.getSpace("Hall"), after.getSpace("Hall"));
+    }
+
+    @Test
+    public void testTopologyChangeRecapturesNeighbors() {
+        world.publishSnapshot();
+        kitchen.addNeighbor(hall);
+        assertEquals("[Hall]", world.publishSnapshot().getSpace("Kitchen").getNeighborNames().toString());
+    }
+
+    @Test
+    public void testDescriptionMatchesSpace() {
+        hall.addItem(new Item("Sword", 10, ""));
+        new Pet("Rex", hall, null);
+        assertEquals(hall.getDescription(), world.publishSnapshot().getSpace("Hall").getDescription());
+    }
+}
@@ -2,6 +2,7 @@ package world;
 
 import org.junit.Before;
 import org.junit.Test;
+import strategy.DepthFirstMoveStrategy;
 import strategy.TargetStrategy;
 import strategy.RandomMoveStrategy;
 
@@ -171,4 +172,219 @@ public class WorldTest {
         long itemCount = world.getItems().stream().filter(i -> i.equals(item1)).count();
         assertEquals(1, itemCount);
     }
+
+    @Test
+    public void testGetSpaceIgnoresCase() {
+        assertEquals(space1, world.getSpace("living room"));
+        assertEquals(space2, world.getSpace("KITCHEN"));
+        assertNull(world.getSpace("Garden"));
+    }
+
+    @Test
+    public void testGetSpaceTracksListChanges() {
+        Space space3 = new Space("Garden", world);
+        world.getSpaces().add(space3);
+        assertEquals(space3, world.getSpace("garden"));
+
+        world.getSpaces().remove(space3);
+        assertNull(world.getSpace("garden"));
+
+        List<Space> newSpaces = new ArrayList<>();
+        newSpaces.add(space3);
+        world.setSpaces(newSpaces);
+        assertNull(world.getSpace("kitchen"));
+        assertEquals(space3, world.getSpace("Garden"));
+    }
+
+    @Test
+    public void testGetSpaceAfterRename() {
+        space2.setName("Pantry");
+        assertNull(world.getSpace("Kitchen"));
+        assertEquals(space2, world.getSpace("pantry"));
+    }
+
+    @Test
+    public void testGetSpaceWithDuplicateNames() {
+        Space duplicate = new Space("Kitchen", world);
+        world.getSpaces().add(duplicate);
+        assertEquals(space2, world.getSpace("Kitchen"));
+
+        world.getSpaces().remove(space2);
+        assertEquals(duplicate, world.getSpace("Kitchen"));
+    }
+
+    @Test
+    public void testPlayerRegistryFollowsMoves() {
+        assertEquals(2, world.getPlayerCount());
+        assertEquals(space1, world.getPlayerSpace(player1));
+
+        player1.move(space2);
+        assertEquals(2, world.getPlayerCount());
+        assertEquals(space2, world.getPlayerSpace(player1));
+
+        space2.removePlayer(player2);
+        assertEquals(1, world.getPlayerCount());
+        assertFalse(world.getPlayers().contains(player2));
+        assertNull(world.getPlayerSpace(player2));
+    }
+
+    @Test
+    public void testPlayerIds() {
+        int id = world.getPlayerId(player2);
+        assertEquals(player2, world.getPlayerById(id));
+        assertNotEquals(id, world.getPlayerId(player1));
+        assertEquals(-1, world.getPlayerId(new HumanPlayer("Ghost", 100, space1)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetPlayersIsReadOnly() {
+        world.getPlayers().add(new HumanPlayer("Charlie", 100, space1));
+    }
+
+    @Test
+    public void testItemRegistryTracksPickUpAndDrop() {
+        Item item3 = new Item("Dagger", 7, "A small dagger.");
+        space1.addItem(item3);
+        assertTrue(world.getItems().contains(item3));
+        assertEquals(space1, world.getItemSpace(item3));
+
+        world.playerPickUpItem(player1, item3);
+        assertTrue(player1.getInventory().contains(item3));
+        assertFalse(space1.getItems().contains(item3));
+        assertFalse(world.getItems().contains(item3));
+        assertEquals(player1, world.getItemHolder(item3));
+
+        player1.move(space2);
+        world.playerDropItem(player1, item3);
+        assertFalse(player1.getInventory().contains(item3));
+        assertTrue(space2.getItems().contains(item3));
+        assertEquals(space2, world.getItemSpace(item3));
+        assertNull(world.getItemHolder(item3));
+    }
+
+    @Test
+    public void testPickUpItemFromAnotherSpaceIsRejected() {
+        Item item3 = new Item("Dagger", 7, "A small dagger.");
+        space2.addItem(item3);
+
+        world.playerPickUpItem(player1, item3);
+        assertFalse(player1.getInventory().contains(item3));
+        assertEquals(space2, world.getItemSpace(item3));
+    }
+
+    @Test
+    public void testRemoveItemTakesItOutOfItsSpace() {
+        Item item3 = new Item("Dagger", 7, "A small dagger.");
+        space1.addItem(item3);
+
+        world.removeItem(item3);
+        assertFalse(space1.getItems().contains(item3));
+        assertFalse(world.getItems().contains(item3));
+        assertNull(world.getItemSpace(item3));
+    }
+
+    @Test
+    public void testPetHidesItsSpace() {
+        space1.addNeighbor(space2);
+        space2.addNeighbor(space1);
+        assertTrue(world.isVisible(space1, space2));
+
+        Pet pet = new Pet("Rex", space2, new RandomMoveStrategy());
+        assertFalse(world.isVisible(space2));
+        assertFalse(world.isVisible(space1, space2));
+        assertTrue(world.isVisible(space2, space2));
+
+        pet.moveTo(space1);
+        assertTrue(world.isVisible(space1, space2));
+        assertFalse(world.isVisible(space2, space1));
+    }
+
+    @Test
+    public void testFindWitnessInNeighboringSpace() {
+        space2.addNeighbor(space1);
+        Player player3 = new HumanPlayer("Charlie", 100, space1);
+        space1.addPlayer(player3);
+        assertEquals(player2, world.findWitness(space1, player1, player3));
+
+        new Pet("Rex", space1, new RandomMoveStrategy());
+        assertNull(world.findWitness(space1, player1, player3));
+    }
+
+    @Test
+    public void testSeveralPets() {
+        Space space3 = new Space("Study", world);
+        world.getSpaces().add(space3);
+        space1.addNeighbor(space2);
+        space2.addNeighbor(space3);
+        space3.addNeighbor(space1);
+
+        Pet rex = new Pet("Rex", space1, new DepthFirstMoveStrategy());
+        Pet tom = new Pet("Tom", space2, new DepthFirstMoveStrategy());
+        assertEquals(0, world.addPet(rex));
+        assertEquals(1, world.addPet(tom));
+        assertEquals(1, world.addPet(tom)); // Already in the world
+        assertEquals(2, world.getPetCount());
+        assertSame(rex, world.getPet());
+        assertSame(tom, world.getPet(1));
+        assertSame(world.getPets(), world.getPets());
+
+        // Both pets hide their spaces
+        assertFalse(world.isVisible(space1));
+        assertFalse(world.isVisible(space2));
+        assertTrue(world.isVisible(space3));
+
+        world.movePets();
+        assertSame(space2, rex.getCurrentSpace());
+        assertSame(space3, tom.getCurrentSpace());
+        assertTrue(world.isVisible(space1));
+        assertFalse(world.isVisible(space3));
+
+        World copy = world.copy();
+        assertEquals(2, copy.getPetCount());
+        assertEquals("Study", copy.getPet(1).getCurrentSpace().getName());
+
+        assertTrue(world.removePet(rex));
+        assertTrue(world.isVisible(space2));
+        assertSame(tom, world.getPet());
+        assertEquals(1, world.getPets().size());
+    }
+
+    @Test
+    public void testRemovedPetLeavesWorld() {
+        Pet rex = new Pet("Rex", space1, new RandomMoveStrategy());
+        world.addPet(rex);
+        assertTrue(world.removePet(rex));
+
+        assertEquals("Pet[name=Rex, currentSpace=none]", rex.toString());
+        rex.move(); // No world to move in any more
+        assertNull(rex.getCurrentSpace());
+        assertTrue(world.isVisible(space1));
+    }
+
+    @Test
+    public void testSetPetReplacesFirstPet() {
+        Pet rex = new Pet("Rex", space1, new RandomMoveStrategy());
+        Pet tom = new Pet("Tom", space2, new RandomMoveStrategy());
+        world.setPet(rex);
+        world.addPet(tom);
+
+        // The replaced pet leaves its space, so the space is visible again
+        Pet fido = new Pet("Fido", space2, new RandomMoveStrategy());
+        world.setPet(fido);
+        assertSame(fido, world.getPet());
+        assertNull(rex.getCurrentSpace());
+        assertFalse(space1.getPets().contains(rex));
+        assertTrue(world.isVisible(space1));
+        assertEquals(2, world.getPetCount());
+
+        // A pet already in the world moves to the front instead of being listed twice
+        world.setPet(tom);
+        assertSame(tom, world.getPet());
+        assertEquals(1, world.getPetCount());
+        assertSame(space2, tom.getCurrentSpace());
+
+        world.setPet(null);
+        assertEquals(0, world.getPetCount());
+        assertNull(tom.getCurrentSpace());
+    }
 }